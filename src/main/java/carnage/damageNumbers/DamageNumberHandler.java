@@ -1,32 +1,47 @@
 package carnage.damageNumbers;
 
-import com.github.retrooper.packetevents.PacketEvents;
-import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
-import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
-import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
-import com.github.retrooper.packetevents.util.Vector3d;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
-import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
+import carnage.damageNumbers.format.NumberFormatter;
+import carnage.damageNumbers.packet.HologramPacketSink;
+import carnage.damageNumbers.packet.PacketEventsPacketSink;
+import carnage.damageNumbers.profile.WorldProfile;
+import carnage.damageNumbers.profile.WorldProfiles;
+import carnage.damageNumbers.scheduler.PluginScheduler;
+import carnage.damageNumbers.scheduler.TickClock;
+import carnage.damageNumbers.util.LongIndexMap;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
 
-import javax.naming.Name;
-import java.text.DecimalFormat;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
- * Manages the display of damage and healing holograms using PacketEvents.
+ * Manages the display of damage and healing holograms.
+ * Packets are written through a {@link HologramPacketSink} and timing comes from a {@link TickClock},
+ * so the handler can run headless against recording implementations.
+ * Live hologram state is held in {@link HologramPartition}s: one for the whole server on the main thread, or on a
+ * regionized server one per 16 by 16 chunk area, each touched only by the region thread owning its anchor chunk.
+ * Region partitions are evicted once their last hologram expires, and a world's partitions when the world unloads.
  */
-public class DamageNumberHandler {
+public class DamageNumberHandler implements Listener {
+    /** Target key for holograms that are not attached to a target and are placed with random jitter. */
+    public static final long NO_TARGET = Long.MIN_VALUE;
+
     private static final Pattern COLOR_CODE_PATTERN = Pattern.compile("&([0-9a-fA-Fk-oK-O])");
     private static final String CONFIG_NORMAL_FORMAT = "formats.normal";
     private static final String CONFIG_CRITICAL_FORMAT = "formats.critical";
@@ -41,37 +56,154 @@ public class DamageNumberHandler {
     private static final String CONFIG_STACKING_HEALING = "advanced.stacking.healing-enabled";
     private static final String CONFIG_STACK_WINDOW = "healing.stack-window-ms";
     private static final String CONFIG_STACK_DELAY = "healing.stack-delay-ticks";
-
-    private final DamageNumbers plugin;
-    private final Map<String, String> damageFormats;
-    private final Random random;
-    private final DecimalFormat numberFormat;
+    private static final String CONFIG_NUMBER_LOCALE = "formats.locale";
+    private static final String CONFIG_COMPACT_ENABLED = "formats.compact.enabled";
+    private static final String CONFIG_COMPACT_THRESHOLD = "formats.compact.threshold";
+    private static final String CONFIG_MERGE_MAX_TICKS = "advanced.stacking.merge-max-ticks";
+    private static final String CONFIG_MERGE_POP_SCALE = "advanced.stacking.merge-pop-scale";
+    private static final int MERGE_POP_TICKS = 3;
+    private static final int MERGE_SWEEP_MIN = 64;
+    private static final String CONFIG_LAYOUT_ENABLED = "display.layout.enabled";
+    private static final String CONFIG_LAYOUT_SLOTS = "display.layout.slots";
+    private static final String CONFIG_LAYOUT_SPACING = "display.layout.vertical-spacing";
+    private static final String CONFIG_LAYOUT_RADIUS = "display.layout.radius";
+    private static final int PARTITION_CHUNK_SHIFT = 4;
+    private static final int ENTITY_ID_BASE = 1 << 30;
+    private static final AtomicInteger NEXT_ENTITY_ID = new AtomicInteger(ENTITY_ID_BASE);
+
+    private final Supplier<FileConfiguration> configSupplier;
+    private final Logger logger;
+    private final HologramPacketSink packetSink;
+    private final PluginScheduler regionScheduler;
+    private final WorldProfiles worldProfiles;
+    private volatile Map<String, String> damageFormats;
+    private volatile NumberFormatter numberFormat;
+    private volatile LayoutSettings layoutSettings;
     private final Map<UUID, HealStack> healStacks;
+    private final HologramPartition mainPartition;
+    private final Map<UUID, Map<Long, HologramPartition>> regionPartitions;
 
     public DamageNumberHandler(DamageNumbers plugin) {
-        this.plugin = plugin;
-        this.random = new Random();
-        this.numberFormat = new DecimalFormat("#,##0.#");
+        this(plugin::getConfig, plugin.getPluginLogger(), new PacketEventsPacketSink(plugin), plugin.getPluginScheduler(), plugin.getWorldProfiles());
+        logger.info("DamageNumberHandler initialized with PacketEvents text display holograms");
+    }
+
+    /**
+     * Creates a handler with explicit packet and timing backends, running every hologram on one clock with the global profile.
+     *
+     * @param configSupplier supplies the current configuration
+     * @param logger         the logger for diagnostics
+     * @param packetSink     the destination for hologram packets
+     * @param clock          the tick clock used for animation and stacking
+     */
+    public DamageNumberHandler(Supplier<FileConfiguration> configSupplier, Logger logger, HologramPacketSink packetSink, TickClock clock) {
+        this(configSupplier, logger, packetSink, null, clock, new WorldProfiles(configSupplier));
+    }
+
+    /**
+     * Creates a handler scheduled by a plugin scheduler, partitioning holograms by region when the server is regionized.
+     *
+     * @param configSupplier supplies the current configuration
+     * @param logger         the logger for diagnostics
+     * @param packetSink     the destination for hologram packets
+     * @param scheduler      the scheduler for the running server
+     * @param worldProfiles  the compiled per-world animation settings
+     */
+    public DamageNumberHandler(Supplier<FileConfiguration> configSupplier, Logger logger, HologramPacketSink packetSink, PluginScheduler scheduler,
+                               WorldProfiles worldProfiles) {
+        this(configSupplier, logger, packetSink, scheduler.isRegionized() ? scheduler : null,
+                scheduler.isRegionized() ? null : scheduler.clockAt(null, 0, 0), worldProfiles);
+    }
+
+    /**
+     * Creates a handler.
+     *
+     * @param configSupplier  supplies the current configuration
+     * @param logger          the logger for diagnostics
+     * @param packetSink      the destination for hologram packets
+     * @param regionScheduler the scheduler to partition holograms by region with, or null for a single partition
+     * @param clock           the clock of the single partition, or null when partitioned by region
+     * @param worldProfiles   the compiled per-world animation settings
+     */
+    private DamageNumberHandler(Supplier<FileConfiguration> configSupplier, Logger logger, HologramPacketSink packetSink,
+                                PluginScheduler regionScheduler, TickClock clock, WorldProfiles worldProfiles) {
+        this.configSupplier = configSupplier;
+        this.logger = logger;
+        this.packetSink = packetSink;
+        this.regionScheduler = regionScheduler;
+        this.worldProfiles = worldProfiles;
+        this.numberFormat = createNumberFormatter();
         this.damageFormats = loadDamageFormats();
+        this.layoutSettings = loadLayoutSettings();
         this.healStacks = new ConcurrentHashMap<>();
-        plugin.getPluginLogger().info("DamageNumberHandler initialized with PacketEvents text display holograms");
+        this.mainPartition = regionScheduler == null ? createPartition(null, 0, 0, clock) : null;
+        this.regionPartitions = new ConcurrentHashMap<>();
     }
 
     /**
      * Inner class to manage stacked healing data.
+     * Fields are only written inside {@code healStacks.compute} and only read by the flush after it removed the
+     * stack from the map, so every access is ordered by the map's per-key lock and the fields need no volatile.
      */
     private static class HealStack {
+        private final TickClock clock;
+        private final Entity healed;
+        private final long targetKey;
         private double totalAmount;
         private long lastUpdateTime;
         private int taskId;
+        private Supplier<Location> locationResolver;
+        private Supplier<Set<Player>> viewerResolver;
 
-        HealStack(double amount, long time) {
+        HealStack(TickClock clock, Entity healed, long targetKey, double amount, long time) {
+            this.clock = clock;
+            this.healed = healed;
+            this.targetKey = targetKey;
             this.totalAmount = amount;
             this.lastUpdateTime = time;
             this.taskId = -1;
         }
     }
 
+    /**
+     * Per-target slot layout settings, swapped as a whole on reload. Each partition compares the instance it was
+     * built from with the current one and rebuilds its layout on its own thread.
+     *
+     * @param enabled         whether numbers attached to a target are placed in slots rather than with random jitter
+     * @param slots           the number of slots per target
+     * @param verticalSpacing the height between slot levels in blocks
+     * @param radius          the horizontal distance of slots from the target in blocks
+     */
+    record LayoutSettings(boolean enabled, int slots, double verticalSpacing, double radius) {
+
+        /**
+         * Creates a layout from these settings.
+         *
+         * @return the layout, or null to place holograms with random jitter
+         */
+        HologramLayout create() {
+            return enabled ? new HologramLayout(slots, verticalSpacing, radius) : null;
+        }
+    }
+
+    /**
+     * A live damage number that later hits from the same attacker on the same target are merged into.
+     */
+    static class MergedNumber {
+        private final long key;
+        private final int entityId;
+        private final long startTick;
+        private long expiresAtTick;
+        private double totalDamage;
+        private boolean hasCritical;
+
+        MergedNumber(long key, int entityId, long startTick) {
+            this.key = key;
+            this.entityId = entityId;
+            this.startTick = startTick;
+        }
+    }
+
     /**
      * Loads damage format strings from the configuration.
      *
@@ -79,14 +211,191 @@ public class DamageNumberHandler {
      */
     private Map<String, String> loadDamageFormats() {
         Map<String, String> formats = new HashMap<>();
-        FileConfiguration config = plugin.getConfig();
+        FileConfiguration config = configSupplier.get();
         formats.put("normal", config.getString(CONFIG_NORMAL_FORMAT, "&7%s"));
         formats.put("critical", config.getString(CONFIG_CRITICAL_FORMAT, "&6&l%s ✧"));
         formats.put("healing", config.getString(CONFIG_HEALING_FORMAT, "&a+%s ❤"));
-        plugin.getPluginLogger().info("Loaded damage formats: " + formats);
+        logger.info("Loaded damage formats: " + formats);
         return formats;
     }
 
+    /**
+     * Creates the amount formatter from the configured locale and compact settings.
+     *
+     * @return the number formatter
+     */
+    private NumberFormatter createNumberFormatter() {
+        FileConfiguration config = configSupplier.get();
+        return new NumberFormatter(
+                NumberFormatter.parseLocale(config.getString(CONFIG_NUMBER_LOCALE, "")),
+                config.getBoolean(CONFIG_COMPACT_ENABLED, false),
+                config.getDouble(CONFIG_COMPACT_THRESHOLD, 10000.0)
+        );
+    }
+
+    /**
+     * Loads the per-target slot layout settings from the configuration.
+     *
+     * @return the layout settings
+     */
+    private LayoutSettings loadLayoutSettings() {
+        FileConfiguration config = configSupplier.get();
+        return new LayoutSettings(
+                config.getBoolean(CONFIG_LAYOUT_ENABLED, true),
+                config.getInt(CONFIG_LAYOUT_SLOTS, 8),
+                config.getDouble(CONFIG_LAYOUT_SPACING, 0.3),
+                config.getDouble(CONFIG_LAYOUT_RADIUS, 0.4)
+        );
+    }
+
+    /**
+     * Re-reads the number formats, locale and compact notation, the slot layout and the billboard in place, so the
+     * listeners and meters holding this handler pick them up. Each partition switches to the new layout the next time
+     * it places a number, on its own thread; numbers already live finish where they are without holding a slot.
+     */
+    public void reload() {
+        this.numberFormat = createNumberFormatter();
+        this.damageFormats = loadDamageFormats();
+        this.layoutSettings = loadLayoutSettings();
+        packetSink.reload();
+    }
+
+    /**
+     * Gets a partition's slot layout, first rebuilding it if the layout settings were reloaded since it was built.
+     * Must be called from the thread owning the partition.
+     *
+     * @param partition the partition
+     * @return the layout, or null to place holograms with random jitter
+     */
+    private HologramLayout layoutOf(HologramPartition partition) {
+        LayoutSettings settings = layoutSettings;
+        if (partition.layoutSettings != settings) {
+            partition.layoutSettings = settings;
+            partition.layout = settings.create();
+            partition.animator.setLayout(partition.layout);
+        }
+        return partition.layout;
+    }
+
+    /**
+     * Creates a partition with its own layout and animator.
+     *
+     * @param world  the world of the anchor chunk, or null for the single main-thread partition
+     * @param chunkX the anchor chunk X coordinate
+     * @param chunkZ the anchor chunk Z coordinate
+     * @param clock  the clock driving the partition
+     * @return the partition
+     */
+    private HologramPartition createPartition(World world, int chunkX, int chunkZ, TickClock clock) {
+        LayoutSettings settings = layoutSettings;
+        HologramLayout layout = settings.create();
+        HologramPartition partition = new HologramPartition(world, chunkX, chunkZ, clock, settings, layout,
+                new HologramAnimator(packetSink, clock, layout), MERGE_SWEEP_MIN);
+        if (world != null) {
+            partition.animator.setIdleCallback(() -> evictPartition(partition));
+        }
+        return partition;
+    }
+
+    /**
+     * Drops a region partition whose last hologram has expired, so partitions do not pile up as players explore.
+     * A task already handed the partition still runs on it and its holograms drain normally; the next hologram in
+     * the area creates a fresh partition. Runs on the thread owning the partition; the main-thread partition is kept.
+     *
+     * @param partition the idle partition
+     */
+    private void evictPartition(HologramPartition partition) {
+        if (partition.world == null) {
+            return;
+        }
+        Map<Long, HologramPartition> worldPartitions = regionPartitions.get(partition.world.getUID());
+        if (worldPartitions != null) {
+            worldPartitions.remove(partitionKey(partition.chunkX, partition.chunkZ), partition);
+        }
+    }
+
+    /**
+     * Drops every partition of an unloading world.
+     *
+     * @param event the world unload event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        regionPartitions.remove(event.getWorld().getUID());
+    }
+
+    /**
+     * Packs a partition's anchor chunk coordinates into its key within a world.
+     *
+     * @param chunkX the anchor chunk X coordinate
+     * @param chunkZ the anchor chunk Z coordinate
+     * @return the partition key
+     */
+    private static long partitionKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the partition holding holograms at a location, creating it on first use.
+     *
+     * @param location the hologram location
+     * @return the partition
+     */
+    private HologramPartition partitionFor(Location location) {
+        if (regionScheduler == null) {
+            return mainPartition;
+        }
+
+        World world = location.getWorld();
+        int chunkX = anchorChunk(location.getBlockX());
+        int chunkZ = anchorChunk(location.getBlockZ());
+        return regionPartitions.computeIfAbsent(world.getUID(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(partitionKey(chunkX, chunkZ), k -> createPartition(world, chunkX, chunkZ, regionScheduler.clockAt(world, chunkX, chunkZ)));
+    }
+
+    /**
+     * Gets a clock running on the thread that owns the partition at a location, without creating the partition.
+     *
+     * @param location the location
+     * @return the clock
+     */
+    private TickClock clockFor(Location location) {
+        if (regionScheduler == null) {
+            return mainPartition.clock;
+        }
+        return regionScheduler.clockAt(location.getWorld(), anchorChunk(location.getBlockX()), anchorChunk(location.getBlockZ()));
+    }
+
+    /**
+     * Gets the anchor chunk coordinate of the partition containing a block coordinate.
+     *
+     * @param block the block X or Z coordinate
+     * @return the anchor chunk coordinate
+     */
+    private static int anchorChunk(int block) {
+        return (block >> 4 >> PARTITION_CHUNK_SHIFT) << PARTITION_CHUNK_SHIFT;
+    }
+
+    /**
+     * Checks whether a partition's state may be touched from the calling thread.
+     *
+     * @param partition the partition
+     * @return true on the main-thread partition, or on the region thread owning the partition's anchor chunk
+     */
+    private boolean isOwned(HologramPartition partition) {
+        return partition.world == null || regionScheduler.isOwnedByCurrentThread(partition.world, partition.chunkX, partition.chunkZ);
+    }
+
+    /**
+     * Runs a task on the region thread owning a partition's anchor chunk.
+     *
+     * @param partition the partition
+     * @param task      the task touching the partition
+     */
+    private void runOn(HologramPartition partition, Runnable task) {
+        regionScheduler.runAtChunk(partition.world, partition.chunkX, partition.chunkZ, task, 0L);
+    }
+
     /**
      * Translates legacy color codes (&x) to Adventure Component with NamedTextColor.
      *
@@ -156,39 +465,211 @@ public class DamageNumberHandler {
     }
 
     /**
-     * Displays a damage hologram for a hit.
+     * Displays a damage hologram for a hit to every viewer.
      *
-     * @param viewer     the player viewing the hologram
+     * @param targetKey  the key of the damaged target, used to place the number in a free slot, or {@link #NO_TARGET}
      * @param location   the location to display the hologram
      * @param amount     the damage amount
      * @param isCritical whether the hit is critical
      * @param viewers    the set of players who should see the hologram
      */
-    public void displayDamageHologram(Player viewer, Location location, double amount, boolean isCritical, Set<Player> viewers) {
-        if (!viewers.contains(viewer)) {
+    public void displayDamageHologram(long targetKey, Location location, double amount, boolean isCritical, Set<Player> viewers) {
+        if (viewers.isEmpty()) {
             return;
         }
 
+        HologramPartition partition = partitionFor(location);
+        if (isOwned(partition)) {
+            showDamageHologram(partition, targetKey, location, amount, isCritical, viewers);
+        } else {
+            runOn(partition, () -> showDamageHologram(partition, targetKey, location, amount, isCritical, viewers));
+        }
+    }
+
+    /**
+     * Shows a damage hologram from the thread owning its partition.
+     *
+     * @param partition  the partition holding the hologram
+     * @param targetKey  the key of the damaged target, or {@link #NO_TARGET}
+     * @param location   the location to display the hologram
+     * @param amount     the damage amount
+     * @param isCritical whether the hit is critical
+     * @param viewers    the set of players who should see the hologram
+     */
+    private void showDamageHologram(HologramPartition partition, long targetKey, Location location, double amount, boolean isCritical, Set<Player> viewers) {
+        FileConfiguration config = configSupplier.get();
         Component textComponent = createHologramText(amount, isCritical);
+        int lifetime = isCritical ? config.getInt(CONFIG_LIFETIME_CRITICAL, 40) : config.getInt(CONFIG_LIFETIME_NORMAL, 40);
+        int entityId = generateEntityId();
+        computeSpawnPosition(partition, location, config, targetKey, viewers.size());
+
+        WorldProfile profile = worldProfiles.profileFor(location.getWorld());
+        for (Player viewer : viewers) {
+            startHologram(partition, viewer, entityId, textComponent, lifetime, profile, isCritical, targetKey);
+        }
+    }
+
+    /**
+     * Displays a damage hologram, or merges the hit into the live number the same attacker already has on the target.
+     * A merge sends a single metadata update with the new running total and a short scale pop, instead of a new
+     * spawn and destroy, and keeps the number alive for a full lifetime from now, up to the configured maximum age.
+     *
+     * @param mergeKey   the key identifying the attacker and target pair
+     * @param targetKey  the key of the damaged target, used to place a new number in a free slot, or {@link #NO_TARGET}
+     * @param location   the location to display a new hologram
+     * @param amount     the damage amount
+     * @param isCritical whether the hit is critical
+     * @param viewers    the set of players who should see a new hologram
+     */
+    public void displayMergedDamageHologram(long mergeKey, long targetKey, Location location, double amount, boolean isCritical, Set<Player> viewers) {
+        HologramPartition partition = partitionFor(location);
+        if (isOwned(partition)) {
+            showMergedDamageHologram(partition, mergeKey, targetKey, location, amount, isCritical, viewers);
+        } else {
+            runOn(partition, () -> showMergedDamageHologram(partition, mergeKey, targetKey, location, amount, isCritical, viewers));
+        }
+    }
+
+    /**
+     * Shows or merges a damage hologram from the thread owning its partition.
+     *
+     * @param partition  the partition holding the hologram
+     * @param mergeKey   the key identifying the attacker and target pair
+     * @param targetKey  the key of the damaged target, or {@link #NO_TARGET}
+     * @param location   the location to display a new hologram
+     * @param amount     the damage amount
+     * @param isCritical whether the hit is critical
+     * @param viewers    the set of players who should see a new hologram
+     */
+    private void showMergedDamageHologram(HologramPartition partition, long mergeKey, long targetKey, Location location, double amount,
+                                          boolean isCritical, Set<Player> viewers) {
+        FileConfiguration config = configSupplier.get();
+        long now = partition.clock.currentTick();
+        int lifetime = isCritical ? config.getInt(CONFIG_LIFETIME_CRITICAL, 40) : config.getInt(CONFIG_LIFETIME_NORMAL, 40);
+        int index = partition.mergedIndexByKey.get(mergeKey);
+
+        if (index != LongIndexMap.MISSING) {
+            MergedNumber merged = partition.mergedNumbers.get(index);
+            if (now < merged.expiresAtTick && now - merged.startTick < config.getInt(CONFIG_MERGE_MAX_TICKS, 100)) {
+                merged.totalDamage += amount;
+                merged.hasCritical |= isCritical;
+                Component text = createHologramText(merged.totalDamage, merged.hasCritical);
+                float popScale = (float) config.getDouble(CONFIG_MERGE_POP_SCALE, 1.25);
+                if (partition.animator.updateText(merged.entityId, text, popScale, lifetime) > 0) {
+                    merged.expiresAtTick = Math.max(merged.expiresAtTick, now + lifetime);
+                    int entityId = merged.entityId;
+                    partition.clock.runLater(() -> partition.animator.updateScale(entityId, 1.0f, MERGE_POP_TICKS), MERGE_POP_TICKS);
+                    return;
+                }
+            }
+            removeMerged(partition, index);
+        }
+
+        if (viewers.isEmpty()) {
+            if (partition.animator.size() == 0) {
+                evictPartition(partition);
+            }
+            return;
+        }
+        sweepMerged(partition, now);
+
         int entityId = generateEntityId();
-        Vector3d spawnPosition = getSpawnPosition(location);
-        sendHologramPackets(viewer, entityId, spawnPosition, textComponent);
-        scheduleHologramAnimation(viewer, entityId, location, spawnPosition, isCritical);
+        computeSpawnPosition(partition, location, config, targetKey, viewers.size());
+        Component text = createHologramText(amount, isCritical);
+        WorldProfile profile = worldProfiles.profileFor(location.getWorld());
+        for (Player viewer : viewers) {
+            startHologram(partition, viewer, entityId, text, lifetime, profile, isCritical, targetKey);
+        }
+
+        MergedNumber merged = new MergedNumber(mergeKey, entityId, now);
+        merged.expiresAtTick = now + lifetime;
+        merged.totalDamage = amount;
+        merged.hasCritical = isCritical;
+        partition.mergedIndexByKey.put(mergeKey, partition.mergedNumbers.size());
+        partition.mergedNumbers.add(merged);
+    }
+
+    /**
+     * Removes merged numbers that have expired once the table has doubled since the last sweep.
+     *
+     * @param partition the partition to sweep
+     * @param now       the current tick
+     */
+    private void sweepMerged(HologramPartition partition, long now) {
+        List<MergedNumber> mergedNumbers = partition.mergedNumbers;
+        if (mergedNumbers.size() < partition.mergeSweepAt) {
+            return;
+        }
+        for (int i = mergedNumbers.size() - 1; i >= 0; i--) {
+            if (now >= mergedNumbers.get(i).expiresAtTick) {
+                removeMerged(partition, i);
+            }
+        }
+        partition.mergeSweepAt = Math.max(MERGE_SWEEP_MIN, mergedNumbers.size() * 2);
+    }
+
+    /**
+     * Removes a merged number by moving the last one into its place.
+     *
+     * @param partition the partition holding the merged number
+     * @param index     the index to remove
+     */
+    private void removeMerged(HologramPartition partition, int index) {
+        List<MergedNumber> mergedNumbers = partition.mergedNumbers;
+        MergedNumber removed = mergedNumbers.get(index);
+        MergedNumber last = mergedNumbers.remove(mergedNumbers.size() - 1);
+        partition.mergedIndexByKey.remove(removed.key);
+        if (last != removed) {
+            mergedNumbers.set(index, last);
+            partition.mergedIndexByKey.put(last.key, index);
+        }
+    }
+
+    /**
+     * Displays a healing hologram at a fixed location to a fixed set of viewers.
+     *
+     * @param healed   the healed entity
+     * @param location the location to display the hologram
+     * @param amount   the healing amount
+     * @param viewers  the set of players who should see the hologram
+     */
+    public void displayHealingHologram(Entity healed, Location location, double amount, Set<Player> viewers) {
+        displayHealingHologram(healed, amount, () -> location, () -> viewers);
+    }
+
+    /**
+     * Displays a healing hologram, resolving its location and viewers when it is shown. With stacking enabled that is
+     * when the stack flushes, so a number that stacked for a while appears where the entity is now, to the players
+     * who can see it now.
+     *
+     * @param healed           the healed entity
+     * @param amount           the healing amount
+     * @param locationResolver supplies the location to display the hologram, called on the entity's thread
+     * @param viewerResolver   supplies the players who should see the hologram, called on the entity's thread
+     */
+    public void displayHealingHologram(Entity healed, double amount, Supplier<Location> locationResolver, Supplier<Set<Player>> viewerResolver) {
+        if (configSupplier.get().getBoolean(CONFIG_STACKING_HEALING, true)) {
+            handleStackedHealing(healed.getUniqueId(), healed, healed.getEntityId(), amount, locationResolver, viewerResolver);
+        } else {
+            showHealingHologram(healed, healed.getEntityId(), amount, locationResolver, viewerResolver);
+        }
     }
 
     /**
-     * Displays a healing hologram.
+     * Displays a healing hologram for an entity known only by its UUID, such as one replayed from a journal, at a fixed
+     * location to a fixed set of viewers. Heals of the same UUID stack like heals of a live entity.
      *
-     * @param healer   the healed player
+     * @param healedId the UUID of the healed entity
      * @param location the location to display the hologram
      * @param amount   the healing amount
      * @param viewers  the set of players who should see the hologram
      */
-    public void displayHealingHologram(Player healer, Location location, double amount, Set<Player> viewers) {
-        if (plugin.getConfig().getBoolean(CONFIG_STACKING_HEALING, true)) {
-            handleStackedHealing(healer, location, amount, viewers);
+    public void displayHealingHologram(UUID healedId, Location location, double amount, Set<Player> viewers) {
+        long targetKey = healedId.getMostSignificantBits() ^ healedId.getLeastSignificantBits();
+        if (configSupplier.get().getBoolean(CONFIG_STACKING_HEALING, true)) {
+            handleStackedHealing(healedId, null, targetKey, amount, () -> location, () -> viewers);
         } else {
-            showHealingHologram(healer, location, amount, viewers);
+            showHealingHologram(null, targetKey, amount, () -> location, () -> viewers);
         }
     }
 
@@ -208,206 +689,286 @@ public class DamageNumberHandler {
     }
 
     /**
-     * Generates a unique entity ID for the hologram.
+     * Generates a unique entity ID for the hologram from a counter shared by every handler, so IDs never collide
+     * between threads or with holograms still alive in a handler replaced by a reload. The range starts far above
+     * the IDs a server hands out to real entities.
      *
      * @return the entity ID
      */
     private int generateEntityId() {
-        return random.nextInt(Integer.MAX_VALUE - 100000) + 100000;
+        return NEXT_ENTITY_ID.getAndUpdate(id -> id == Integer.MAX_VALUE ? ENTITY_ID_BASE : id + 1);
     }
 
     /**
-     * Gets the spawn position for the hologram with random offsets.
+     * Computes the spawn position for the hologram into the partition's spawn scratch fields. Holograms attached to a
+     * target take the next free layout slot around it; others, or all when the layout is disabled, use random offsets.
      *
-     * @param location the base location
-     * @return the spawn position
+     * @param partition the partition holding the hologram
+     * @param location  the base location
+     * @param config    the current configuration
+     * @param targetKey the key of the target, or {@link #NO_TARGET}
+     * @param viewers   the number of viewers that will each release the layout slot
      */
-    private Vector3d getSpawnPosition(Location location) {
-        FileConfiguration config = plugin.getConfig();
-        double offsetX = config.getDouble(CONFIG_OFFSET_X, 0.0) + (random.nextDouble() - 0.5) * config.getDouble(CONFIG_RANDOM_OFFSET, 0.4);
-        double offsetY = config.getDouble(CONFIG_OFFSET_Y, 0.8);
-        double offsetZ = config.getDouble(CONFIG_OFFSET_Z, 0.0) + (random.nextDouble() - 0.5) * config.getDouble(CONFIG_RANDOM_OFFSET, 0.4);
-        return new Vector3d(location.getX() + offsetX, location.getY() + offsetY, location.getZ() + offsetZ);
+    private void computeSpawnPosition(HologramPartition partition, Location location, FileConfiguration config, long targetKey, int viewers) {
+        HologramLayout layout = layoutOf(partition);
+        double baseX = location.getX() + config.getDouble(CONFIG_OFFSET_X, 0.0);
+        double baseY = location.getY() + config.getDouble(CONFIG_OFFSET_Y, 0.8);
+        double baseZ = location.getZ() + config.getDouble(CONFIG_OFFSET_Z, 0.0);
+
+        if (layout != null && targetKey != NO_TARGET) {
+            int slot = layout.acquire(targetKey, viewers);
+            partition.spawnSlot = slot;
+            partition.spawnX = baseX + layout.offsetX(slot);
+            partition.spawnY = baseY + layout.offsetY(slot);
+            partition.spawnZ = baseZ + layout.offsetZ(slot);
+            return;
+        }
+
+        double randomOffset = config.getDouble(CONFIG_RANDOM_OFFSET, 0.4);
+        partition.spawnSlot = HologramLayout.NO_SLOT;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        partition.spawnX = baseX + (random.nextDouble() - 0.5) * randomOffset;
+        partition.spawnY = baseY;
+        partition.spawnZ = baseZ + (random.nextDouble() - 0.5) * randomOffset;
     }
 
     /**
-     * Sends hologram spawn and metadata packets to the viewer.
+     * Spawns a hologram for a viewer at the partition's computed spawn position and hands it to the partition's animator.
      *
+     * @param partition  the partition holding the hologram
      * @param viewer     the player viewing the hologram
      * @param entityId   the entity ID
-     * @param position   the spawn position
-     * @param textComponent the hologram text
+     * @param text       the hologram text
+     * @param lifetime   the hologram lifetime in ticks
+     * @param profile    the animation settings of the hologram's world
+     * @param isCritical whether the hit is critical
+     * @param targetKey  the key of the target owning the computed layout slot
      */
-    private void sendHologramPackets(Player viewer, int entityId, Vector3d position, Component textComponent) {
-        boolean debug = plugin.getConfig().getBoolean("debug", false);
-        WrapperPlayServerSpawnEntity spawnPacket = new WrapperPlayServerSpawnEntity(
-                entityId, Optional.of(UUID.randomUUID()), EntityTypes.TEXT_DISPLAY, position, 0.0f, 0.0f, 0.0f, 0, Optional.empty()
-        );
-        List<EntityData<?>> metadata = new ArrayList<>();
-        metadata.add(new EntityData<>(0, EntityDataTypes.BYTE, (byte) 0x20));
-        metadata.add(new EntityData<>(23, EntityDataTypes.ADV_COMPONENT, textComponent));
-        metadata.add(new EntityData<>(25, EntityDataTypes.INT, 0x40000000));
-        metadata.add(new EntityData<>(27, EntityDataTypes.BYTE, (byte) 0x03));
-        WrapperPlayServerEntityMetadata metadataPacket = new WrapperPlayServerEntityMetadata(entityId, metadata);
-
-        try {
-            PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, spawnPacket);
-            PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, metadataPacket);
-            if (debug) {
-                plugin.getPluginLogger().info("Sent hologram to " + viewer.getName() + ": " + textComponent + " (EntityID: " + entityId + ")");
-            }
-        } catch (Exception e) {
-            plugin.getPluginLogger().warning("Failed to send packets: " + e.getMessage());
-            if (debug) {
-                e.printStackTrace();
-            }
+    private void startHologram(HologramPartition partition, Player viewer, int entityId, Component text, int lifetime, WorldProfile profile,
+                               boolean isCritical, long targetKey) {
+        double spinSpeed = profile.spinSpeed();
+        byte flags = 0;
+        if (profile.bounce()) {
+            flags |= HologramAnimator.FLAG_BOUNCE;
         }
+        if (isCritical && profile.shakeOnCrit()) {
+            flags |= HologramAnimator.FLAG_SHAKE;
+        }
+        if (spinSpeed > 0) {
+            flags |= HologramAnimator.FLAG_SPIN;
+        }
+
+        double x = partition.spawnX;
+        double y = partition.spawnY;
+        double z = partition.spawnZ;
+        packetSink.spawn(viewer, entityId, x, y, z, text);
+        partition.animator.add(viewer, entityId, x, y, z, lifetime, profile.riseSpeed(), spinSpeed, flags,
+                targetKey, partition.spawnSlot);
     }
 
     /**
-     * Schedules the animation and destruction of the hologram.
+     * Handles stacked healing for delayed display. Each event replaces the stack's resolvers, and the location and
+     * viewers are resolved once, when the stack flushes. The location at the first event only picks the clock.
      *
-     * @param viewer     the player viewing the hologram
-     * @param entityId   the entity ID
-     * @param location   the base location
-     * @param position   the initial spawn position
-     * @param isCritical whether the hit is critical
+     * @param healedId         the UUID of the healed entity, keying its stack
+     * @param healed           the healed entity, or null if it is only known by UUID
+     * @param targetKey        the key of the healed entity for the hologram layout
+     * @param amount           the healing amount
+     * @param locationResolver supplies the location to display the hologram
+     * @param viewerResolver   supplies the players who should see the hologram
      */
-    private void scheduleHologramAnimation(Player viewer, int entityId, Location location, Vector3d position, boolean isCritical) {
-        FileConfiguration config = plugin.getConfig();
-        int fadeTicks = isCritical ? config.getInt(CONFIG_LIFETIME_CRITICAL, 40) : config.getInt(CONFIG_LIFETIME_NORMAL, 40);
-        double riseSpeed = config.getDouble("animation.rise-speed", 0.05);
-        boolean bounceEnabled = config.getBoolean("animation.bounce", true);
-        boolean shakeEnabled = config.getBoolean("animation.shake-on-crit", true) && isCritical;
-        boolean spinEnabled = config.getDouble("animation.spin-speed", 0.0) > 0;
-        double spinSpeed = config.getDouble("animation.spin-speed", 0.0);
-        boolean debug = config.getBoolean("debug", false);
-
-        for (int step = 0; step < fadeTicks; step += 2) {
-            final int currentStep = step;
-            plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-                if (!viewer.isOnline()) {
-                    return;
-                }
-
-                double progress = (double) currentStep / fadeTicks;
-                double yOffset = position.getY() + riseSpeed * (currentStep / 2.0);
+    private void handleStackedHealing(UUID healedId, Entity healed, long targetKey, double amount, Supplier<Location> locationResolver,
+                                      Supplier<Set<Player>> viewerResolver) {
+        TickClock clock = clockFor(locationResolver.get());
+        long currentTime = clock.currentTimeMillis();
+        long stackWindow = configSupplier.get().getLong(CONFIG_STACK_WINDOW, 500);
+        int stackDelay = configSupplier.get().getInt(CONFIG_STACK_DELAY, 10);
+
+        healStacks.compute(healedId, (id, stack) -> {
+            if (stack == null) {
+                stack = new HealStack(clock, healed, targetKey, amount, currentTime);
+            } else {
+                stack.clock.cancel(stack.taskId);
+                stack.totalAmount = currentTime - stack.lastUpdateTime < stackWindow ? stack.totalAmount + amount : amount;
+                stack.lastUpdateTime = currentTime;
+            }
+            stack.locationResolver = locationResolver;
+            stack.viewerResolver = viewerResolver;
 
-                if (bounceEnabled && progress < 0.3) {
-                    yOffset += Math.sin(progress * Math.PI * 3) * 0.1;
+            HealStack scheduled = stack;
+            scheduled.taskId = scheduled.clock.runLater(() -> {
+                if (healStacks.remove(healedId, scheduled)) {
+                    flushHealStack(scheduled);
                 }
+            }, stackDelay);
+            return stack;
+        });
+    }
 
-                double xShake = shakeEnabled && progress < 0.4 ? (random.nextDouble() - 0.5) * 0.08 : 0;
-                double zShake = shakeEnabled && progress < 0.4 ? (random.nextDouble() - 0.5) * 0.08 : 0;
-                float yaw = spinEnabled ? (float) (currentStep * spinSpeed * 18.0) : 0.0f;
+    /**
+     * Shows a flushed healing stack, from the healed entity's thread on a regionized server, since the entity may
+     * have left the region whose clock the stack was scheduled on. A stack known only by UUID has a fixed location and
+     * is shown from its clock's thread.
+     *
+     * @param stack the flushed stack
+     */
+    private void flushHealStack(HealStack stack) {
+        Runnable show = () -> showHealingHologram(stack.healed, stack.targetKey, stack.totalAmount, stack.locationResolver, stack.viewerResolver);
+        if (regionScheduler != null && stack.healed != null) {
+            regionScheduler.runForEntity(stack.healed, show, 0L);
+        } else {
+            show.run();
+        }
+    }
 
-                WrapperPlayServerEntityTeleport teleportPacket = new WrapperPlayServerEntityTeleport(
-                        entityId, new Vector3d(position.getX() + xShake, yOffset, position.getZ() + zShake), yaw, 0.0f, false
-                );
+    /**
+     * Resolves a healing hologram's location and viewers and shows it, unless the entity is gone or nobody would see it.
+     *
+     * @param healed           the healed entity, or null if it is only known by UUID
+     * @param targetKey        the key of the healed entity for the hologram layout
+     * @param amount           the healing amount
+     * @param locationResolver supplies the location to display the hologram
+     * @param viewerResolver   supplies the players who should see the hologram
+     */
+    private void showHealingHologram(Entity healed, long targetKey, double amount, Supplier<Location> locationResolver,
+                                     Supplier<Set<Player>> viewerResolver) {
+        if (healed != null && !healed.isValid()) {
+            return;
+        }
+        Set<Player> viewers = viewerResolver.get();
+        if (viewers.isEmpty()) {
+            return;
+        }
+        String format = damageFormats.getOrDefault("healing", "&a+%s ❤");
+        displayFormattedHologram(targetKey, locationResolver.get(), format, amount,
+                configSupplier.get().getInt(CONFIG_LIFETIME_HEALING, 40), viewers);
+    }
 
-                try {
-                    PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, teleportPacket);
-                } catch (Exception e) {
-                    if (debug) {
-                        plugin.getPluginLogger().fine("Teleport failed: " + e.getMessage());
-                    }
-                }
-            }, step);
+    /**
+     * Displays one hologram with a caller-supplied format to every viewer.
+     * Used for healing and for aggregated damage-over-time numbers, which have no attacker.
+     *
+     * @param targetKey the key of the target, used to place the number in a free slot, or {@link #NO_TARGET}
+     * @param location  the location to display the hologram
+     * @param format    the legacy-coded format, with %s replaced by the amount
+     * @param amount    the amount to display
+     * @param lifetime  the hologram lifetime in ticks
+     * @param viewers   the set of players who should see the hologram
+     */
+    public void displayFormattedHologram(long targetKey, Location location, String format, double amount, int lifetime, Set<Player> viewers) {
+        if (viewers.isEmpty()) {
+            return;
         }
 
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            if (!viewer.isOnline()) {
-                return;
-            }
-            WrapperPlayServerDestroyEntities destroyPacket = new WrapperPlayServerDestroyEntities(entityId);
-            try {
-                PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, destroyPacket);
-                if (debug) {
-                    plugin.getPluginLogger().fine("Destroyed hologram: " + entityId);
-                }
-            } catch (Exception e) {
-                if (debug) {
-                    plugin.getPluginLogger().fine("Destroy failed: " + e.getMessage());
-                }
-            }
-        }, fadeTicks);
+        HologramPartition partition = partitionFor(location);
+        if (isOwned(partition)) {
+            showFormattedHologram(partition, targetKey, location, format, amount, lifetime, viewers);
+        } else {
+            runOn(partition, () -> showFormattedHologram(partition, targetKey, location, format, amount, lifetime, viewers));
+        }
     }
 
     /**
-     * Handles stacked healing for delayed display.
+     * Shows a formatted hologram from the thread owning its partition.
      *
-     * @param healer   the healed player
-     * @param location the location to display the hologram
-     * @param amount   the healing amount
-     * @param viewers  the set of players who should see the hologram
+     * @param partition the partition holding the hologram
+     * @param targetKey the key of the target, or {@link #NO_TARGET}
+     * @param location  the location to display the hologram
+     * @param format    the legacy-coded format, with %s replaced by the amount
+     * @param amount    the amount to display
+     * @param lifetime  the hologram lifetime in ticks
+     * @param viewers   the set of players who should see the hologram
      */
-    private void handleStackedHealing(Player healer, Location location, double amount, Set<Player> viewers) {
-        long currentTime = System.currentTimeMillis();
-        UUID healerId = healer.getUniqueId();
-        long stackWindow = plugin.getConfig().getLong(CONFIG_STACK_WINDOW, 500);
+    private void showFormattedHologram(HologramPartition partition, long targetKey, Location location, String format, double amount, int lifetime,
+                                       Set<Player> viewers) {
+        Component textComponent = translateLegacyColorCodes(format.replace("%s", numberFormat.format(amount)));
+        FileConfiguration config = configSupplier.get();
+        int entityId = generateEntityId();
+        computeSpawnPosition(partition, location, config, targetKey, viewers.size());
 
-        HealStack stack = healStacks.computeIfAbsent(healerId, k -> new HealStack(amount, currentTime));
+        WorldProfile profile = worldProfiles.profileFor(location.getWorld());
+        for (Player viewer : viewers) {
+            startHologram(partition, viewer, entityId, textComponent, lifetime, profile, false, targetKey);
+        }
+    }
 
-        if (currentTime - stack.lastUpdateTime < stackWindow) {
-            stack.totalAmount += amount;
-            stack.lastUpdateTime = currentTime;
+    /**
+     * Allocates an entity ID for a hologram managed outside this handler, from the same ID space as damage numbers.
+     *
+     * @return the entity ID
+     */
+    public int nextEntityId() {
+        return generateEntityId();
+    }
 
-            if (stack.taskId != -1) {
-                plugin.getServer().getScheduler().cancelTask(stack.taskId);
-            }
-        } else {
-            stack.totalAmount = amount;
-            stack.lastUpdateTime = currentTime;
-        }
+    /**
+     * Translates text with legacy '&' color codes the same way damage numbers are rendered.
+     *
+     * @param text the text with legacy color codes
+     * @return the formatted Component
+     */
+    public Component formatLegacyText(String text) {
+        return translateLegacyColorCodes(text);
+    }
 
-        stack.taskId = plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            showHealingHologram(healer, location, stack.totalAmount, viewers);
-            healStacks.remove(healerId);
-        }, plugin.getConfig().getInt(CONFIG_STACK_DELAY, 10)).getTaskId();
+    /**
+     * Gets the number of holograms currently alive, counted once per viewer.
+     *
+     * @return the live hologram count
+     */
+    public int getLiveHolograms() {
+        int live = 0;
+        for (HologramPartition partition : partitions()) {
+            live += partition.animator.size();
+        }
+        return live;
     }
 
     /**
-     * Shows a healing hologram to viewers.
+     * Gets the highest number of simultaneously live holograms since the last reset, summed over partitions.
      *
-     * @param healer   the healed player
-     * @param location the location to display the hologram
-     * @param amount   the healing amount
-     * @param viewers  the set of players who should see the hologram
+     * @return the peak live hologram count
      */
-    private void showHealingHologram(Player healer, Location location, double amount, Set<Player> viewers) {
-        boolean debug = plugin.getConfig().getBoolean("debug", false);
-        String format = damageFormats.getOrDefault("healing", "&a+%s ❤");
-        String amountText = numberFormat.format(amount);
-        Component textComponent = translateLegacyColorCodes(format.replace("%s", amountText));
-        int entityId = generateEntityId();
-        Vector3d spawnPosition = getSpawnPosition(location);
+    public int getPeakLiveHolograms() {
+        int peak = 0;
+        for (HologramPartition partition : partitions()) {
+            peak += partition.animator.peakSize();
+        }
+        return peak;
+    }
 
-        WrapperPlayServerSpawnEntity spawnPacket = new WrapperPlayServerSpawnEntity(
-                entityId, Optional.of(UUID.randomUUID()), EntityTypes.TEXT_DISPLAY, spawnPosition, 0.0f, 0.0f, 0.0f, 0, Optional.empty()
-        );
-        List<EntityData<?>> metadata = new ArrayList<>();
-        metadata.add(new EntityData<>(0, EntityDataTypes.BYTE, (byte) 0x20));
-        metadata.add(new EntityData<>(23, EntityDataTypes.ADV_COMPONENT, textComponent));
-        metadata.add(new EntityData<>(25, EntityDataTypes.INT, 0x40000000));
-        metadata.add(new EntityData<>(27, EntityDataTypes.BYTE, (byte) 0x03));
-        WrapperPlayServerEntityMetadata metadataPacket = new WrapperPlayServerEntityMetadata(entityId, metadata);
-
-        viewers.forEach(viewer -> {
-            try {
-                PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, spawnPacket);
-                PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, metadataPacket);
-                if (debug) {
-                    plugin.getPluginLogger().info("Sent healing hologram to " + viewer.getName() + ": " + textComponent + " (EntityID: " + entityId + ")");
-                }
-            } catch (Exception e) {
-                plugin.getPluginLogger().warning("Failed to send packets: " + e.getMessage());
-                if (debug) {
-                    e.printStackTrace();
-                }
-            }
-        });
+    /**
+     * Resets the peak live hologram count to the current live count.
+     */
+    public void resetPeakLiveHolograms() {
+        for (HologramPartition partition : partitions()) {
+            partition.animator.resetPeak();
+        }
+    }
+
+    /**
+     * Gets every partition. On a regionized server the counts read from other regions' partitions are approximate.
+     *
+     * @return the partitions
+     */
+    private List<HologramPartition> partitions() {
+        if (mainPartition != null) {
+            return List.of(mainPartition);
+        }
+        List<HologramPartition> partitions = new ArrayList<>();
+        for (Map<Long, HologramPartition> worldPartitions : regionPartitions.values()) {
+            partitions.addAll(worldPartitions.values());
+        }
+        return partitions;
+    }
 
-        scheduleHologramAnimation(viewers.iterator().next(), entityId, location, spawnPosition, false);
+    /**
+     * Gets the packet sink holograms are written to.
+     *
+     * @return the packet sink
+     */
+    public HologramPacketSink getPacketSink() {
+        return packetSink;
     }
 
     /**
@@ -419,7 +980,7 @@ public class DamageNumberHandler {
     public void spawnTestHologram(Player player, Location location) {
         Set<Player> viewers = new HashSet<>();
         viewers.add(player);
-        displayDamageHologram(player, location, 10.0, false, viewers);
-        plugin.getPluginLogger().info("Spawned test hologram for " + player.getName() + " at " + location);
+        displayDamageHologram(player.getEntityId(), location, 10.0, false, viewers);
+        logger.info("Spawned test hologram for " + player.getName() + " at " + location);
     }
 }
\ No newline at end of file
@@ -2,12 +2,21 @@ package carnage.damageNumbers;
 
 import carnage.damageNumbers.commands.ReloadCommand;
 import carnage.damageNumbers.commands.TestCommand;
+import carnage.damageNumbers.debug.TraceBuffer;
+import carnage.damageNumbers.journal.DamageJournal;
 import carnage.damageNumbers.listeners.DamageListener;
+import carnage.damageNumbers.listeners.DotAggregator;
 import carnage.damageNumbers.listeners.PacketListener;
+import carnage.damageNumbers.party.PartyIndex;
+import carnage.damageNumbers.preferences.PlayerPreferences;
+import carnage.damageNumbers.profile.WorldProfiles;
+import carnage.damageNumbers.scheduler.PluginScheduler;
 import com.github.retrooper.packetevents.PacketEvents;
 import io.github.retrooper.packetevents.factory.spigot.SpigotPacketEventsBuilder;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.logging.Logger;
 
 /**
@@ -15,8 +24,20 @@ import java.util.logging.Logger;
  */
 public class DamageNumbers extends JavaPlugin {
     private Logger pluginLogger;
+    private PluginScheduler pluginScheduler;
     private DamageNumberHandler damageHandler;
     private ParticleHandler particleHandler;
+    private SoundHandler soundHandler;
+    private DpsMeter dpsMeter;
+    private HealthBarHandler healthBars;
+    private DamageJournal damageJournal;
+    private DamageListener damageListener;
+    private DotAggregator dotAggregator;
+    private TraceBuffer traceBuffer;
+    private PlayerPreferences playerPreferences;
+    private WorldProfiles worldProfiles;
+    private PartyIndex partyIndex;
+    private volatile boolean debugEnabled;
 
     @Override
     public void onLoad() {
@@ -34,6 +55,10 @@ public class DamageNumbers extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        closeJournal();
+        if (playerPreferences != null) {
+            playerPreferences.shutdown();
+        }
         PacketEvents.getAPI().terminate();
         pluginLogger.info("DamageNumbers disabled");
     }
@@ -43,20 +68,34 @@ public class DamageNumbers extends JavaPlugin {
      */
     private void initializeComponents() {
         this.pluginLogger = getLogger();
+        this.pluginScheduler = PluginScheduler.create(this);
         saveDefaultConfig();
+        this.debugEnabled = getConfig().getBoolean("debug", false);
+        this.traceBuffer = new TraceBuffer(getConfig().getInt("trace-buffer-size", 4096));
+        this.playerPreferences = new PlayerPreferences(this);
+        this.worldProfiles = new WorldProfiles(this::getConfig);
+        worldProfiles.reload(getServer().getWorlds());
+        this.partyIndex = new PartyIndex(this);
         PacketEvents.getAPI().init();
         this.damageHandler = new DamageNumberHandler(this);
-        this.particleHandler = new ParticleHandler(this);
+        this.particleHandler = new ParticleHandler(this, damageHandler.getPacketSink());
+        this.soundHandler = new SoundHandler(this, damageHandler.getPacketSink());
+        this.dpsMeter = new DpsMeter(this, damageHandler);
+        this.healthBars = new HealthBarHandler(this, damageHandler);
+        this.damageJournal = createJournal();
     }
 
     /**
      * Registers event listeners and commands.
      */
     private void registerComponents() {
-        new DamageListener(this, damageHandler, particleHandler);
-        new PacketListener(this, damageHandler, particleHandler);
+        getServer().getPluginManager().registerEvents(worldProfiles, this);
+        getServer().getPluginManager().registerEvents(damageHandler, this);
+        this.damageListener = new DamageListener(this, damageHandler, particleHandler, soundHandler, healthBars);
+        PacketListener packetListener = new PacketListener(this, damageHandler, particleHandler, soundHandler, dpsMeter, healthBars);
+        this.dotAggregator = new DotAggregator(this, damageHandler, packetListener);
         getCommand("dnreload").setExecutor(new ReloadCommand(this));
-        getCommand("damagenumbers").setExecutor(new TestCommand(this, damageHandler, particleHandler));
+        getCommand("damagenumbers").setExecutor(new TestCommand(this, damageHandler, particleHandler, packetListener, damageListener, playerPreferences));
     }
 
     /**
@@ -72,8 +111,127 @@ public class DamageNumbers extends JavaPlugin {
      * Reloads the damage and particle handlers.
      */
     public void reloadHandler() {
-        this.damageHandler = new DamageNumberHandler(this);
-        this.particleHandler = new ParticleHandler(this);
+        this.debugEnabled = getConfig().getBoolean("debug", false);
+        worldProfiles.reload(getServer().getWorlds());
+        partyIndex.reload();
+        damageHandler.reload();
+        particleHandler.reload();
+        soundHandler.reload();
+        dpsMeter.reload();
+        healthBars.reload();
+        damageListener.reload();
+        closeJournal();
+        this.damageJournal = createJournal();
+        dotAggregator.reload();
         pluginLogger.info("DamageNumberHandler and ParticleHandler reloaded");
     }
+
+    /**
+     * Gets the scheduler matching the running server, region-aware on Folia.
+     *
+     * @return the plugin scheduler
+     */
+    public PluginScheduler getPluginScheduler() {
+        return pluginScheduler;
+    }
+
+    /**
+     * Checks whether debug logging and tracing are enabled, as of the last load or reload.
+     * Read on hot paths instead of the configuration, which is a map lookup per call.
+     *
+     * @return true if the debug flag is set
+     */
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
+    /**
+     * Gets the in-memory trace of recent pipeline events, recorded while debug is enabled.
+     *
+     * @return the trace buffer
+     */
+    public TraceBuffer getTraceBuffer() {
+        return traceBuffer;
+    }
+
+    /**
+     * Gets the per-player display toggles.
+     *
+     * @return the player preferences
+     */
+    public PlayerPreferences getPlayerPreferences() {
+        return playerPreferences;
+    }
+
+    /**
+     * Gets the compiled per-world display profiles.
+     *
+     * @return the world profiles
+     */
+    public WorldProfiles getWorldProfiles() {
+        return worldProfiles;
+    }
+
+    /**
+     * Gets the index of which online players share a party, for the party visibility mode.
+     * Plugins with their own party system can install a {@link carnage.damageNumbers.party.PartyProvider} on it.
+     *
+     * @return the party index
+     */
+    public PartyIndex getPartyIndex() {
+        return partyIndex;
+    }
+
+    /**
+     * Gets the damage event journal.
+     *
+     * @return the journal, or null if recording is disabled
+     */
+    public DamageJournal getDamageJournal() {
+        return damageJournal;
+    }
+
+    /**
+     * Gets the directory damage journals are written to and replayed from.
+     *
+     * @return the journal directory
+     */
+    public Path getJournalDirectory() {
+        return getDataFolder().toPath().resolve(getConfig().getString("journal.directory", "journal"));
+    }
+
+    /**
+     * Creates and starts the damage journal if enabled in the configuration.
+     *
+     * @return the started journal, or null if disabled or it could not be opened
+     */
+    private DamageJournal createJournal() {
+        if (!getConfig().getBoolean("journal.enabled", false)) {
+            return null;
+        }
+
+        DamageJournal journal = new DamageJournal(
+                getJournalDirectory(),
+                getConfig().getLong("journal.segment-size-mb", 16) * 1024 * 1024,
+                getConfig().getInt("journal.max-segments", 8),
+                pluginLogger
+        );
+        try {
+            journal.start();
+            return journal;
+        } catch (IOException e) {
+            pluginLogger.warning("Failed to start damage journal: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Flushes and closes the damage journal, if one is running.
+     */
+    private void closeJournal() {
+        if (damageJournal != null) {
+            damageJournal.close();
+            damageJournal = null;
+        }
+    }
 }
\ No newline at end of file
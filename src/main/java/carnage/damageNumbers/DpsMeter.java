@@ -0,0 +1,314 @@
+package carnage.damageNumbers;
+
+import carnage.damageNumbers.format.NumberFormatter;
+import carnage.damageNumbers.packet.HologramPacketSink;
+import carnage.damageNumbers.scheduler.PluginScheduler;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shows each attacker a live damage-per-second and combo meter as one persistent hologram in front of them.
+ * Hits are summed into a ring of per-tick buckets covering the sliding window, so adding a hit and sliding
+ * the window forward are both constant time per tick regardless of how many hits landed. The meter is
+ * re-rendered on a throttled interval from the attacker's own thread, and its text is only re-sent when the
+ * shown value changes; following the attacker is a teleport, sent only when they moved or turned.
+ */
+public class DpsMeter {
+    private static final String CONFIG_ENABLED = "dps-meter.enabled";
+    private static final String CONFIG_WINDOW_TICKS = "dps-meter.window-ticks";
+    private static final String CONFIG_COMBO_TIMEOUT = "dps-meter.combo-timeout-ticks";
+    private static final String CONFIG_UPDATE_INTERVAL = "dps-meter.update-interval-ticks";
+    private static final String CONFIG_IDLE_TICKS = "dps-meter.idle-ticks";
+    private static final String CONFIG_DISTANCE = "dps-meter.distance";
+    private static final String CONFIG_HEIGHT = "dps-meter.height";
+    private static final String CONFIG_FORMAT = "dps-meter.format";
+    private static final String CONFIG_NUMBER_LOCALE = "formats.locale";
+    private static final long MILLIS_PER_TICK = 50;
+    private static final double MOVE_THRESHOLD_SQUARED = 0.01;
+    private static final float TURN_THRESHOLD = 2.0f;
+
+    private final DamageNumbers plugin;
+    private final DamageNumberHandler damageNumberHandler;
+    private final HologramPacketSink packetSink;
+    private final PluginScheduler scheduler;
+    private final Map<UUID, Meter> meters;
+    private volatile Settings settings;
+
+    /**
+     * The meter settings, replaced as a whole on reload.
+     *
+     * @param enabled        whether meters are shown
+     * @param windowTicks    the length of the sliding DPS window
+     * @param comboTimeout   the longest gap between hits that keeps a combo going
+     * @param updateInterval the ticks between renders
+     * @param idleTicks      the ticks without a hit before the meter is removed
+     * @param distance       the distance in front of the attacker's eyes
+     * @param height         the height above the attacker's eyes
+     * @param format         the legacy-coded format, with %dps% and %combo% placeholders
+     * @param numberFormat   the formatter for the DPS value
+     */
+    private record Settings(boolean enabled, int windowTicks, int comboTimeout, int updateInterval, int idleTicks, double distance,
+                            double height, String format, NumberFormatter numberFormat) {
+    }
+
+    /**
+     * One attacker's meter. Hit totals are guarded by the meter's monitor, since hits arrive on the target's thread;
+     * everything else is only touched by render tasks on the attacker's thread.
+     */
+    private static final class Meter {
+        private final Player attacker;
+        private final int entityId;
+        private final double[] tickSums;
+        private long headTick;
+        private double windowTotal;
+        private long comboStartTick;
+        private long lastHitTick;
+        private int combo;
+        private boolean spawned;
+        private String shownText;
+        private double shownX;
+        private double shownY;
+        private double shownZ;
+        private float shownYaw;
+
+        Meter(Player attacker, int entityId, int windowTicks, long tick) {
+            this.attacker = attacker;
+            this.entityId = entityId;
+            this.tickSums = new double[windowTicks];
+            this.headTick = tick;
+            this.comboStartTick = tick;
+            this.lastHitTick = tick;
+        }
+
+        /**
+         * Adds a hit to the current tick's bucket and the combo.
+         *
+         * @param tick         the current tick
+         * @param damage       the damage dealt
+         * @param comboTimeout the longest gap between hits that keeps a combo going
+         */
+        synchronized void addHit(long tick, double damage, int comboTimeout) {
+            advance(tick);
+            tickSums[(int) (tick % tickSums.length)] += damage;
+            windowTotal += damage;
+            if (combo == 0 || tick - lastHitTick > comboTimeout) {
+                combo = 0;
+                comboStartTick = tick;
+            }
+            combo++;
+            lastHitTick = tick;
+        }
+
+        /**
+         * Slides the window forward, dropping the buckets of ticks that fell out of it.
+         * Each tick's bucket is cleared once, so the cost is constant per elapsed tick.
+         *
+         * @param tick the current tick
+         */
+        synchronized void advance(long tick) {
+            long elapsed = tick - headTick;
+            if (elapsed <= 0) {
+                return;
+            }
+            if (elapsed >= tickSums.length) {
+                Arrays.fill(tickSums, 0.0);
+                windowTotal = 0.0;
+            } else {
+                for (long expired = headTick + 1; expired <= tick; expired++) {
+                    int slot = (int) (expired % tickSums.length);
+                    windowTotal -= tickSums[slot];
+                    tickSums[slot] = 0.0;
+                }
+            }
+            headTick = tick;
+        }
+
+        /**
+         * Gets the damage per second over the window, or over the combo if it started more recently.
+         *
+         * @param tick the current tick
+         * @return the damage per second
+         */
+        synchronized double damagePerSecond(long tick) {
+            advance(tick);
+            long spanTicks = Math.min(tickSums.length, Math.max(20, tick - comboStartTick + 1));
+            return Math.max(0.0, windowTotal) * 20.0 / spanTicks;
+        }
+
+        /**
+         * Gets the current combo, 0 once it timed out.
+         *
+         * @param tick         the current tick
+         * @param comboTimeout the longest gap between hits that keeps a combo going
+         * @return the combo count
+         */
+        synchronized int combo(long tick, int comboTimeout) {
+            return tick - lastHitTick > comboTimeout ? 0 : combo;
+        }
+
+        /**
+         * Gets the tick of the last hit.
+         *
+         * @return the last hit tick
+         */
+        synchronized long lastHitTick() {
+            return lastHitTick;
+        }
+    }
+
+    public DpsMeter(DamageNumbers plugin, DamageNumberHandler damageNumberHandler) {
+        this.plugin = plugin;
+        this.damageNumberHandler = damageNumberHandler;
+        this.packetSink = damageNumberHandler.getPacketSink();
+        this.scheduler = plugin.getPluginScheduler();
+        this.meters = new ConcurrentHashMap<>();
+        reload();
+    }
+
+    /**
+     * Reloads the meter settings. Live meters are removed when meters are disabled or the window length changes.
+     */
+    public void reload() {
+        FileConfiguration config = plugin.getConfig();
+        Settings previous = settings;
+        this.settings = new Settings(
+                config.getBoolean(CONFIG_ENABLED, false),
+                Math.max(20, config.getInt(CONFIG_WINDOW_TICKS, 100)),
+                Math.max(1, config.getInt(CONFIG_COMBO_TIMEOUT, 40)),
+                Math.max(1, config.getInt(CONFIG_UPDATE_INTERVAL, 5)),
+                Math.max(20, config.getInt(CONFIG_IDLE_TICKS, 100)),
+                config.getDouble(CONFIG_DISTANCE, 2.0),
+                config.getDouble(CONFIG_HEIGHT, 0.6),
+                config.getString(CONFIG_FORMAT, "&6%dps% DPS &8| &e%combo%x"),
+                new NumberFormatter(NumberFormatter.parseLocale(config.getString(CONFIG_NUMBER_LOCALE, "")), true, 10000.0)
+        );
+        if (previous != null && (!settings.enabled() || previous.windowTicks() != settings.windowTicks())) {
+            meters.values().forEach(meter -> scheduler.runForEntity(meter.attacker, () -> remove(meter), () -> remove(meter), 0L));
+        }
+    }
+
+    /**
+     * Records a hit for an attacker's meter, starting the meter on their first hit.
+     * Called from the thread handling the damage event; rendering happens on the attacker's thread.
+     *
+     * @param attacker the attacking player
+     * @param damage   the damage dealt
+     */
+    public void recordHit(Player attacker, double damage) {
+        Settings current = settings;
+        if (!current.enabled()) {
+            return;
+        }
+
+        long tick = currentTick();
+        Meter meter = meters.get(attacker.getUniqueId());
+        if (meter == null) {
+            // Scheduled outside the map, since a quitting attacker's retired callback may run immediately and remove it
+            Meter created = new Meter(attacker, damageNumberHandler.nextEntityId(), current.windowTicks(), tick);
+            meter = meters.putIfAbsent(attacker.getUniqueId(), created);
+            if (meter == null) {
+                meter = created;
+                scheduler.runForEntity(attacker, () -> render(created), () -> remove(created), 0L);
+            }
+        }
+        meter.addHit(tick, damage, current.comboTimeout());
+    }
+
+    /**
+     * Renders a meter and schedules the next render, or removes it once the attacker is idle or gone.
+     *
+     * @param meter the meter
+     */
+    private void render(Meter meter) {
+        Settings current = settings;
+        Player attacker = meter.attacker;
+        if (meters.get(attacker.getUniqueId()) != meter) {
+            return;
+        }
+        long tick = currentTick();
+        if (!current.enabled() || !attacker.isOnline() || tick - meter.lastHitTick() > current.idleTicks()) {
+            remove(meter);
+            return;
+        }
+
+        Location eye = attacker.getEyeLocation();
+        double yawRadians = Math.toRadians(eye.getYaw());
+        double x = eye.getX() - Math.sin(yawRadians) * current.distance();
+        double y = eye.getY() + current.height();
+        double z = eye.getZ() + Math.cos(yawRadians) * current.distance();
+        float yaw = eye.getYaw() + 180.0f;
+
+        int combo = meter.combo(tick, current.comboTimeout());
+        String text = current.format()
+                .replace("%dps%", current.numberFormat().format(meter.damagePerSecond(tick)))
+                .replace("%combo%", Integer.toString(combo));
+
+        if (!meter.spawned) {
+            packetSink.spawn(attacker, meter.entityId, x, y, z, damageNumberHandler.formatLegacyText(text));
+            packetSink.teleport(attacker, meter.entityId, x, y, z, yaw);
+            meter.spawned = true;
+            meter.shownText = text;
+            remember(meter, x, y, z, yaw);
+        } else {
+            if (!text.equals(meter.shownText)) {
+                packetSink.updateText(attacker, meter.entityId, damageNumberHandler.formatLegacyText(text), 1.0f);
+                meter.shownText = text;
+            }
+            double dx = x - meter.shownX;
+            double dy = y - meter.shownY;
+            double dz = z - meter.shownZ;
+            if (dx * dx + dy * dy + dz * dz > MOVE_THRESHOLD_SQUARED || Math.abs(yaw - meter.shownYaw) > TURN_THRESHOLD) {
+                packetSink.teleport(attacker, meter.entityId, x, y, z, yaw);
+                remember(meter, x, y, z, yaw);
+            }
+        }
+
+        scheduler.runForEntity(attacker, () -> render(meter), () -> remove(meter), current.updateInterval());
+    }
+
+    /**
+     * Records the position last sent for a meter.
+     *
+     * @param meter the meter
+     * @param x     the X coordinate
+     * @param y     the Y coordinate
+     * @param z     the Z coordinate
+     * @param yaw   the yaw
+     */
+    private void remember(Meter meter, double x, double y, double z, float yaw) {
+        meter.shownX = x;
+        meter.shownY = y;
+        meter.shownZ = z;
+        meter.shownYaw = yaw;
+    }
+
+    /**
+     * Removes a meter and destroys its hologram if it was shown.
+     * Also the retired callback of every meter task, so a meter never outlives its attacker leaving.
+     *
+     * @param meter the meter
+     */
+    private void remove(Meter meter) {
+        if (!meters.remove(meter.attacker.getUniqueId(), meter)) {
+            return;
+        }
+        if (meter.spawned && meter.attacker.isOnline()) {
+            packetSink.destroy(meter.attacker, meter.entityId);
+        }
+    }
+
+    /**
+     * Gets the current tick on a wall-clock basis, so DPS stays per real second when the server lags.
+     *
+     * @return the tick number
+     */
+    private static long currentTick() {
+        return System.currentTimeMillis() / MILLIS_PER_TICK;
+    }
+}
@@ -0,0 +1,325 @@
+package carnage.damageNumbers;
+
+import carnage.damageNumbers.format.NumberFormatter;
+import carnage.damageNumbers.packet.HologramPacketSink;
+import carnage.damageNumbers.scheduler.PluginScheduler;
+import org.bukkit.Location;
+import org.bukkit.attribute.Attribute;
+import org.bukkit.attribute.AttributeInstance;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Shows a health bar hologram above damaged and healed entities, through the same packet sink as damage numbers.
+ * A damage or heal only records the new health and marks the target dirty; a once-per-tick flush sends at most one
+ * metadata update per dirty target, and only when the rendered text actually changed. Packet cost therefore follows
+ * the number of targets whose health changed in a tick, not the number of hits. Bars ride their target where it has
+ * no real passengers, so they follow it without teleports, and are removed once the target has been idle for a while.
+ */
+public class HealthBarHandler {
+    private static final String CONFIG_ENABLED = "health-bars.enabled";
+    private static final String CONFIG_SHOW_ON_PLAYERS = "health-bars.show-on-players";
+    private static final String CONFIG_IDLE_TICKS = "health-bars.idle-ticks";
+    private static final String CONFIG_SEGMENTS = "health-bars.segments";
+    private static final String CONFIG_FILLED = "health-bars.filled";
+    private static final String CONFIG_EMPTY = "health-bars.empty";
+    private static final String CONFIG_FORMAT = "health-bars.format";
+    private static final String CONFIG_HEIGHT = "health-bars.height";
+    private static final String CONFIG_NUMBER_LOCALE = "formats.locale";
+    private static final long MILLIS_PER_TICK = 50;
+    private static final int SWEEP_INTERVAL_TICKS = 20;
+
+    private final DamageNumbers plugin;
+    private final DamageNumberHandler damageNumberHandler;
+    private final HologramPacketSink packetSink;
+    private final PluginScheduler scheduler;
+    private final Map<UUID, Bar> bars;
+    private final Queue<Bar> dirtyBars;
+    private final AtomicBoolean ticking;
+    private volatile Settings settings;
+    private int ticksUntilSweep;
+
+    /**
+     * The health bar settings, replaced as a whole on reload.
+     *
+     * @param enabled       whether bars are shown
+     * @param showOnPlayers whether players get bars as well as mobs
+     * @param idleTicks     the ticks without a health change before a bar is removed
+     * @param segments      the number of bar segments
+     * @param filled        the legacy-coded text of a filled segment
+     * @param empty         the legacy-coded text of an empty segment
+     * @param format        the legacy-coded format, with %bar%, %health% and %max% placeholders
+     * @param height        the height above the target's location for bars that cannot ride it
+     * @param numberFormat  the formatter for health values
+     */
+    private record Settings(boolean enabled, boolean showOnPlayers, int idleTicks, int segments, String filled, String empty, String format,
+                            double height, NumberFormatter numberFormat) {
+    }
+
+    /**
+     * One target's bar. Health, position and viewers are written by the thread handling the target's events;
+     * the rendered text and last sent position are only touched by the flush.
+     */
+    private static final class Bar {
+        private final UUID targetId;
+        private final int targetEntityId;
+        private final int entityId;
+        private final Set<Player> viewers;
+        private final Queue<Player> newViewers;
+        private final AtomicBoolean queued;
+        private volatile double health;
+        private volatile double maxHealth;
+        private volatile boolean mountable;
+        private volatile double x;
+        private volatile double y;
+        private volatile double z;
+        private volatile long lastChangeTick;
+        private String shownText;
+        private double shownX;
+        private double shownY;
+        private double shownZ;
+
+        Bar(UUID targetId, int targetEntityId, int entityId) {
+            this.targetId = targetId;
+            this.targetEntityId = targetEntityId;
+            this.entityId = entityId;
+            this.viewers = ConcurrentHashMap.newKeySet();
+            this.newViewers = new ConcurrentLinkedQueue<>();
+            this.queued = new AtomicBoolean();
+        }
+    }
+
+    public HealthBarHandler(DamageNumbers plugin, DamageNumberHandler damageNumberHandler) {
+        this.plugin = plugin;
+        this.damageNumberHandler = damageNumberHandler;
+        this.packetSink = damageNumberHandler.getPacketSink();
+        this.scheduler = plugin.getPluginScheduler();
+        this.bars = new ConcurrentHashMap<>();
+        this.dirtyBars = new ConcurrentLinkedQueue<>();
+        this.ticking = new AtomicBoolean();
+        reload();
+    }
+
+    /**
+     * Reloads the health bar settings, starting the flush loop if bars were enabled.
+     * Live bars are removed at the next flush when bars are disabled, and the loop then stops.
+     */
+    public void reload() {
+        FileConfiguration config = plugin.getConfig();
+        this.settings = new Settings(
+                config.getBoolean(CONFIG_ENABLED, false),
+                config.getBoolean(CONFIG_SHOW_ON_PLAYERS, false),
+                Math.max(20, config.getInt(CONFIG_IDLE_TICKS, 100)),
+                Math.max(1, Math.min(40, config.getInt(CONFIG_SEGMENTS, 10))),
+                config.getString(CONFIG_FILLED, "&a|"),
+                config.getString(CONFIG_EMPTY, "&8|"),
+                config.getString(CONFIG_FORMAT, "%bar% &f%health%&7/&f%max%"),
+                config.getDouble(CONFIG_HEIGHT, 0.5),
+                new NumberFormatter(NumberFormatter.parseLocale(config.getString(CONFIG_NUMBER_LOCALE, "")), true, 10000.0)
+        );
+        startTicking();
+    }
+
+    /**
+     * Checks whether health bars are shown, so callers can skip building viewer sets when they are not.
+     *
+     * @return true if enabled
+     */
+    public boolean isEnabled() {
+        return settings.enabled();
+    }
+
+    /**
+     * Records a target's new health and marks its bar dirty. Called from the thread owning the target;
+     * no packets are sent until the next flush, however many times the target changes before it.
+     *
+     * @param target  the damaged or healed entity
+     * @param health  the target's health after the change
+     * @param viewers the players who saw the change and should see the bar
+     */
+    public void markChanged(LivingEntity target, double health, Set<Player> viewers) {
+        Settings current = settings;
+        if (!current.enabled() || (target instanceof Player && !current.showOnPlayers()) || viewers.isEmpty()) {
+            return;
+        }
+
+        Bar bar = bars.computeIfAbsent(target.getUniqueId(), id -> new Bar(id, target.getEntityId(), damageNumberHandler.nextEntityId()));
+        AttributeInstance maxHealth = target.getAttribute(Attribute.MAX_HEALTH);
+        Location location = target.getLocation();
+        bar.maxHealth = maxHealth != null ? maxHealth.getValue() : Math.max(health, 1.0);
+        bar.health = Math.max(0.0, Math.min(health, bar.maxHealth));
+        bar.mountable = target.getPassengers().isEmpty();
+        bar.x = location.getX();
+        bar.y = location.getY() + target.getHeight() + current.height();
+        bar.z = location.getZ();
+        bar.lastChangeTick = currentTick();
+        for (Player viewer : viewers) {
+            if (bar.viewers.add(viewer)) {
+                bar.newViewers.add(viewer);
+            }
+        }
+        if (bar.queued.compareAndSet(false, true)) {
+            dirtyBars.add(bar);
+        }
+    }
+
+    /**
+     * Starts the flush loop if bars are enabled and it is not already running.
+     */
+    private void startTicking() {
+        if (settings.enabled() && ticking.compareAndSet(false, true)) {
+            scheduler.runGlobal(this::tick, 1L);
+        }
+    }
+
+    /**
+     * Flushes dirty bars, periodically removes idle ones, and schedules the next tick.
+     * Once bars are disabled, removes every bar and stops until a reload enables them again.
+     */
+    private void tick() {
+        Settings current = settings;
+        if (!current.enabled()) {
+            dirtyBars.clear();
+            bars.values().forEach(this::destroy);
+            bars.clear();
+            ticking.set(false);
+            startTicking();
+            return;
+        }
+
+        try {
+            flush(current);
+            if (--ticksUntilSweep <= 0) {
+                ticksUntilSweep = SWEEP_INTERVAL_TICKS;
+                sweep(current);
+            }
+        } finally {
+            scheduler.runGlobal(this::tick, 1L);
+        }
+    }
+
+    /**
+     * Sends one update per dirty bar: a spawn for players who have not seen it yet, and a metadata update for the
+     * rest only if the text changed. Bars of dead targets are removed.
+     *
+     * @param current the current settings
+     */
+    private void flush(Settings current) {
+        Bar bar;
+        while ((bar = dirtyBars.poll()) != null) {
+            bar.queued.set(false);
+            if (bars.get(bar.targetId) != bar) {
+                continue;
+            }
+            if (bar.health <= 0.0) {
+                bars.remove(bar.targetId, bar);
+                destroy(bar);
+                continue;
+            }
+
+            String text = render(current, bar.health, bar.maxHealth);
+            List<Player> spawnedFor = new ArrayList<>(0);
+            Player viewer;
+            while ((viewer = bar.newViewers.poll()) != null) {
+                packetSink.spawn(viewer, bar.entityId, bar.x, bar.y, bar.z, damageNumberHandler.formatLegacyText(text));
+                if (bar.mountable) {
+                    packetSink.mount(viewer, bar.targetEntityId, bar.entityId);
+                }
+                spawnedFor.add(viewer);
+            }
+
+            boolean textChanged = bar.shownText != null && !text.equals(bar.shownText);
+            boolean moved = !bar.mountable && (bar.x != bar.shownX || bar.y != bar.shownY || bar.z != bar.shownZ);
+            if (textChanged || moved) {
+                for (Player existing : bar.viewers) {
+                    if (spawnedFor.contains(existing)) {
+                        continue;
+                    }
+                    if (textChanged) {
+                        packetSink.updateText(existing, bar.entityId, damageNumberHandler.formatLegacyText(text), 1.0f);
+                    }
+                    if (moved) {
+                        packetSink.teleport(existing, bar.entityId, bar.x, bar.y, bar.z, 0.0f);
+                    }
+                }
+            }
+            bar.shownText = text;
+            bar.shownX = bar.x;
+            bar.shownY = bar.y;
+            bar.shownZ = bar.z;
+        }
+    }
+
+    /**
+     * Removes bars whose target has been idle past the configured time, and viewers who went offline.
+     *
+     * @param current the current settings
+     */
+    private void sweep(Settings current) {
+        long now = currentTick();
+        Iterator<Bar> iterator = bars.values().iterator();
+        while (iterator.hasNext()) {
+            Bar bar = iterator.next();
+            if (now - bar.lastChangeTick > current.idleTicks()) {
+                iterator.remove();
+                destroy(bar);
+                continue;
+            }
+            bar.viewers.removeIf(viewer -> !viewer.isOnline());
+        }
+    }
+
+    /**
+     * Destroys a bar for every viewer still online.
+     *
+     * @param bar the bar
+     */
+    private void destroy(Bar bar) {
+        for (Player viewer : bar.viewers) {
+            if (viewer.isOnline()) {
+                packetSink.destroy(viewer, bar.entityId);
+            }
+        }
+    }
+
+    /**
+     * Renders a bar's text.
+     *
+     * @param current   the current settings
+     * @param health    the target's health
+     * @param maxHealth the target's maximum health
+     * @return the legacy-coded text
+     */
+    private static String render(Settings current, double health, double maxHealth) {
+        int filled = (int) Math.ceil(current.segments() * health / maxHealth);
+        StringBuilder bar = new StringBuilder(current.segments() * 4);
+        for (int segment = 0; segment < current.segments(); segment++) {
+            bar.append(segment < filled ? current.filled() : current.empty());
+        }
+        return current.format()
+                .replace("%bar%", bar)
+                .replace("%health%", current.numberFormat().format(health))
+                .replace("%max%", current.numberFormat().format(maxHealth));
+    }
+
+    /**
+     * Gets the current tick on a wall-clock basis, shared by the threads marking bars and the flush.
+     *
+     * @return the tick number
+     */
+    private static long currentTick() {
+        return System.currentTimeMillis() / MILLIS_PER_TICK;
+    }
+}
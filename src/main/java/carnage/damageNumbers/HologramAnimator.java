@@ -0,0 +1,373 @@
+package carnage.damageNumbers;
+
+import carnage.damageNumbers.packet.HologramPacketSink;
+import carnage.damageNumbers.scheduler.TickClock;
+import carnage.damageNumbers.util.LongIndexMap;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+import java.util.Arrays;
+
+/**
+ * Animates every live hologram from a single repeating task.
+ * Hologram state is kept in parallel primitive arrays indexed by slot, so a steady-state
+ * animation frame performs no heap allocation: no per-frame tasks, lambdas, vectors or random objects.
+ * Slots showing the same hologram to different viewers are chained by entity ID, so a hologram can be
+ * updated for all of its viewers without scanning every slot.
+ */
+class HologramAnimator {
+    static final byte FLAG_BOUNCE = 0x01;
+    static final byte FLAG_SHAKE = 0x02;
+    static final byte FLAG_SPIN = 0x04;
+    static final int FRAME_INTERVAL = 2;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final double SHAKE_AMPLITUDE = 0.08;
+    private static final int NO_LINK = LongIndexMap.MISSING;
+
+    private final HologramPacketSink packetSink;
+    private final TickClock clock;
+    private HologramLayout layout;
+    private final LongIndexMap headSlotByEntity;
+    private Player[] viewers;
+    private int[] entityIds;
+    private double[] baseX;
+    private double[] baseY;
+    private double[] baseZ;
+    private double[] riseSpeeds;
+    private double[] spinSpeeds;
+    private int[] ages;
+    private int[] lifetimes;
+    private byte[] flags;
+    private long[] layoutTargets;
+    private byte[] layoutSlots;
+    private int[] nextSameEntity;
+    private int[] previousSameEntity;
+    private int size;
+    private int peakSize;
+    private int taskId;
+    private long jitterState;
+    private Runnable idleCallback;
+
+    /**
+     * Creates an animator.
+     *
+     * @param packetSink the destination for frame and destroy packets
+     * @param clock      the tick clock driving the animation task
+     * @param layout     the layout whose slots are released when holograms expire, or null if disabled
+     */
+    HologramAnimator(HologramPacketSink packetSink, TickClock clock, HologramLayout layout) {
+        this.packetSink = packetSink;
+        this.clock = clock;
+        this.layout = layout;
+        this.headSlotByEntity = new LongIndexMap(INITIAL_CAPACITY);
+        this.taskId = -1;
+        this.jitterState = 0x9E3779B97F4A7C15L;
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Switches to a rebuilt layout. Live holograms hold slots in the old layout, so they are detached from it
+     * and finish their animation without releasing a slot.
+     *
+     * @param layout the new layout, or null if disabled
+     */
+    void setLayout(HologramLayout layout) {
+        this.layout = layout;
+        Arrays.fill(layoutSlots, 0, size, (byte) HologramLayout.NO_SLOT);
+    }
+
+    /**
+     * Sets a callback run on the animation thread whenever the last live hologram expires and the task stops.
+     *
+     * @param idleCallback the callback, or null for none
+     */
+    void setIdleCallback(Runnable idleCallback) {
+        this.idleCallback = idleCallback;
+    }
+
+    /**
+     * Starts animating a spawned hologram for one viewer.
+     *
+     * @param viewer    the player viewing the hologram
+     * @param entityId  the hologram entity ID
+     * @param x         the spawn X coordinate
+     * @param y         the spawn Y coordinate
+     * @param z         the spawn Z coordinate
+     * @param lifetime  the hologram lifetime in ticks
+     * @param riseSpeed the rise per animation frame in blocks
+     * @param spinSpeed the spin speed, used when {@link #FLAG_SPIN} is set
+     * @param flags     the animation flags
+     * @param target    the layout key of the target, used with {@code slot}
+     * @param slot      the layout slot to release on expiry, or {@link HologramLayout#NO_SLOT}
+     */
+    void add(Player viewer, int entityId, double x, double y, double z, int lifetime, double riseSpeed, double spinSpeed, byte flags,
+             long target, int slot) {
+        if (size == entityIds.length) {
+            allocate(size * 2);
+        }
+
+        int index = size++;
+        viewers[index] = viewer;
+        entityIds[index] = entityId;
+        baseX[index] = x;
+        baseY[index] = y;
+        baseZ[index] = z;
+        riseSpeeds[index] = riseSpeed;
+        spinSpeeds[index] = spinSpeed;
+        ages[index] = 0;
+        lifetimes[index] = lifetime;
+        this.flags[index] = flags;
+        layoutTargets[index] = target;
+        layoutSlots[index] = (byte) slot;
+        link(index, entityId);
+        peakSize = Math.max(peakSize, size);
+
+        if (taskId == -1) {
+            taskId = clock.runRepeating(this::tick, 0L, 1L);
+        }
+    }
+
+    /**
+     * Replaces the text of a live hologram for all of its viewers and extends its lifetime.
+     *
+     * @param entityId the hologram entity ID
+     * @param text     the new text
+     * @param scale    the uniform scale to apply immediately
+     * @param lifetime the number of ticks the hologram should live from now, if longer than its remaining lifetime
+     * @return the number of viewers the hologram is still live for, 0 if it has expired
+     */
+    int updateText(int entityId, Component text, float scale, int lifetime) {
+        int live = 0;
+        for (int slot = headSlotByEntity.get(entityId); slot != NO_LINK; slot = nextSameEntity[slot]) {
+            lifetimes[slot] = Math.max(lifetimes[slot], ages[slot] + lifetime);
+            packetSink.updateText(viewers[slot], entityId, text, scale);
+            live++;
+        }
+        return live;
+    }
+
+    /**
+     * Interpolates a live hologram back to a uniform scale for all of its viewers.
+     *
+     * @param entityId           the hologram entity ID
+     * @param scale              the target scale
+     * @param interpolationTicks the duration of the interpolation
+     */
+    void updateScale(int entityId, float scale, int interpolationTicks) {
+        for (int slot = headSlotByEntity.get(entityId); slot != NO_LINK; slot = nextSameEntity[slot]) {
+            packetSink.updateScale(viewers[slot], entityId, scale, interpolationTicks);
+        }
+    }
+
+    /**
+     * Gets the number of live hologram slots.
+     *
+     * @return the live slot count
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the highest number of live slots since the last reset.
+     *
+     * @return the peak slot count
+     */
+    int peakSize() {
+        return peakSize;
+    }
+
+    /**
+     * Resets the peak slot count to the current count.
+     */
+    void resetPeak() {
+        peakSize = size;
+    }
+
+    /**
+     * Advances every hologram by one tick: sends a frame on even ages and destroys expired holograms.
+     */
+    void tick() {
+        int slot = 0;
+        while (slot < size) {
+            Player viewer = viewers[slot];
+            int age = ages[slot];
+
+            if (!viewer.isOnline()) {
+                remove(slot);
+                continue;
+            }
+
+            if (age >= lifetimes[slot]) {
+                packetSink.destroy(viewer, entityIds[slot]);
+                remove(slot);
+                continue;
+            }
+
+            if (age % FRAME_INTERVAL == 0) {
+                sendFrame(slot, viewer, age);
+            }
+            ages[slot] = age + 1;
+            slot++;
+        }
+
+        if (size == 0 && taskId != -1) {
+            clock.cancel(taskId);
+            taskId = -1;
+            if (idleCallback != null) {
+                idleCallback.run();
+            }
+        }
+    }
+
+    /**
+     * Computes and sends the position of one hologram for its current frame.
+     *
+     * @param slot   the hologram slot
+     * @param viewer the player viewing the hologram
+     * @param age    the hologram age in ticks
+     */
+    private void sendFrame(int slot, Player viewer, int age) {
+        byte slotFlags = flags[slot];
+        double progress = (double) age / lifetimes[slot];
+        double y = baseY[slot] + riseSpeeds[slot] * (age / (double) FRAME_INTERVAL);
+
+        if ((slotFlags & FLAG_BOUNCE) != 0 && progress < 0.3) {
+            y += Math.sin(progress * Math.PI * 3) * 0.1;
+        }
+
+        double x = baseX[slot];
+        double z = baseZ[slot];
+        if ((slotFlags & FLAG_SHAKE) != 0 && progress < 0.4) {
+            x += nextJitter() * SHAKE_AMPLITUDE;
+            z += nextJitter() * SHAKE_AMPLITUDE;
+        }
+
+        float yaw = (slotFlags & FLAG_SPIN) != 0 ? (float) (age * spinSpeeds[slot] * 18.0) : 0.0f;
+        packetSink.teleport(viewer, entityIds[slot], x, y, z, yaw);
+    }
+
+    /**
+     * Removes a slot by moving the last slot into its place.
+     *
+     * @param slot the slot to remove
+     */
+    private void remove(int slot) {
+        if (layoutSlots[slot] != HologramLayout.NO_SLOT) {
+            layout.release(layoutTargets[slot], layoutSlots[slot]);
+        }
+        unlink(slot);
+
+        int last = --size;
+        if (slot != last) {
+            viewers[slot] = viewers[last];
+            entityIds[slot] = entityIds[last];
+            baseX[slot] = baseX[last];
+            baseY[slot] = baseY[last];
+            baseZ[slot] = baseZ[last];
+            riseSpeeds[slot] = riseSpeeds[last];
+            spinSpeeds[slot] = spinSpeeds[last];
+            ages[slot] = ages[last];
+            lifetimes[slot] = lifetimes[last];
+            flags[slot] = flags[last];
+            layoutTargets[slot] = layoutTargets[last];
+            layoutSlots[slot] = layoutSlots[last];
+            relink(last, slot);
+        }
+        viewers[last] = null;
+    }
+
+    /**
+     * Links a new slot at the head of its entity's chain.
+     *
+     * @param slot     the slot
+     * @param entityId the hologram entity ID
+     */
+    private void link(int slot, int entityId) {
+        int head = headSlotByEntity.get(entityId);
+        previousSameEntity[slot] = NO_LINK;
+        nextSameEntity[slot] = head;
+        if (head != NO_LINK) {
+            previousSameEntity[head] = slot;
+        }
+        headSlotByEntity.put(entityId, slot);
+    }
+
+    /**
+     * Unlinks a slot from its entity's chain.
+     *
+     * @param slot the slot
+     */
+    private void unlink(int slot) {
+        int previous = previousSameEntity[slot];
+        int next = nextSameEntity[slot];
+        if (previous != NO_LINK) {
+            nextSameEntity[previous] = next;
+        } else if (next != NO_LINK) {
+            headSlotByEntity.put(entityIds[slot], next);
+        } else {
+            headSlotByEntity.remove(entityIds[slot]);
+        }
+        if (next != NO_LINK) {
+            previousSameEntity[next] = previous;
+        }
+    }
+
+    /**
+     * Points the chain at a slot's new index after it has been moved by a swap-remove.
+     *
+     * @param from the old slot index
+     * @param to   the new slot index
+     */
+    private void relink(int from, int to) {
+        int previous = previousSameEntity[from];
+        int next = nextSameEntity[from];
+        previousSameEntity[to] = previous;
+        nextSameEntity[to] = next;
+        if (previous != NO_LINK) {
+            nextSameEntity[previous] = to;
+        } else {
+            headSlotByEntity.put(entityIds[to], to);
+        }
+        if (next != NO_LINK) {
+            previousSameEntity[next] = to;
+        }
+    }
+
+    /**
+     * Returns a pseudo-random value in [-0.5, 0.5) from an xorshift generator.
+     *
+     * @return the jitter value
+     */
+    private double nextJitter() {
+        long x = jitterState;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        jitterState = x;
+        return (x >>> 11) * 0x1.0p-53 - 0.5;
+    }
+
+    /**
+     * Grows the slot arrays, preserving live slots.
+     *
+     * @param capacity the new capacity
+     */
+    private void allocate(int capacity) {
+        viewers = viewers == null ? new Player[capacity] : Arrays.copyOf(viewers, capacity);
+        entityIds = entityIds == null ? new int[capacity] : Arrays.copyOf(entityIds, capacity);
+        baseX = baseX == null ? new double[capacity] : Arrays.copyOf(baseX, capacity);
+        baseY = baseY == null ? new double[capacity] : Arrays.copyOf(baseY, capacity);
+        baseZ = baseZ == null ? new double[capacity] : Arrays.copyOf(baseZ, capacity);
+        riseSpeeds = riseSpeeds == null ? new double[capacity] : Arrays.copyOf(riseSpeeds, capacity);
+        spinSpeeds = spinSpeeds == null ? new double[capacity] : Arrays.copyOf(spinSpeeds, capacity);
+        ages = ages == null ? new int[capacity] : Arrays.copyOf(ages, capacity);
+        lifetimes = lifetimes == null ? new int[capacity] : Arrays.copyOf(lifetimes, capacity);
+        flags = flags == null ? new byte[capacity] : Arrays.copyOf(flags, capacity);
+        layoutTargets = layoutTargets == null ? new long[capacity] : Arrays.copyOf(layoutTargets, capacity);
+        layoutSlots = layoutSlots == null ? new byte[capacity] : Arrays.copyOf(layoutSlots, capacity);
+        nextSameEntity = nextSameEntity == null ? new int[capacity] : Arrays.copyOf(nextSameEntity, capacity);
+        previousSameEntity = previousSameEntity == null ? new int[capacity] : Arrays.copyOf(previousSameEntity, capacity);
+    }
+}
\ No newline at end of file
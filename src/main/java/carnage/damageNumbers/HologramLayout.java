@@ -0,0 +1,188 @@
+package carnage.damageNumbers;
+
+import carnage.damageNumbers.util.LongIndexMap;
+
+import java.util.Arrays;
+
+/**
+ * Places numbers around a target in fixed vertical and radial slots instead of random jitter,
+ * so rapid hits on one target stay readable. Each target with live numbers owns a row holding a
+ * slot occupancy bitmask, a ring cursor and per-slot reference counts; a slot is freed when every
+ * viewer's copy of the number in it has expired. When all slots are taken, the next slot in the ring is shared.
+ */
+class HologramLayout {
+    static final int NO_SLOT = -1;
+    static final int MAX_SLOTS = 32;
+
+    private static final double[] RADIAL_ANGLES = {0.0, Math.PI, Math.PI / 2, Math.PI * 3 / 2};
+    private static final int INITIAL_ROWS = 32;
+
+    private final int slotCount;
+    private final double[] offsetX;
+    private final double[] offsetY;
+    private final double[] offsetZ;
+    private final LongIndexMap rowsByTarget;
+    private long[] rowTargets;
+    private int[] occupied;
+    private int[] cursors;
+    private int[] references;
+    private int rowCount;
+
+    /**
+     * Creates a layout.
+     *
+     * @param slotCount       the number of slots per target, filled radially then upwards
+     * @param verticalSpacing the height between slot levels in blocks
+     * @param radius          the horizontal distance of slots from the target in blocks
+     */
+    HologramLayout(int slotCount, double verticalSpacing, double radius) {
+        this.slotCount = Math.max(1, Math.min(MAX_SLOTS, slotCount));
+        this.offsetX = new double[this.slotCount];
+        this.offsetY = new double[this.slotCount];
+        this.offsetZ = new double[this.slotCount];
+        for (int slot = 0; slot < this.slotCount; slot++) {
+            double angle = RADIAL_ANGLES[slot % RADIAL_ANGLES.length];
+            offsetX[slot] = Math.cos(angle) * radius;
+            offsetY[slot] = (slot / RADIAL_ANGLES.length) * verticalSpacing;
+            offsetZ[slot] = Math.sin(angle) * radius;
+        }
+        this.rowsByTarget = new LongIndexMap(INITIAL_ROWS);
+        this.rowTargets = new long[INITIAL_ROWS];
+        this.occupied = new int[INITIAL_ROWS];
+        this.cursors = new int[INITIAL_ROWS];
+        this.references = new int[INITIAL_ROWS * this.slotCount];
+    }
+
+    /**
+     * Reserves the next free slot around a target.
+     *
+     * @param targetKey the key identifying the target
+     * @param viewers   the number of viewer copies that will each release the slot once
+     * @return the slot index
+     */
+    int acquire(long targetKey, int viewers) {
+        int row = rowsByTarget.get(targetKey);
+        if (row == LongIndexMap.MISSING) {
+            row = addRow(targetKey);
+        }
+
+        int mask = occupied[row];
+        int cursor = cursors[row];
+        int slot = cursor;
+        for (int i = 0; i < slotCount; i++) {
+            int candidate = (cursor + i) % slotCount;
+            if ((mask & (1 << candidate)) == 0) {
+                slot = candidate;
+                break;
+            }
+        }
+
+        occupied[row] = mask | (1 << slot);
+        references[row * slotCount + slot] += viewers;
+        cursors[row] = (slot + 1) % slotCount;
+        return slot;
+    }
+
+    /**
+     * Releases one viewer's copy of a number, freeing the slot once every copy has been released.
+     *
+     * @param targetKey the key identifying the target
+     * @param slot      the slot index
+     */
+    void release(long targetKey, int slot) {
+        int row = rowsByTarget.get(targetKey);
+        if (row == LongIndexMap.MISSING) {
+            return;
+        }
+
+        int index = row * slotCount + slot;
+        if (--references[index] > 0) {
+            return;
+        }
+        references[index] = 0;
+        occupied[row] &= ~(1 << slot);
+        if (occupied[row] == 0) {
+            removeRow(row);
+        }
+    }
+
+    /**
+     * Gets the X offset of a slot from the target.
+     *
+     * @param slot the slot index
+     * @return the offset in blocks
+     */
+    double offsetX(int slot) {
+        return offsetX[slot];
+    }
+
+    /**
+     * Gets the Y offset of a slot from the target.
+     *
+     * @param slot the slot index
+     * @return the offset in blocks
+     */
+    double offsetY(int slot) {
+        return offsetY[slot];
+    }
+
+    /**
+     * Gets the Z offset of a slot from the target.
+     *
+     * @param slot the slot index
+     * @return the offset in blocks
+     */
+    double offsetZ(int slot) {
+        return offsetZ[slot];
+    }
+
+    /**
+     * Gets the number of targets with at least one occupied slot.
+     *
+     * @return the active target count
+     */
+    int activeTargets() {
+        return rowCount;
+    }
+
+    /**
+     * Adds an empty row for a target.
+     *
+     * @param targetKey the key identifying the target
+     * @return the row index
+     */
+    private int addRow(long targetKey) {
+        if (rowCount == rowTargets.length) {
+            int capacity = rowCount * 2;
+            rowTargets = Arrays.copyOf(rowTargets, capacity);
+            occupied = Arrays.copyOf(occupied, capacity);
+            cursors = Arrays.copyOf(cursors, capacity);
+            references = Arrays.copyOf(references, capacity * slotCount);
+        }
+
+        int row = rowCount++;
+        rowTargets[row] = targetKey;
+        occupied[row] = 0;
+        cursors[row] = 0;
+        rowsByTarget.put(targetKey, row);
+        return row;
+    }
+
+    /**
+     * Removes an empty row by moving the last row into its place.
+     *
+     * @param row the row to remove
+     */
+    private void removeRow(int row) {
+        rowsByTarget.remove(rowTargets[row]);
+        int last = --rowCount;
+        if (row != last) {
+            rowTargets[row] = rowTargets[last];
+            occupied[row] = occupied[last];
+            cursors[row] = cursors[last];
+            System.arraycopy(references, last * slotCount, references, row * slotCount, slotCount);
+            rowsByTarget.put(rowTargets[row], row);
+        }
+        Arrays.fill(references, last * slotCount, (last + 1) * slotCount, 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package carnage.damageNumbers;
+
+import carnage.damageNumbers.scheduler.TickClock;
+import carnage.damageNumbers.util.LongIndexMap;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The hologram state for one area of the world: its animator, slot layout, merged numbers and spawn scratch space.
+ * On a regionized server every partition is driven by a clock anchored to one chunk, so all of its state is only
+ * touched by the region thread owning that chunk and partitions never contend. Otherwise a single partition covers
+ * every world and runs on the main thread.
+ */
+class HologramPartition {
+    final World world;
+    final int chunkX;
+    final int chunkZ;
+    final TickClock clock;
+    DamageNumberHandler.LayoutSettings layoutSettings;
+    HologramLayout layout;
+    final HologramAnimator animator;
+    final LongIndexMap mergedIndexByKey;
+    final List<DamageNumberHandler.MergedNumber> mergedNumbers;
+    int mergeSweepAt;
+    double spawnX;
+    double spawnY;
+    double spawnZ;
+    int spawnSlot;
+
+    /**
+     * Creates a partition.
+     *
+     * @param world          the world of the anchor chunk, or null for the single main-thread partition
+     * @param chunkX         the anchor chunk X coordinate
+     * @param chunkZ         the anchor chunk Z coordinate
+     * @param clock          the clock driving this partition's animation and merge tasks
+     * @param layoutSettings the settings the layout was built from
+     * @param layout         the slot layout, or null to place holograms with random jitter
+     * @param animator       the animator for this partition's holograms
+     * @param mergeSweepMin  the merged number count that triggers the first expiry sweep
+     */
+    HologramPartition(World world, int chunkX, int chunkZ, TickClock clock, DamageNumberHandler.LayoutSettings layoutSettings, HologramLayout layout,
+                      HologramAnimator animator, int mergeSweepMin) {
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.clock = clock;
+        this.layoutSettings = layoutSettings;
+        this.layout = layout;
+        this.animator = animator;
+        this.mergedIndexByKey = new LongIndexMap(mergeSweepMin);
+        this.mergedNumbers = new ArrayList<>();
+        this.mergeSweepAt = mergeSweepMin;
+    }
+}
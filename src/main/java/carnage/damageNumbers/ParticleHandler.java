@@ -1,12 +1,23 @@
 package carnage.damageNumbers;
 
+import carnage.damageNumbers.packet.HologramPacketSink;
+import carnage.damageNumbers.packet.ParticleEffect;
+import com.github.retrooper.packetevents.protocol.particle.type.ParticleType;
+import com.github.retrooper.packetevents.protocol.particle.type.ParticleTypes;
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
 
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Level;
+
 /**
  * Manages particle effects for damage and healing events.
+ * Particle types are resolved once when the handler is created or reloaded, and each burst
+ * is sent through the hologram packet sink, so it lands in the same bundle as its number,
+ * to the viewers who have not turned particles off.
  */
 public class ParticleHandler {
     private static final String CONFIG_CRITICAL_TYPE = "particles.critical.type";
@@ -20,60 +31,105 @@ public class ParticleHandler {
     private static final String CONFIG_HEALING_OFFSET = "particles.healing.offset";
 
     private final DamageNumbers plugin;
+    private final HologramPacketSink packetSink;
+    private ParticleEffect criticalEffect;
+    private ParticleEffect normalEffect;
+    private ParticleEffect healingEffect;
 
-    public ParticleHandler(DamageNumbers plugin) {
+    public ParticleHandler(DamageNumbers plugin, HologramPacketSink packetSink) {
         this.plugin = plugin;
+        this.packetSink = packetSink;
+        reload();
         plugin.getPluginLogger().info("ParticleHandler initialized");
     }
 
+    /**
+     * Resolves the configured particle effects, disabling any that are empty or invalid.
+     */
+    public void reload() {
+        FileConfiguration config = plugin.getConfig();
+        this.criticalEffect = resolveEffect(config.getString(CONFIG_CRITICAL_TYPE, "CRIT"),
+                config.getInt(CONFIG_CRITICAL_COUNT, 10), config.getDouble(CONFIG_CRITICAL_OFFSET, 0.4), 0.5);
+        this.normalEffect = resolveEffect(config.getString(CONFIG_NORMAL_TYPE, "DAMAGE_INDICATOR"),
+                config.getInt(CONFIG_NORMAL_COUNT, 5), config.getDouble(CONFIG_NORMAL_OFFSET, 0.3), 0.5);
+        this.healingEffect = resolveEffect(config.getString(CONFIG_HEALING_TYPE, "HEART"),
+                config.getInt(CONFIG_HEALING_COUNT, 3), config.getDouble(CONFIG_HEALING_OFFSET, 0.2), 0.8);
+    }
+
     /**
      * Spawns particles for a hit event.
      *
-     * @param player     the player to see the particles
+     * @param viewers    the players to see the particles
      * @param location   the location to spawn particles
      * @param isCritical whether the hit is critical
      */
-    public void spawnHitParticles(Player player, Location location, boolean isCritical) {
-        FileConfiguration config = plugin.getConfig();
-        String particleType = isCritical ? config.getString(CONFIG_CRITICAL_TYPE, "CRIT") : config.getString(CONFIG_NORMAL_TYPE, "DAMAGE_INDICATOR");
-        int count = isCritical ? config.getInt(CONFIG_CRITICAL_COUNT, 10) : config.getInt(CONFIG_NORMAL_COUNT, 5);
-        double offset = isCritical ? config.getDouble(CONFIG_CRITICAL_OFFSET, 0.4) : config.getDouble(CONFIG_NORMAL_OFFSET, 0.3);
-
-        spawnParticles(player, location, particleType, count, offset, 0.5);
+    public void spawnHitParticles(Set<Player> viewers, Location location, boolean isCritical) {
+        spawnParticles(viewers, location, isCritical ? criticalEffect : normalEffect);
     }
 
     /**
      * Spawns particles for a healing event.
      *
-     * @param player   the player to see the particles
+     * @param viewers  the players to see the particles
      * @param location the location to spawn particles
      */
-    public void spawnHealingParticles(Player player, Location location) {
-        FileConfiguration config = plugin.getConfig();
-        String particleType = config.getString(CONFIG_HEALING_TYPE, "HEART");
-        int count = config.getInt(CONFIG_HEALING_COUNT, 3);
-        double offset = config.getDouble(CONFIG_HEALING_OFFSET, 0.2);
+    public void spawnHealingParticles(Set<Player> viewers, Location location) {
+        spawnParticles(viewers, location, healingEffect);
+    }
 
-        spawnParticles(player, location, particleType, count, offset, 0.8);
+    /**
+     * Sends a particle burst to every viewer, unless particles are off in the location's world.
+     *
+     * @param viewers  the players to see the particles
+     * @param location the base location
+     * @param effect   the resolved effect, or null if disabled
+     */
+    private void spawnParticles(Set<Player> viewers, Location location, ParticleEffect effect) {
+        if (effect == null || !plugin.getWorldProfiles().profileFor(location.getWorld()).particlesEnabled()) {
+            return;
+        }
+
+        Set<Player> receivers = plugin.getPlayerPreferences().filterParticles(viewers);
+        double x = location.getX();
+        double y = location.getY();
+        double z = location.getZ();
+        for (Player viewer : receivers) {
+            packetSink.particles(viewer, effect, x, y, z);
+        }
+        if (plugin.isDebugEnabled() && plugin.getPluginLogger().isLoggable(Level.FINE)) {
+            plugin.getPluginLogger().fine("Spawned " + effect.particle().getType().getName() + " particles for " + receivers.size() + " viewers at " + location);
+        }
     }
 
     /**
-     * Spawns particles at the specified location.
+     * Resolves a Bukkit particle name to a packet particle.
      *
-     * @param player      the player to see the particles
-     * @param location    the base location
-     * @param particleType the type of particle
-     * @param count       the number of particles
-     * @param offset      the offset for particle spread
-     * @param yOffset     the vertical offset
+     * @param particleType the Bukkit particle name, or empty for none
+     * @param count        the number of particles
+     * @param offset       the spread on each axis
+     * @param yOffset      the height above the spawn location
+     * @return the effect, or null if the name is empty, unknown, or needs extra particle data
      */
-    private void spawnParticles(Player player, Location location, String particleType, int count, double offset, double yOffset) {
+    private ParticleEffect resolveEffect(String particleType, int count, double offset, double yOffset) {
+        if (particleType == null || particleType.isEmpty() || count <= 0) {
+            return null;
+        }
+
         try {
-            Particle particle = Particle.valueOf(particleType);
-            player.spawnParticle(particle, location.clone().add(0, yOffset, 0), count, offset, offset, offset, 0.0);
-            plugin.getPluginLogger().fine("Spawned " + particleType + " particles for " + player.getName() + " at " + location);
+            Particle particle = Particle.valueOf(particleType.toUpperCase(Locale.ROOT));
+            if (particle.getDataType() != Void.class) {
+                plugin.getPluginLogger().warning("Particle type needs extra data and is not supported: " + particleType);
+                return null;
+            }
+            ParticleType<?> type = ParticleTypes.getByName(particle.getKey().toString());
+            if (type == null) {
+                plugin.getPluginLogger().warning("Particle type is not known to PacketEvents: " + particleType);
+                return null;
+            }
+            return new ParticleEffect(new com.github.retrooper.packetevents.protocol.particle.Particle<>(type), count, (float) offset, (float) yOffset);
         } catch (IllegalArgumentException e) {
             plugin.getPluginLogger().warning("Invalid particle type: " + particleType);
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,165 @@
+package carnage.damageNumbers;
+
+import carnage.damageNumbers.packet.HologramPacketSink;
+import carnage.damageNumbers.packet.SoundEffect;
+import carnage.damageNumbers.util.CooldownMap;
+import com.github.retrooper.packetevents.protocol.sound.Sounds;
+import org.bukkit.Location;
+import org.bukkit.Sound;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Plays damage and healing sounds.
+ * Sounds are resolved once when the handler is created or reloaded and sent through the hologram
+ * packet sink, so they land in the same bundle as their number. Each viewer hears at most one
+ * sound per throttle window, so a burst of hits produces one chime rather than one per hit.
+ * Called from whichever thread owns the damaged or healed entity, so on a regionized server from several
+ * region threads at once: the throttle is a {@link CooldownMap} on wall-clock time, which lets exactly one
+ * of any racing sounds through per viewer, and the resolved settings are swapped as a whole on reload.
+ */
+public class SoundHandler {
+    private static final String CONFIG_SOUND_NORMAL = "advanced.sounds.normal";
+    private static final String CONFIG_SOUND_CRITICAL = "advanced.sounds.critical";
+    private static final String CONFIG_SOUND_HEALING = "advanced.sounds.healing";
+    private static final String CONFIG_SOUND_VOLUME = "advanced.sounds.volume";
+    private static final String CONFIG_SOUND_PITCH = "advanced.sounds.pitch";
+    private static final String CONFIG_THROTTLE_TICKS = "advanced.sounds.throttle-ticks";
+    private static final int MAX_TRACKED_VIEWERS = 1024;
+    private static final long MILLIS_PER_TICK = 50;
+
+    private final DamageNumbers plugin;
+    private final HologramPacketSink packetSink;
+    private final CooldownMap lastPlayedTimes;
+    private volatile Settings settings;
+
+    /**
+     * Resolved sounds and throttle, swapped as a whole on reload.
+     *
+     * @param normalSound   the sound for normal hits, or null if disabled
+     * @param criticalSound the sound for critical hits, or null if disabled
+     * @param healingSound  the sound for healing, or null if disabled
+     * @param throttleMs    the throttle window in milliseconds, or 0 for none
+     */
+    private record Settings(SoundEffect normalSound, SoundEffect criticalSound, SoundEffect healingSound, long throttleMs) {
+    }
+
+    public SoundHandler(DamageNumbers plugin, HologramPacketSink packetSink) {
+        this.plugin = plugin;
+        this.packetSink = packetSink;
+        this.lastPlayedTimes = new CooldownMap();
+        reload();
+    }
+
+    /**
+     * Resolves the configured sounds, disabling any that are empty or invalid.
+     */
+    public void reload() {
+        FileConfiguration config = plugin.getConfig();
+        float volume = (float) config.getDouble(CONFIG_SOUND_VOLUME, 0.5);
+        float pitch = (float) config.getDouble(CONFIG_SOUND_PITCH, 1.0);
+        this.settings = new Settings(
+                resolveSound(config.getString(CONFIG_SOUND_NORMAL, ""), volume, pitch),
+                resolveSound(config.getString(CONFIG_SOUND_CRITICAL, ""), volume, pitch),
+                resolveSound(config.getString(CONFIG_SOUND_HEALING, ""), volume, pitch),
+                Math.max(0, config.getInt(CONFIG_THROTTLE_TICKS, 4)) * MILLIS_PER_TICK
+        );
+    }
+
+    /**
+     * Plays the configured sound for damage events.
+     *
+     * @param viewers    the players to hear the sound
+     * @param location   the sound location
+     * @param isCritical whether the hit is critical
+     */
+    public void playDamageSound(Set<Player> viewers, Location location, boolean isCritical) {
+        Settings current = settings;
+        playSound(viewers, location, isCritical ? current.criticalSound() : current.normalSound(), current.throttleMs());
+    }
+
+    /**
+     * Plays the configured sound for healing events.
+     *
+     * @param viewers  the players to hear the sound
+     * @param location the sound location
+     */
+    public void playHealingSound(Set<Player> viewers, Location location) {
+        Settings current = settings;
+        playSound(viewers, location, current.healingSound(), current.throttleMs());
+    }
+
+    /**
+     * Sends a sound to every viewer outside their throttle window, unless sounds are off in the location's world.
+     *
+     * @param viewers    the players to hear the sound
+     * @param location   the sound location
+     * @param effect     the resolved sound, or null if disabled
+     * @param throttleMs the throttle window in milliseconds
+     */
+    private void playSound(Set<Player> viewers, Location location, SoundEffect effect, long throttleMs) {
+        if (effect == null || !plugin.getWorldProfiles().profileFor(location.getWorld()).soundsEnabled()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (Player viewer : viewers) {
+            if (isThrottled(viewer, now, throttleMs)) {
+                continue;
+            }
+            packetSink.sound(viewer, effect, location.getX(), location.getY(), location.getZ());
+        }
+    }
+
+    /**
+     * Checks a viewer's throttle window, recording the current time if the sound may play.
+     * Of several threads playing to the same viewer at once, only one is let through.
+     *
+     * @param viewer     the player to hear the sound
+     * @param now        the current time in milliseconds
+     * @param throttleMs the throttle window in milliseconds
+     * @return true if the viewer heard a sound within the throttle window
+     */
+    private boolean isThrottled(Player viewer, long now, long throttleMs) {
+        if (throttleMs == 0) {
+            return false;
+        }
+
+        if (lastPlayedTimes.size() >= MAX_TRACKED_VIEWERS) {
+            lastPlayedTimes.sweep(now, throttleMs);
+        }
+        return !lastPlayedTimes.tryAcquire(viewer.getUniqueId(), now, throttleMs);
+    }
+
+    /**
+     * Resolves a Bukkit sound name, or a namespaced sound key, to a packet sound.
+     *
+     * @param soundName the sound name, or empty for none
+     * @param volume    the volume
+     * @param pitch     the pitch
+     * @return the sound, or null if the name is empty or unknown
+     */
+    private SoundEffect resolveSound(String soundName, float volume, float pitch) {
+        if (soundName == null || soundName.isEmpty()) {
+            return null;
+        }
+
+        try {
+            String key = soundName.indexOf('.') >= 0
+                    ? soundName.toLowerCase(Locale.ROOT)
+                    : Sound.valueOf(soundName.toUpperCase(Locale.ROOT)).getKey().toString();
+            com.github.retrooper.packetevents.protocol.sound.Sound sound = Sounds.getByName(key);
+            if (sound == null) {
+                plugin.getPluginLogger().warning("Sound is not known to PacketEvents: " + soundName);
+                return null;
+            }
+            return new SoundEffect(sound, volume, pitch);
+        } catch (IllegalArgumentException e) {
+            plugin.getPluginLogger().warning("Invalid sound name: " + soundName);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package carnage.damageNumbers.commands;
+
+import carnage.damageNumbers.DamageNumberHandler;
+import carnage.damageNumbers.DamageNumbers;
+import carnage.damageNumbers.listeners.DamageListener;
+import carnage.damageNumbers.listeners.PacketListener;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Location;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Injects synthetic damage and healing events through the live pipeline for a fixed duration
+ * and reports throughput, tick time impact, packets sent and peak live holograms.
+ */
+public class StressTest extends BukkitRunnable {
+    private static final double TARGET_RING_RADIUS = 4.0;
+    private static final int HEAL_EVERY = 5;
+    private static final int CRIT_EVERY = 4;
+
+    private final DamageNumbers plugin;
+    private final DamageNumberHandler damageHandler;
+    private final PacketListener packetListener;
+    private final DamageListener damageListener;
+    private final Player sender;
+    private final double eventsPerTick;
+    private final int targetCount;
+    private final int requestedViewers;
+    private final int durationTicks;
+    private final List<Entity> targets;
+    private final List<Player> viewerList;
+    private final Set<Player> viewers;
+
+    private int tick;
+    private double pendingEvents;
+    private long damageEvents;
+    private long healEvents;
+    private long startPackets;
+    private long startNanos;
+    private double baselineMspt;
+    private double msptTotal;
+    private double msptPeak;
+    private int msptSamples;
+    private boolean finished;
+
+    /**
+     * Creates a stress test.
+     *
+     * @param plugin          the plugin instance
+     * @param damageHandler   the hologram handler being measured
+     * @param packetListener  the damage pipeline entry point
+     * @param damageListener  the healing pipeline entry point
+     * @param sender          the player running the test, used as attacker and anchor
+     * @param eventsPerSecond the number of synthetic events per second
+     * @param targetCount     the number of synthetic targets
+     * @param viewerCount     the requested number of viewers
+     * @param durationSeconds the test duration in seconds
+     */
+    public StressTest(DamageNumbers plugin, DamageNumberHandler damageHandler, PacketListener packetListener, DamageListener damageListener,
+                      Player sender, int eventsPerSecond, int targetCount, int viewerCount, int durationSeconds) {
+        this.plugin = plugin;
+        this.damageHandler = damageHandler;
+        this.packetListener = packetListener;
+        this.damageListener = damageListener;
+        this.sender = sender;
+        this.eventsPerTick = eventsPerSecond / 20.0;
+        this.targetCount = targetCount;
+        this.requestedViewers = viewerCount;
+        this.durationTicks = durationSeconds * 20;
+        this.targets = new ArrayList<>(targetCount);
+        this.viewerList = new ArrayList<>(viewerCount);
+        this.viewers = new LinkedHashSet<>();
+    }
+
+    /**
+     * Spawns the synthetic targets, samples the baseline and starts injecting events.
+     */
+    public void start() {
+        spawnTargets();
+        selectViewers();
+        damageHandler.resetPeakLiveHolograms();
+        startPackets = damageHandler.getPacketSink().packetsSent();
+        baselineMspt = plugin.getServer().getAverageTickTime();
+        startNanos = System.nanoTime();
+        runTaskTimer(plugin, 1L, 1L);
+        send(Component.text(String.format("Stress test started: %.0f events/s, %d targets, %d/%d viewers, %d s",
+                eventsPerTick * 20, targets.size(), viewers.size(), requestedViewers, durationTicks / 20), NamedTextColor.YELLOW));
+    }
+
+    /**
+     * Checks whether the test has completed.
+     *
+     * @return true once the report has been sent
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public void run() {
+        if (tick >= durationTicks || !sender.isOnline()) {
+            finish();
+            return;
+        }
+
+        pendingEvents += eventsPerTick;
+        while (pendingEvents >= 1.0) {
+            injectEvent();
+            pendingEvents -= 1.0;
+        }
+
+        if (tick % 20 == 0) {
+            double mspt = plugin.getServer().getAverageTickTime();
+            msptTotal += mspt;
+            msptPeak = Math.max(msptPeak, mspt);
+            msptSamples++;
+        }
+        tick++;
+    }
+
+    /**
+     * Injects one synthetic event, alternating between damage on the targets and healing on the viewers.
+     */
+    private void injectEvent() {
+        long eventIndex = damageEvents + healEvents;
+        if (eventIndex % HEAL_EVERY == HEAL_EVERY - 1) {
+            Player healed = viewerList.get((int) (healEvents % viewerList.size()));
+            damageListener.injectHealing(healed, 1.0 + eventIndex % 4, viewers);
+            healEvents++;
+            return;
+        }
+
+        Entity target = targets.get((int) (damageEvents % targets.size()));
+        double damage = 1.0 + eventIndex % 12;
+        boolean isCritical = damageEvents % CRIT_EVERY == 0;
+        packetListener.injectDamage(sender, target, damage, isCritical, viewers);
+        damageEvents++;
+    }
+
+    /**
+     * Stops the test, removes the targets and reports the results.
+     */
+    private void finish() {
+        cancel();
+        finished = true;
+        targets.forEach(Entity::remove);
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        long totalEvents = damageEvents + healEvents;
+        long packets = damageHandler.getPacketSink().packetsSent() - startPackets;
+        double averageMspt = msptSamples == 0 ? baselineMspt : msptTotal / msptSamples;
+
+        send(Component.text("Stress test finished", NamedTextColor.GREEN));
+        send(Component.text(String.format("Events: %d (%d damage, %d heal), throughput %.1f events/s",
+                totalEvents, damageEvents, healEvents, totalEvents / Math.max(elapsedSeconds, 0.001)), NamedTextColor.GRAY));
+        send(Component.text(String.format("MSPT: baseline %.2f, average %.2f (%+.2f), peak %.2f",
+                baselineMspt, averageMspt, averageMspt - baselineMspt, msptPeak), NamedTextColor.GRAY));
+        send(Component.text(String.format("Packets sent: %d (%.1f/tick), peak live holograms: %d",
+                packets, (double) packets / Math.max(tick, 1), damageHandler.getPeakLiveHolograms()), NamedTextColor.GRAY));
+        plugin.getPluginLogger().info("Stress test by " + sender.getName() + ": " + totalEvents + " events, " + packets + " packets, peak "
+                + damageHandler.getPeakLiveHolograms() + " live holograms, MSPT " + String.format("%.2f -> %.2f", baselineMspt, averageMspt));
+    }
+
+    /**
+     * Spawns invisible marker armor stands in a ring around the sender to act as targets.
+     */
+    private void spawnTargets() {
+        Location center = sender.getLocation();
+        for (int i = 0; i < targetCount; i++) {
+            double angle = 2 * Math.PI * i / targetCount;
+            Location location = center.clone().add(Math.cos(angle) * TARGET_RING_RADIUS, 0, Math.sin(angle) * TARGET_RING_RADIUS);
+            targets.add(center.getWorld().spawn(location, ArmorStand.class, stand -> {
+                stand.setMarker(true);
+                stand.setInvisible(true);
+                stand.setGravity(false);
+                stand.setPersistent(false);
+            }));
+        }
+    }
+
+    /**
+     * Selects the sender plus the nearest online players in the same world as viewers.
+     */
+    private void selectViewers() {
+        Location center = sender.getLocation();
+        viewerList.add(sender);
+        sender.getWorld().getPlayers().stream()
+                .filter(player -> player != sender)
+                .sorted(Comparator.comparingDouble(player -> player.getLocation().distanceSquared(center)))
+                .limit(Math.max(requestedViewers - 1, 0))
+                .forEach(viewerList::add);
+        viewers.addAll(viewerList);
+    }
+
+    /**
+     * Sends a message to the player running the test.
+     *
+     * @param message the message to send
+     */
+    private void send(Component message) {
+        sender.sendMessage(message);
+    }
+}
\ No newline at end of file
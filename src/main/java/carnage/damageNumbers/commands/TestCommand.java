@@ -3,6 +3,14 @@ package carnage.damageNumbers.commands;
 import carnage.damageNumbers.DamageNumberHandler;
 import carnage.damageNumbers.DamageNumbers;
 import carnage.damageNumbers.ParticleHandler;
+import carnage.damageNumbers.debug.TraceBuffer;
+import carnage.damageNumbers.journal.JournalRecord;
+import carnage.damageNumbers.journal.JournalReplayer;
+import carnage.damageNumbers.listeners.DamageListener;
+import carnage.damageNumbers.listeners.PacketListener;
+import carnage.damageNumbers.preferences.Preference;
+import carnage.damageNumbers.preferences.PlayerPreferences;
+import carnage.damageNumbers.scheduler.TickClock;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.command.Command;
@@ -10,23 +18,44 @@ import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
- * Handles the /damagenumbers test command to display test damage or healing holograms.
+ * Handles the /damagenumbers command: per-player toggles, test holograms and synthetic stress runs.
  */
 public class TestCommand implements CommandExecutor {
     private static final String USAGE_MESSAGE = "Usage: /damagenumbers test <hit|crit|heal>";
+    private static final String STRESS_USAGE_MESSAGE = "Usage: /damagenumbers stress <events-per-second> <targets> <viewers> <seconds>";
+    private static final String REPLAY_USAGE_MESSAGE = "Usage: /damagenumbers replay <journal-file> [speed]";
+    private static final String TRACE_USAGE_MESSAGE = "Usage: /damagenumbers trace dump";
+    private static final String TOGGLE_USAGE_MESSAGE = "Usage: /damagenumbers toggle <damage|crits|heals|others|particles>";
+    private static final String PERMISSION_TEST = "damagenumbers.test";
+    private static final String PERMISSION_TOGGLE = "damagenumbers.toggle";
+    private static final int MAX_STRESS_RATE = 20000;
+    private static final int MAX_STRESS_TARGETS = 500;
+    private static final int MAX_STRESS_SECONDS = 600;
 
     private final DamageNumbers plugin;
     private final DamageNumberHandler damageHandler;
     private final ParticleHandler particleHandler;
+    private final PacketListener packetListener;
+    private final DamageListener damageListener;
+    private final PlayerPreferences playerPreferences;
+    private StressTest activeStressTest;
 
-    public TestCommand(DamageNumbers plugin, DamageNumberHandler damageHandler, ParticleHandler particleHandler) {
+    public TestCommand(DamageNumbers plugin, DamageNumberHandler damageHandler, ParticleHandler particleHandler,
+                       PacketListener packetListener, DamageListener damageListener, PlayerPreferences playerPreferences) {
         this.plugin = plugin;
         this.damageHandler = damageHandler;
         this.particleHandler = particleHandler;
+        this.packetListener = packetListener;
+        this.damageListener = damageListener;
+        this.playerPreferences = playerPreferences;
     }
 
     @Override
@@ -36,6 +65,35 @@ public class TestCommand implements CommandExecutor {
             return true;
         }
 
+        if (args.length >= 1 && args[0].equalsIgnoreCase("toggle")) {
+            if (!player.hasPermission(PERMISSION_TOGGLE)) {
+                sendMessage(player, Component.text("You don't have permission to use this command.", NamedTextColor.RED));
+                return true;
+            }
+            handleToggleCommand(player, args);
+            return true;
+        }
+
+        if (!player.hasPermission(PERMISSION_TEST)) {
+            sendMessage(player, Component.text("You don't have permission to use this command.", NamedTextColor.RED));
+            return true;
+        }
+
+        if (args.length >= 1 && args[0].equalsIgnoreCase("stress")) {
+            handleStressCommand(player, args);
+            return true;
+        }
+
+        if (args.length >= 1 && args[0].equalsIgnoreCase("replay")) {
+            handleReplayCommand(player, args);
+            return true;
+        }
+
+        if (args.length >= 1 && args[0].equalsIgnoreCase("trace")) {
+            handleTraceCommand(player, args);
+            return true;
+        }
+
         if (args.length < 2 || !args[0].equalsIgnoreCase("test")) {
             sendMessage(player, Component.text(USAGE_MESSAGE, NamedTextColor.RED));
             return true;
@@ -45,6 +103,161 @@ public class TestCommand implements CommandExecutor {
         return true;
     }
 
+    /**
+     * Flips one of the player's display preferences. The change is saved in the background.
+     *
+     * @param player the player executing the command
+     * @param args   the command arguments
+     */
+    private void handleToggleCommand(Player player, String[] args) {
+        Preference preference = args.length >= 2 ? Preference.byCommandName(args[1]) : null;
+        if (preference == null) {
+            sendMessage(player, Component.text(TOGGLE_USAGE_MESSAGE, NamedTextColor.RED));
+            return;
+        }
+
+        boolean enabled = playerPreferences.toggle(player, preference);
+        sendMessage(player, Component.text("Damage numbers " + preference.getCommandName() + ": " + (enabled ? "shown" : "hidden") + ".",
+                enabled ? NamedTextColor.GREEN : NamedTextColor.YELLOW));
+    }
+
+    /**
+     * Starts a synthetic load run through the damage and healing pipeline.
+     *
+     * @param player the player executing the command
+     * @param args   the command arguments
+     */
+    private void handleStressCommand(Player player, String[] args) {
+        if (args.length < 5) {
+            sendMessage(player, Component.text(STRESS_USAGE_MESSAGE, NamedTextColor.RED));
+            return;
+        }
+
+        if (plugin.getPluginScheduler().isRegionized()) {
+            sendMessage(player, Component.text("Stress tests run on the main thread and are not available on Folia.", NamedTextColor.RED));
+            return;
+        }
+
+        if (activeStressTest != null && !activeStressTest.isFinished()) {
+            sendMessage(player, Component.text("A stress test is already running.", NamedTextColor.RED));
+            return;
+        }
+
+        int rate;
+        int targets;
+        int viewers;
+        int seconds;
+        try {
+            rate = Integer.parseInt(args[1]);
+            targets = Integer.parseInt(args[2]);
+            viewers = Integer.parseInt(args[3]);
+            seconds = Integer.parseInt(args[4]);
+        } catch (NumberFormatException e) {
+            sendMessage(player, Component.text(STRESS_USAGE_MESSAGE, NamedTextColor.RED));
+            return;
+        }
+
+        if (rate < 1 || rate > MAX_STRESS_RATE || targets < 1 || targets > MAX_STRESS_TARGETS || viewers < 1 || seconds < 1 || seconds > MAX_STRESS_SECONDS) {
+            sendMessage(player, Component.text("Limits: rate 1-" + MAX_STRESS_RATE + ", targets 1-" + MAX_STRESS_TARGETS
+                    + ", viewers 1+, seconds 1-" + MAX_STRESS_SECONDS + ".", NamedTextColor.RED));
+            return;
+        }
+
+        activeStressTest = new StressTest(plugin, damageHandler, packetListener, damageListener, player, rate, targets, viewers, seconds);
+        activeStressTest.start();
+        plugin.getPluginLogger().info(player.getName() + " started a stress test: " + rate + " events/s, " + targets + " targets, "
+                + viewers + " viewers, " + seconds + " s");
+    }
+
+    /**
+     * Dumps the debug trace to a file. The entries are copied on the main thread and written off it.
+     *
+     * @param player the player executing the command
+     * @param args   the command arguments
+     */
+    private void handleTraceCommand(Player player, String[] args) {
+        if (args.length < 2 || !args[1].equalsIgnoreCase("dump")) {
+            sendMessage(player, Component.text(TRACE_USAGE_MESSAGE, NamedTextColor.RED));
+            return;
+        }
+
+        TraceBuffer traceBuffer = plugin.getTraceBuffer();
+        List<TraceBuffer.Entry> entries = traceBuffer.snapshot();
+        if (entries.isEmpty()) {
+            sendMessage(player, Component.text("The trace is empty. Set debug: true to record events.", NamedTextColor.YELLOW));
+            return;
+        }
+
+        Path file = plugin.getDataFolder().toPath().resolve("traces").resolve("trace-" + System.currentTimeMillis() + ".log");
+        plugin.getPluginScheduler().runAsync(() -> {
+            try {
+                TraceBuffer.write(entries, file);
+                plugin.getPluginScheduler().runForEntity(player, () ->
+                        sendMessage(player, Component.text("Wrote " + entries.size() + " trace entries to " + file + ".", NamedTextColor.GREEN)), 0L);
+            } catch (IOException e) {
+                plugin.getPluginScheduler().runForEntity(player, () ->
+                        sendMessage(player, Component.text("Failed to write trace: " + e.getMessage(), NamedTextColor.RED)), 0L);
+            }
+        });
+    }
+
+    /**
+     * Replays a recorded damage journal around the player. The file is read off the main thread.
+     *
+     * @param player the player executing the command
+     * @param args   the command arguments
+     */
+    private void handleReplayCommand(Player player, String[] args) {
+        if (args.length < 2) {
+            sendMessage(player, Component.text(REPLAY_USAGE_MESSAGE, NamedTextColor.RED));
+            return;
+        }
+
+        double speed;
+        try {
+            speed = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+        } catch (NumberFormatException e) {
+            sendMessage(player, Component.text(REPLAY_USAGE_MESSAGE, NamedTextColor.RED));
+            return;
+        }
+
+        Path directory = plugin.getJournalDirectory().normalize();
+        Path file = directory.resolve(args[1]).normalize();
+        if (!file.startsWith(directory)) {
+            sendMessage(player, Component.text("Journal files must be inside " + directory + ".", NamedTextColor.RED));
+            return;
+        }
+
+        plugin.getPluginScheduler().runAsync(() -> {
+            try {
+                List<JournalRecord> records = JournalReplayer.read(file);
+                plugin.getPluginScheduler().runForEntity(player, () -> startReplay(player, records, speed), 0L);
+            } catch (IOException e) {
+                plugin.getPluginScheduler().runForEntity(player, () ->
+                        sendMessage(player, Component.text("Failed to read journal: " + e.getMessage(), NamedTextColor.RED)), 0L);
+            }
+        });
+    }
+
+    /**
+     * Schedules the replay of loaded journal records, shown only to the player.
+     *
+     * @param player  the player to replay for
+     * @param records the records to replay
+     * @param speed   the playback speed
+     */
+    private void startReplay(Player player, List<JournalRecord> records, double speed) {
+        if (!player.isOnline()) {
+            return;
+        }
+        Set<Player> viewers = Collections.singleton(player);
+        org.bukkit.Location origin = player.getLocation();
+        TickClock clock = plugin.getPluginScheduler().clockAt(origin.getWorld(), origin.getBlockX() >> 4, origin.getBlockZ() >> 4);
+        JournalReplayer replayer = new JournalReplayer(damageHandler, clock);
+        long ticks = replayer.replay(records, speed, getHologramLocation(player), viewerCount -> viewers);
+        sendMessage(player, Component.text("Replaying " + records.size() + " events over " + ticks + " ticks at " + speed + "x.", NamedTextColor.GREEN));
+    }
+
     /**
      * Processes the test command based on the specified type.
      *
@@ -57,13 +270,13 @@ public class TestCommand implements CommandExecutor {
 
         switch (type) {
             case "hit" -> {
-                damageHandler.displayDamageHologram(player, getHologramLocation(player), 5.0, false, viewers);
-                particleHandler.spawnHitParticles(player, player.getLocation(), false);
+                damageHandler.displayDamageHologram(player.getEntityId(), getHologramLocation(player), 5.0, false, viewers);
+                particleHandler.spawnHitParticles(viewers, player.getLocation(), false);
                 sendMessage(player, Component.text("Displayed normal hit damage number.", NamedTextColor.GREEN));
             }
             case "crit" -> {
-                damageHandler.displayDamageHologram(player, getHologramLocation(player), 10.0, true, viewers);
-                particleHandler.spawnHitParticles(player, player.getLocation(), true);
+                damageHandler.displayDamageHologram(player.getEntityId(), getHologramLocation(player), 10.0, true, viewers);
+                particleHandler.spawnHitParticles(viewers, player.getLocation(), true);
                 sendMessage(player, Component.text("Displayed critical hit damage number.", NamedTextColor.GREEN));
             }
             case "heal" -> {
@@ -0,0 +1,134 @@
+package carnage.damageNumbers.debug;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free ring of recent pipeline events for debugging.
+ * Writers claim a sequence number with a single atomic increment and publish their entry into
+ * the slot it maps to, overwriting the oldest; nothing is formatted or written to disk on record.
+ * A snapshot copies the live entries, so dumping can happen on another thread while events keep arriving.
+ */
+public class TraceBuffer {
+
+    /**
+     * The kind of traced event.
+     */
+    public enum Event {
+        /** A damage hit accepted for display. */
+        DAMAGE,
+        /** A healing event accepted for display. */
+        HEALING,
+        /** A hit or heal dropped by the cooldown. */
+        COOLDOWN_SKIP,
+        /** A hologram spawned for one viewer. */
+        SPAWN,
+        /** A hologram destroyed for one viewer. */
+        DESTROY,
+        /** A packet that failed to send. */
+        SEND_FAILURE,
+        /** A heal dropped by the per-tick healing budget. */
+        BUDGET_SKIP
+    }
+
+    /**
+     * A single traced event.
+     *
+     * @param sequence   the global sequence number, increasing in record order
+     * @param timeMillis the wall-clock time in milliseconds
+     * @param event      the event kind
+     * @param sourceId   the entity ID of the damager, healer or viewer, or 0
+     * @param targetId   the entity ID of the target or hologram, or 0
+     * @param amount     the damage or healing amount, or 0
+     * @param critical   whether the hit was critical
+     */
+    public record Entry(long sequence, long timeMillis, Event event, int sourceId, int targetId, double amount, boolean critical) {
+    }
+
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong cursor;
+    private final int mask;
+
+    /**
+     * Creates a trace buffer.
+     *
+     * @param capacity the number of entries kept, rounded up to a power of two
+     */
+    public TraceBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(16, Math.min(1 << 20, capacity) - 1)) << 1;
+        this.entries = new AtomicReferenceArray<>(size);
+        this.cursor = new AtomicLong();
+        this.mask = size - 1;
+    }
+
+    /**
+     * Records an event, overwriting the oldest entry once the ring is full.
+     *
+     * @param event    the event kind
+     * @param sourceId the entity ID of the damager, healer or viewer, or 0
+     * @param targetId the entity ID of the target or hologram, or 0
+     * @param amount   the damage or healing amount, or 0
+     * @param critical whether the hit was critical
+     */
+    public void record(Event event, int sourceId, int targetId, double amount, boolean critical) {
+        long sequence = cursor.getAndIncrement();
+        entries.set((int) (sequence & mask), new Entry(sequence, System.currentTimeMillis(), event, sourceId, targetId, amount, critical));
+    }
+
+    /**
+     * Copies the entries currently in the ring, oldest first.
+     *
+     * @return the entries
+     */
+    public List<Entry> snapshot() {
+        long end = cursor.get();
+        long start = Math.max(0, end - entries.length());
+        List<Entry> snapshot = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++) {
+            Entry entry = entries.get((int) (sequence & mask));
+            if (entry != null && entry.sequence() >= start) {
+                snapshot.add(entry);
+            }
+        }
+        snapshot.sort(Comparator.comparingLong(Entry::sequence));
+        return snapshot;
+    }
+
+    /**
+     * Gets the total number of events recorded, including those already overwritten.
+     *
+     * @return the recorded count
+     */
+    public long recorded() {
+        return cursor.get();
+    }
+
+    /**
+     * Writes entries to a text file, one per line. Performs blocking I/O; call off the main thread.
+     *
+     * @param entries the entries to write
+     * @param file    the destination file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(List<Entry> entries, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# sequence time event source target amount critical");
+            writer.newLine();
+            for (Entry entry : entries) {
+                writer.write(entry.sequence() + " " + Instant.ofEpochMilli(entry.timeMillis()) + " " + entry.event() + " "
+                        + entry.sourceId() + " " + entry.targetId() + " " + entry.amount() + " " + entry.critical());
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package carnage.damageNumbers.format;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Thread-safe formatter for hologram amounts. Produces the same output as
+ * {@code new DecimalFormat("#,##0.#")} for the configured locale, but writes digits straight into a
+ * per-thread char buffer instead of going through {@code DecimalFormat}'s StringBuffer machinery.
+ * Optionally shortens large values with compact suffixes (1.2k, 3.4M, 5.6B, 7.8T).
+ */
+public final class NumberFormatter {
+    private static final String PATTERN = "#,##0.#";
+    private static final int BUFFER_SIZE = 48;
+    private static final int GROUPING_SIZE = 3;
+    private static final double EXACT_LIMIT = 1.0e14;
+    private static final char[] COMPACT_SUFFIXES = {'k', 'M', 'B', 'T'};
+    private static final double[] COMPACT_DIVISORS = {1.0e3, 1.0e6, 1.0e9, 1.0e12};
+
+    private final Locale locale;
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final char zeroDigit;
+    private final char[] negativePrefix;
+    private final boolean compact;
+    private final double compactThreshold;
+    private final ThreadLocal<char[]> buffers;
+    private final ThreadLocal<DecimalFormat> fallbackFormats;
+
+    /**
+     * Creates a formatter.
+     *
+     * @param locale           the locale whose digits, separators and negative prefix are used
+     * @param compact          whether values at or above the threshold use compact suffixes
+     * @param compactThreshold the smallest magnitude shown in compact form
+     */
+    public NumberFormatter(Locale locale, boolean compact, double compactThreshold) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.locale = locale;
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.zeroDigit = symbols.getZeroDigit();
+        this.negativePrefix = new DecimalFormat(PATTERN, symbols).getNegativePrefix().toCharArray();
+        this.compact = compact;
+        this.compactThreshold = Math.max(compactThreshold, COMPACT_DIVISORS[0]);
+        this.buffers = ThreadLocal.withInitial(() -> new char[BUFFER_SIZE]);
+        this.fallbackFormats = ThreadLocal.withInitial(() -> new DecimalFormat(PATTERN, DecimalFormatSymbols.getInstance(locale)));
+    }
+
+    /**
+     * Creates a plain formatter for the default format locale, equivalent to {@code new DecimalFormat("#,##0.#")}.
+     *
+     * @return the formatter
+     */
+    public static NumberFormatter forDefaultLocale() {
+        return new NumberFormatter(Locale.getDefault(Locale.Category.FORMAT), false, 0);
+    }
+
+    /**
+     * Parses a locale from a language tag, falling back to the default format locale when blank.
+     *
+     * @param languageTag the IETF language tag, e.g. "de-DE"
+     * @return the locale
+     */
+    public static Locale parseLocale(String languageTag) {
+        if (languageTag == null || languageTag.isBlank()) {
+            return Locale.getDefault(Locale.Category.FORMAT);
+        }
+        return Locale.forLanguageTag(languageTag);
+    }
+
+    /**
+     * Gets the locale this formatter uses.
+     *
+     * @return the locale
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * Formats a value with grouping and at most one decimal, or in compact form if enabled and large enough.
+     *
+     * @param value the value to format
+     * @return the formatted value
+     */
+    public String format(double value) {
+        if (!Double.isFinite(value)) {
+            return fallbackFormats.get().format(value);
+        }
+
+        double magnitude = Math.abs(value);
+        boolean negative = Double.doubleToRawLongBits(value) < 0;
+        char[] buffer = buffers.get();
+        if (compact && magnitude >= compactThreshold) {
+            return formatCompact(buffer, magnitude, negative);
+        }
+        if (magnitude >= EXACT_LIMIT) {
+            return fallbackFormats.get().format(value);
+        }
+
+        int start = writePlain(buffer, BUFFER_SIZE, roundTenths(magnitude), negative);
+        return new String(buffer, start, BUFFER_SIZE - start);
+    }
+
+    /**
+     * Formats a value in compact form. Scaled values too large to round exactly in tenths are scaled and rounded as
+     * decimals and formatted by {@link DecimalFormat}, which is slow but only reached by amounts like
+     * {@code Float.MAX_VALUE} from {@code /kill}.
+     *
+     * @param buffer    the scratch buffer
+     * @param magnitude the absolute value
+     * @param negative  whether to prefix a minus sign
+     * @return the formatted value
+     */
+    private String formatCompact(char[] buffer, double magnitude, boolean negative) {
+        int unit = 0;
+        while (unit < COMPACT_DIVISORS.length - 1 && magnitude >= COMPACT_DIVISORS[unit + 1]) {
+            unit++;
+        }
+
+        if (magnitude / COMPACT_DIVISORS[unit] >= EXACT_LIMIT) {
+            BigDecimal scaled = BigDecimal.valueOf(magnitude).divide(BigDecimal.valueOf(COMPACT_DIVISORS[unit]));
+            return fallbackFormats.get().format(negative ? scaled.negate() : scaled) + COMPACT_SUFFIXES[unit];
+        }
+
+        long tenths = roundTenths(magnitude / COMPACT_DIVISORS[unit]);
+        if (tenths >= 10_000 && unit < COMPACT_DIVISORS.length - 1) {
+            unit++;
+            tenths = roundTenths(magnitude / COMPACT_DIVISORS[unit]);
+        }
+
+        buffer[BUFFER_SIZE - 1] = COMPACT_SUFFIXES[unit];
+        int start = writePlain(buffer, BUFFER_SIZE - 1, tenths, negative);
+        return new String(buffer, start, BUFFER_SIZE - start);
+    }
+
+    /**
+     * Writes a value given in tenths, with grouping and an optional single decimal, ending before {@code end}.
+     * Digits are offset from the locale's zero digit, so locales with native digits match {@link DecimalFormat}.
+     *
+     * @param buffer   the destination buffer
+     * @param end      the exclusive end index to write backwards from
+     * @param tenths   the value multiplied by ten and rounded
+     * @param negative whether to prefix a minus sign
+     * @return the index of the first written character
+     */
+    private int writePlain(char[] buffer, int end, long tenths, boolean negative) {
+        int position = end;
+        long integer = tenths / 10;
+        int fraction = (int) (tenths % 10);
+
+        if (fraction != 0) {
+            buffer[--position] = (char) (zeroDigit + fraction);
+            buffer[--position] = decimalSeparator;
+        }
+
+        int digits = 0;
+        do {
+            if (digits > 0 && digits % GROUPING_SIZE == 0) {
+                buffer[--position] = groupingSeparator;
+            }
+            buffer[--position] = (char) (zeroDigit + (int) (integer % 10));
+            integer /= 10;
+            digits++;
+        } while (integer > 0);
+
+        if (negative) {
+            position -= negativePrefix.length;
+            System.arraycopy(negativePrefix, 0, buffer, position, negativePrefix.length);
+        }
+        return position;
+    }
+
+    /**
+     * Rounds a non-negative value to tenths using half-even rounding on its exact binary value,
+     * matching {@link DecimalFormat}. Exact for values below {@link #EXACT_LIMIT}; larger values are rounded
+     * in floating point, saturating at {@code Long.MAX_VALUE} instead of stepping the floor past it.
+     *
+     * @param magnitude the non-negative value
+     * @return the value in tenths
+     */
+    private static long roundTenths(double magnitude) {
+        if (!(magnitude < EXACT_LIMIT)) {
+            return (long) Math.rint(magnitude * 10.0);
+        }
+        long floor = (long) Math.floor(magnitude * 10.0);
+        while (floor > 0 && Math.fma(magnitude, 10.0, -floor) < 0) {
+            floor--;
+        }
+        while (Math.fma(magnitude, 10.0, -(floor + 1)) >= 0) {
+            floor++;
+        }
+
+        double aboveHalf = Math.fma(magnitude, 10.0, -(floor + 0.5));
+        if (aboveHalf > 0) {
+            return floor + 1;
+        }
+        if (aboveHalf < 0) {
+            return floor;
+        }
+        return (floor & 1) == 0 ? floor : floor + 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,245 @@
+package carnage.damageNumbers.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Appends accepted damage and healing events to rotating, memory-mapped journal segments.
+ * Callers encode records into an in-memory staging buffer; a background writer thread swaps the
+ * staging buffers and copies them into the mapped segment, so recording never touches disk.
+ */
+public class DamageJournal {
+    public static final String FILE_EXTENSION = ".dnj";
+    private static final int STAGING_RECORDS = 4096;
+    private static final long FLUSH_INTERVAL_MS = 50L;
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final int maxSegments;
+    private final Logger logger;
+    private final Object stagingLock;
+    private final Deque<Path> segments;
+    private final Thread writerThread;
+    private ByteBuffer staging;
+    private ByteBuffer draining;
+    private MappedByteBuffer segment;
+    private FileChannel segmentChannel;
+    private int segmentSequence;
+    private long recorded;
+    private long dropped;
+    private volatile boolean running;
+
+    /**
+     * Creates a journal writing into the given directory.
+     *
+     * @param directory    the directory for journal segments
+     * @param segmentBytes the approximate size of each segment in bytes
+     * @param maxSegments  the number of segments kept before the oldest is deleted
+     * @param logger       the logger for diagnostics
+     */
+    public DamageJournal(Path directory, long segmentBytes, int maxSegments, Logger logger) {
+        this.directory = directory;
+        this.segmentRecords = (int) Math.max(STAGING_RECORDS, Math.min(Integer.MAX_VALUE - JournalRecord.HEADER_SIZE, segmentBytes) / JournalRecord.RECORD_SIZE);
+        this.maxSegments = Math.max(1, maxSegments);
+        this.logger = logger;
+        this.stagingLock = new Object();
+        this.segments = new ArrayDeque<>();
+        this.staging = ByteBuffer.allocate(STAGING_RECORDS * JournalRecord.RECORD_SIZE);
+        this.draining = ByteBuffer.allocate(STAGING_RECORDS * JournalRecord.RECORD_SIZE);
+        this.writerThread = new Thread(this::runWriter, "DamageNumbers-Journal");
+        this.writerThread.setDaemon(true);
+    }
+
+    /**
+     * Opens the first segment and starts the background writer.
+     *
+     * @throws IOException if the journal directory or segment cannot be created
+     */
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> existing = Files.list(directory)) {
+            existing.filter(path -> path.getFileName().toString().endsWith(FILE_EXTENSION))
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        openSegment();
+        running = true;
+        writerThread.start();
+        logger.info("Damage journal recording to " + directory);
+    }
+
+    /**
+     * Records a damage or healing event. Drops the event if the staging buffer is full.
+     *
+     * @param tick        the server tick
+     * @param attacker    the attacker UUID, or the healed entity for healing events
+     * @param target      the target UUID
+     * @param x           the target X coordinate
+     * @param y           the target Y coordinate
+     * @param z           the target Z coordinate
+     * @param amount      the damage or healing amount
+     * @param critical    whether the hit was critical
+     * @param healing     whether the event was a heal
+     * @param viewerCount the number of viewers
+     */
+    public void record(long tick, UUID attacker, UUID target, double x, double y, double z,
+                       double amount, boolean critical, boolean healing, int viewerCount) {
+        byte flags = (byte) ((critical ? JournalRecord.FLAG_CRITICAL : 0) | (healing ? JournalRecord.FLAG_HEALING : 0));
+        synchronized (stagingLock) {
+            if (staging.remaining() < JournalRecord.RECORD_SIZE) {
+                dropped++;
+                return;
+            }
+            JournalRecord.write(staging, tick, attacker.getMostSignificantBits(), attacker.getLeastSignificantBits(),
+                    target.getMostSignificantBits(), target.getLeastSignificantBits(), x, y, z, (float) amount, flags, viewerCount);
+            recorded++;
+        }
+    }
+
+    /**
+     * Gets the number of events recorded.
+     *
+     * @return the recorded event count
+     */
+    public long getRecorded() {
+        synchronized (stagingLock) {
+            return recorded;
+        }
+    }
+
+    /**
+     * Gets the number of events dropped because the writer fell behind.
+     *
+     * @return the dropped event count
+     */
+    public long getDropped() {
+        synchronized (stagingLock) {
+            return dropped;
+        }
+    }
+
+    /**
+     * Gets the directory journal segments are written to.
+     *
+     * @return the journal directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Stops the writer, flushes pending records and closes the current segment.
+     */
+    public void close() {
+        running = false;
+        writerThread.interrupt();
+        try {
+            writerThread.join(1000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writer loop: periodically drains the staging buffer into the mapped segment.
+     */
+    private void runWriter() {
+        try {
+            while (running) {
+                try {
+                    Thread.sleep(FLUSH_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                drain();
+            }
+            drain();
+        } catch (IOException e) {
+            logger.warning("Damage journal writer stopped: " + e.getMessage());
+        } finally {
+            closeSegment();
+        }
+    }
+
+    /**
+     * Swaps the staging buffers and copies the filled one into the mapped segment.
+     *
+     * @throws IOException if a new segment cannot be opened
+     */
+    private void drain() throws IOException {
+        synchronized (stagingLock) {
+            ByteBuffer filled = staging;
+            staging = draining;
+            draining = filled;
+        }
+
+        draining.flip();
+        while (draining.hasRemaining()) {
+            if (segment.remaining() < JournalRecord.RECORD_SIZE) {
+                rotate();
+            }
+            int bytes = Math.min(draining.remaining(), segment.remaining() / JournalRecord.RECORD_SIZE * JournalRecord.RECORD_SIZE);
+            ByteBuffer chunk = draining.slice(draining.position(), bytes);
+            segment.put(chunk);
+            draining.position(draining.position() + bytes);
+        }
+        draining.clear();
+    }
+
+    /**
+     * Closes the full segment, opens the next one and deletes segments beyond the retention limit.
+     *
+     * @throws IOException if the new segment cannot be opened
+     */
+    private void rotate() throws IOException {
+        closeSegment();
+        openSegment();
+        while (segments.size() > maxSegments) {
+            Files.deleteIfExists(segments.removeFirst());
+        }
+    }
+
+    /**
+     * Creates and maps a new segment file and writes its header.
+     *
+     * @throws IOException if the segment cannot be created
+     */
+    private void openSegment() throws IOException {
+        Path path = directory.resolve(String.format("journal-%d-%04d%s", System.currentTimeMillis(), segmentSequence++, FILE_EXTENSION));
+        long size = JournalRecord.HEADER_SIZE + (long) segmentRecords * JournalRecord.RECORD_SIZE;
+        segmentChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        segment.putInt(JournalRecord.MAGIC);
+        segment.putInt(JournalRecord.VERSION);
+        segment.putInt(JournalRecord.RECORD_SIZE);
+        segment.putInt(0);
+        segments.addLast(path);
+    }
+
+    /**
+     * Forces the current segment to disk and closes its channel.
+     */
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.force();
+            segmentChannel.close();
+        } catch (IOException e) {
+            logger.warning("Failed to close damage journal segment: " + e.getMessage());
+        }
+        segment = null;
+        segmentChannel = null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,93 @@
+package carnage.damageNumbers.journal;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * A decoded damage journal record, together with the fixed-width binary layout shared by the
+ * {@link DamageJournal} writer and the {@link JournalReplayer}.
+ * <p>
+ * Layout (72 bytes, big-endian): tick (8), attacker UUID (16), target UUID (16), x/y/z (3 x 8),
+ * amount (4), flags (1), padding (1), viewer count (2).
+ *
+ * @param tick        the server tick the event was accepted on
+ * @param attacker    the attacker UUID, or the healed entity for healing events
+ * @param target      the target UUID
+ * @param x           the target X coordinate
+ * @param y           the target Y coordinate
+ * @param z           the target Z coordinate
+ * @param amount      the damage or healing amount
+ * @param critical    whether the hit was critical
+ * @param healing     whether the event was a heal
+ * @param viewerCount the number of viewers the event was shown to
+ */
+public record JournalRecord(long tick, UUID attacker, UUID target, double x, double y, double z,
+                            float amount, boolean critical, boolean healing, int viewerCount) {
+    public static final int MAGIC = 0x444E4A31;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 72;
+    public static final byte FLAG_CRITICAL = 0x01;
+    public static final byte FLAG_HEALING = 0x02;
+    public static final byte FLAG_PRESENT = (byte) 0x80;
+    static final int FLAGS_OFFSET = 68;
+
+    /**
+     * Writes one record at the buffer's current position.
+     *
+     * @param buffer          the destination buffer with at least {@link #RECORD_SIZE} bytes remaining
+     * @param tick            the server tick
+     * @param attackerMost    the attacker UUID's most significant bits
+     * @param attackerLeast   the attacker UUID's least significant bits
+     * @param targetMost      the target UUID's most significant bits
+     * @param targetLeast     the target UUID's least significant bits
+     * @param x               the target X coordinate
+     * @param y               the target Y coordinate
+     * @param z               the target Z coordinate
+     * @param amount          the damage or healing amount
+     * @param flags           the record flags, without {@link #FLAG_PRESENT}
+     * @param viewerCount     the number of viewers
+     */
+    static void write(ByteBuffer buffer, long tick, long attackerMost, long attackerLeast, long targetMost, long targetLeast,
+                      double x, double y, double z, float amount, byte flags, int viewerCount) {
+        buffer.putLong(tick);
+        buffer.putLong(attackerMost);
+        buffer.putLong(attackerLeast);
+        buffer.putLong(targetMost);
+        buffer.putLong(targetLeast);
+        buffer.putDouble(x);
+        buffer.putDouble(y);
+        buffer.putDouble(z);
+        buffer.putFloat(amount);
+        buffer.put((byte) (flags | FLAG_PRESENT));
+        buffer.put((byte) 0);
+        buffer.putShort((short) Math.min(viewerCount, 0xFFFF));
+    }
+
+    /**
+     * Reads one record at the buffer's current position.
+     *
+     * @param buffer the source buffer with at least {@link #RECORD_SIZE} bytes remaining
+     * @return the decoded record, or null if the slot was never written
+     */
+    static JournalRecord read(ByteBuffer buffer) {
+        int start = buffer.position();
+        byte flags = buffer.get(start + FLAGS_OFFSET);
+        if ((flags & FLAG_PRESENT) == 0) {
+            buffer.position(start + RECORD_SIZE);
+            return null;
+        }
+
+        long tick = buffer.getLong();
+        UUID attacker = new UUID(buffer.getLong(), buffer.getLong());
+        UUID target = new UUID(buffer.getLong(), buffer.getLong());
+        double x = buffer.getDouble();
+        double y = buffer.getDouble();
+        double z = buffer.getDouble();
+        float amount = buffer.getFloat();
+        buffer.position(start + FLAGS_OFFSET + 2);
+        int viewerCount = Short.toUnsignedInt(buffer.getShort());
+        return new JournalRecord(tick, attacker, target, x, y, z, amount,
+                (flags & FLAG_CRITICAL) != 0, (flags & FLAG_HEALING) != 0, viewerCount);
+    }
+}
\ No newline at end of file
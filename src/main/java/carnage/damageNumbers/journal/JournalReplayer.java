@@ -0,0 +1,124 @@
+package carnage.damageNumbers.journal;
+
+import carnage.damageNumbers.DamageNumberHandler;
+import carnage.damageNumbers.scheduler.TickClock;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+/**
+ * Feeds recorded journal events back through {@link DamageNumberHandler}, at recorded or accelerated speed.
+ */
+public class JournalReplayer {
+    private final DamageNumberHandler damageHandler;
+    private final TickClock clock;
+
+    public JournalReplayer(DamageNumberHandler damageHandler, TickClock clock) {
+        this.damageHandler = damageHandler;
+        this.clock = clock;
+    }
+
+    /**
+     * Reads every written record from a journal segment.
+     *
+     * @param file the segment file
+     * @return the records in the order they were written
+     * @throws IOException if the file cannot be read or is not a journal segment
+     */
+    public static List<JournalRecord> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < JournalRecord.HEADER_SIZE || buffer.getInt() != JournalRecord.MAGIC) {
+                throw new IOException("Not a damage journal: " + file.getFileName());
+            }
+            int version = buffer.getInt();
+            int recordSize = buffer.getInt();
+            if (version != JournalRecord.VERSION || recordSize != JournalRecord.RECORD_SIZE) {
+                throw new IOException("Unsupported journal version " + version + " with record size " + recordSize);
+            }
+            buffer.position(JournalRecord.HEADER_SIZE);
+
+            List<JournalRecord> records = new ArrayList<>();
+            while (buffer.remaining() >= JournalRecord.RECORD_SIZE) {
+                JournalRecord record = JournalRecord.read(buffer);
+                if (record == null) {
+                    break;
+                }
+                records.add(record);
+            }
+            return records;
+        }
+    }
+
+    /**
+     * Schedules the records for display. Records sharing a tick are replayed together.
+     *
+     * @param records        the records to replay, in recorded order
+     * @param speed          the playback speed, where 1.0 is recorded speed
+     * @param origin         the location the first record is moved to, or null to replay at recorded coordinates
+     * @param viewerResolver resolves the viewers for a record from its recorded viewer count
+     * @return the number of ticks until the last record is displayed
+     */
+    public long replay(List<JournalRecord> records, double speed, Location origin, IntFunction<Set<Player>> viewerResolver) {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        JournalRecord first = records.get(0);
+        World world = origin != null ? origin.getWorld() : null;
+        double shiftX = origin != null ? origin.getX() - first.x() : 0;
+        double shiftY = origin != null ? origin.getY() - first.y() : 0;
+        double shiftZ = origin != null ? origin.getZ() - first.z() : 0;
+        double rate = speed > 0 ? speed : 1.0;
+
+        long lastDelay = 0;
+        int groupStart = 0;
+        while (groupStart < records.size()) {
+            long tick = records.get(groupStart).tick();
+            int groupEnd = groupStart;
+            while (groupEnd < records.size() && records.get(groupEnd).tick() == tick) {
+                groupEnd++;
+            }
+
+            List<JournalRecord> group = records.subList(groupStart, groupEnd);
+            long delay = Math.round((tick - first.tick()) / rate);
+            clock.runLater(() -> {
+                for (JournalRecord record : group) {
+                    display(record, new Location(world, record.x() + shiftX, record.y() + shiftY, record.z() + shiftZ), viewerResolver.apply(record.viewerCount()));
+                }
+            }, delay);
+            lastDelay = delay;
+            groupStart = groupEnd;
+        }
+        return lastDelay;
+    }
+
+    /**
+     * Displays a single replayed record.
+     *
+     * @param record   the record
+     * @param location the display location
+     * @param viewers  the viewers
+     */
+    private void display(JournalRecord record, Location location, Set<Player> viewers) {
+        if (viewers.isEmpty()) {
+            return;
+        }
+        if (record.healing()) {
+            damageHandler.displayHealingHologram(record.target(), location, record.amount(), viewers);
+            return;
+        }
+        long targetKey = record.target().getMostSignificantBits() ^ record.target().getLeastSignificantBits();
+        damageHandler.displayDamageHologram(targetKey, location, record.amount(), record.critical(), viewers);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+package carnage.damageNumbers.listeners;
+
+import org.bukkit.Server;
+import org.bukkit.entity.AnimalTamer;
+import org.bukkit.entity.AreaEffectCloud;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EvokerFangs;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.Projectile;
+import org.bukkit.entity.TNTPrimed;
+import org.bukkit.entity.Tameable;
+import org.bukkit.projectiles.ProjectileSource;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * Resolves the entity that dealt damage to the player responsible for it: projectile shooters,
+ * tamed pet owners, primed TNT igniters, lingering potion throwers and evoker fang casters.
+ * Resolved owners of indirect sources are cached by source entity in a small weakly keyed map,
+ * so arrows, pets and TNT that hit many times are resolved once. Untamed pets are not cached, since they
+ * may be tamed later. The cache is synchronized, since region threads resolve damagers concurrently on Folia.
+ */
+class DamageAttribution {
+    private static final int MAX_CACHED_SOURCES = 512;
+    private static final int MAX_DEPTH = 4;
+
+    private final Server server;
+    private final Map<Entity, CachedOwner> ownerCache;
+
+    /**
+     * How the responsible player, if any, dealt the damage.
+     */
+    enum Source {
+        /** A player hit the target directly. */
+        DIRECT,
+        /** A projectile, potion or area effect fired or thrown by a player. */
+        PROJECTILE,
+        /** A tamed entity owned by a player. */
+        PET,
+        /** Primed TNT ignited by a player. */
+        EXPLOSIVE,
+        /** A mob, directly or through its own projectile. */
+        MOB,
+        /** Anything else, such as ownerless TNT or fangs. */
+        UNKNOWN
+    }
+
+    /**
+     * The result of resolving a damager.
+     *
+     * @param player the responsible player, or null for mobs and unknown sources
+     * @param source how the damage was dealt
+     */
+    record Attribution(Player player, Source source) {
+    }
+
+    /**
+     * A cached owner resolution, holding the owner by UUID so the cache never keeps players alive.
+     *
+     * @param ownerId the owning player's UUID, or null if no player is responsible
+     * @param source  how the damage was dealt
+     */
+    private record CachedOwner(UUID ownerId, Source source) {
+    }
+
+    DamageAttribution(Server server) {
+        this.server = server;
+        this.ownerCache = Collections.synchronizedMap(new WeakHashMap<>());
+    }
+
+    /**
+     * Resolves the player responsible for damage dealt by an entity.
+     *
+     * @param damager the damaging entity from the event
+     * @return the attribution
+     */
+    Attribution resolve(Entity damager) {
+        if (damager instanceof Player player) {
+            return new Attribution(player, Source.DIRECT);
+        }
+        if (!isIndirect(damager)) {
+            return new Attribution(null, damager instanceof LivingEntity ? Source.MOB : Source.UNKNOWN);
+        }
+
+        CachedOwner cached = ownerCache.get(damager);
+        if (cached == null) {
+            if (ownerCache.size() >= MAX_CACHED_SOURCES) {
+                ownerCache.clear();
+            }
+            cached = resolveOwner(damager, 0);
+            if (!(damager instanceof Tameable) || cached.source() == Source.PET) {
+                ownerCache.put(damager, cached);
+            }
+        }
+
+        Player owner = cached.ownerId() != null ? server.getPlayer(cached.ownerId()) : null;
+        if (cached.ownerId() != null && owner == null) {
+            return new Attribution(null, Source.UNKNOWN);
+        }
+        return new Attribution(owner, cached.source());
+    }
+
+    /**
+     * Checks whether an entity deals damage on behalf of another entity.
+     *
+     * @param entity the entity
+     * @return true for projectiles, pets, TNT, area effect clouds and evoker fangs
+     */
+    private boolean isIndirect(Entity entity) {
+        return entity instanceof Projectile || entity instanceof Tameable || entity instanceof TNTPrimed
+                || entity instanceof AreaEffectCloud || entity instanceof EvokerFangs;
+    }
+
+    /**
+     * Walks from an indirect source to the entity responsible for it.
+     *
+     * @param entity the indirect source
+     * @param depth  the number of hops already taken, bounding chains such as TNT lit by a flaming arrow
+     * @return the resolved owner
+     */
+    private CachedOwner resolveOwner(Entity entity, int depth) {
+        if (entity instanceof Player player) {
+            return new CachedOwner(player.getUniqueId(), Source.DIRECT);
+        }
+        if (depth >= MAX_DEPTH || entity == null) {
+            return new CachedOwner(null, Source.UNKNOWN);
+        }
+
+        if (entity instanceof Projectile projectile) {
+            return withSource(resolveShooter(projectile.getShooter(), depth), Source.PROJECTILE);
+        }
+        if (entity instanceof AreaEffectCloud cloud) {
+            return withSource(resolveShooter(cloud.getSource(), depth), Source.PROJECTILE);
+        }
+        if (entity instanceof Tameable tameable && tameable.isTamed()) {
+            AnimalTamer tamer = tameable.getOwner();
+            return tamer != null ? new CachedOwner(tamer.getUniqueId(), Source.PET) : new CachedOwner(null, Source.UNKNOWN);
+        }
+        if (entity instanceof TNTPrimed tnt) {
+            return withSource(resolveOwner(tnt.getSource(), depth + 1), Source.EXPLOSIVE);
+        }
+        if (entity instanceof EvokerFangs fangs) {
+            return resolveOwner(fangs.getOwner(), depth + 1);
+        }
+        return new CachedOwner(null, entity instanceof LivingEntity ? Source.MOB : Source.UNKNOWN);
+    }
+
+    /**
+     * Resolves a projectile source, which may be an entity or a block such as a dispenser.
+     *
+     * @param shooter the projectile source
+     * @param depth   the number of hops already taken
+     * @return the resolved owner
+     */
+    private CachedOwner resolveShooter(ProjectileSource shooter, int depth) {
+        return shooter instanceof Entity entity ? resolveOwner(entity, depth + 1) : new CachedOwner(null, Source.UNKNOWN);
+    }
+
+    /**
+     * Credits a resolved player with the given source, keeping mob and unknown results as they are.
+     *
+     * @param owner  the resolved owner
+     * @param source the source to credit a player with
+     * @return the owner with its source adjusted
+     */
+    private CachedOwner withSource(CachedOwner owner, Source source) {
+        return owner.ownerId() != null ? new CachedOwner(owner.ownerId(), source) : owner;
+    }
+}
\ No newline at end of file
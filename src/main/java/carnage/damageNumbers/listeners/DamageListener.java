@@ -2,42 +2,81 @@ package carnage.damageNumbers.listeners;
 
 import carnage.damageNumbers.DamageNumberHandler;
 import carnage.damageNumbers.DamageNumbers;
+import carnage.damageNumbers.HealthBarHandler;
 import carnage.damageNumbers.ParticleHandler;
+import carnage.damageNumbers.SoundHandler;
+import carnage.damageNumbers.debug.TraceBuffer;
+import carnage.damageNumbers.journal.DamageJournal;
+import carnage.damageNumbers.packet.HologramPacketSink;
+import carnage.damageNumbers.preferences.PlayerPreferences;
+import carnage.damageNumbers.profile.Visibility;
+import carnage.damageNumbers.profile.WorldProfile;
+import carnage.damageNumbers.util.CooldownMap;
 import org.bukkit.Location;
-import org.bukkit.Sound;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.Tameable;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityRegainHealthEvent;
 
+import java.util.EnumSet;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * Listens for healing events and displays healing holograms with particles.
+ * Players always show healing; other living entities do unless their type is filtered out, within a server-wide
+ * per-tick budget so mass mob regeneration cannot flood viewers. Where a number is shown and to whom is resolved
+ * again when it is displayed, so stacked numbers follow the entity and skip players who have since left.
  */
 public class DamageListener implements Listener {
-    private static final String CONFIG_HEALING_ENABLED = "triggers.healing";
     private static final String CONFIG_HEALING_COOLDOWN = "healing.cooldown-ms";
     private static final String CONFIG_HEALING_DELAY = "advanced.healing-delay-ticks";
-    private static final String CONFIG_HEALING_SOUND = "advanced.sounds.healing";
-    private static final String CONFIG_VISIBILITY_MODE = "healing.visibility";
-    private static final String CONFIG_VIEW_RANGE = "healing.view-range";
+    private static final String CONFIG_ENTITIES = "healing.entities";
+    private static final String CONFIG_IGNORED_TYPES = "healing.ignored-entity-types";
+    private static final String CONFIG_MAX_ENTITY_HEALS = "healing.max-entity-heals-per-tick";
+    private static final long MILLIS_PER_TICK = 50;
+    private static final int COOLDOWN_SWEEP_TICKS = 20;
 
     private final DamageNumbers plugin;
     private final DamageNumberHandler damageNumberHandler;
     private final ParticleHandler particleHandler;
-    private final Map<UUID, Long> lastHealTimes;
+    private final SoundHandler soundHandler;
+    private final HealthBarHandler healthBars;
+    private final CooldownMap healCooldowns;
+    private final TrackedViewers trackedViewers;
+    private final AtomicInteger entityHealsThisTick;
+    private volatile long budgetTick;
+    private volatile Settings settings;
 
-    public DamageListener(DamageNumbers plugin, DamageNumberHandler damageNumberHandler, ParticleHandler particleHandler) {
+    /**
+     * The healing settings for non-player entities, replaced as a whole on reload.
+     *
+     * @param entitiesEnabled    whether entities other than players show healing
+     * @param ignoredTypes       the entity types that never show healing
+     * @param maxEntityHealsTick the most non-player heals accepted per tick across the server
+     */
+    private record Settings(boolean entitiesEnabled, Set<EntityType> ignoredTypes, int maxEntityHealsTick) {
+    }
+
+    public DamageListener(DamageNumbers plugin, DamageNumberHandler damageNumberHandler, ParticleHandler particleHandler, SoundHandler soundHandler,
+                          HealthBarHandler healthBars) {
         this.plugin = plugin;
         this.damageNumberHandler = damageNumberHandler;
         this.particleHandler = particleHandler;
-        this.lastHealTimes = new ConcurrentHashMap<>();
+        this.soundHandler = soundHandler;
+        this.healthBars = healthBars;
+        this.healCooldowns = new CooldownMap();
+        this.trackedViewers = new TrackedViewers();
+        this.entityHealsThisTick = new AtomicInteger();
+        reload();
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
         plugin.getPluginLogger().info("DamageListener registered for healing events");
     }
@@ -49,118 +88,229 @@ public class DamageListener implements Listener {
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEntityRegainHealth(EntityRegainHealthEvent event) {
-        if (!(event.getEntity() instanceof Player player)) {
+        if (!(event.getEntity() instanceof LivingEntity healed)) {
             return;
         }
 
-        if (!isHealingEnabled()) {
+        Settings current = settings;
+        boolean isPlayer = healed instanceof Player;
+        if (!isPlayer && (!current.entitiesEnabled() || current.ignoredTypes().contains(healed.getType()))) {
             return;
         }
 
-        if (isOnCooldown(player.getUniqueId())) {
-            plugin.getPluginLogger().fine("Healing display skipped for " + player.getName() + " due to cooldown");
+        WorldProfile profile = plugin.getWorldProfiles().profileFor(healed.getWorld());
+        if (!profile.healingEnabled()) {
             return;
         }
 
-        handleHealing(player, event.getAmount());
+        if (isOnCooldown(healed.getUniqueId())) {
+            if (plugin.isDebugEnabled()) {
+                plugin.getTraceBuffer().record(TraceBuffer.Event.COOLDOWN_SKIP, healed.getEntityId(), healed.getEntityId(), event.getAmount(), false);
+            }
+            return;
+        }
+
+        if (!isPlayer && !tryAcquireBudget(current)) {
+            if (plugin.isDebugEnabled()) {
+                plugin.getTraceBuffer().record(TraceBuffer.Event.BUDGET_SKIP, healed.getEntityId(), healed.getEntityId(), event.getAmount(), false);
+            }
+            return;
+        }
+
+        handleHealing(healed, event.getAmount(), profile);
     }
 
     /**
-     * Checks if healing holograms are enabled in the configuration.
+     * Reloads the entity healing settings.
+     */
+    public void reload() {
+        FileConfiguration config = plugin.getConfig();
+        Set<EntityType> ignoredTypes = EnumSet.noneOf(EntityType.class);
+        for (String typeName : config.getStringList(CONFIG_IGNORED_TYPES)) {
+            try {
+                ignoredTypes.add(EntityType.valueOf(typeName.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                plugin.getPluginLogger().warning("Invalid entity type in " + CONFIG_IGNORED_TYPES + ": " + typeName);
+            }
+        }
+        this.settings = new Settings(
+                config.getBoolean(CONFIG_ENTITIES, true),
+                ignoredTypes,
+                Math.max(0, config.getInt(CONFIG_MAX_ENTITY_HEALS, 20))
+        );
+    }
+
+    /**
+     * Checks if the entity is on cooldown for healing holograms.
      *
-     * @return true if healing holograms are enabled
+     * @param entityId the entity's UUID
+     * @return true if the entity is on cooldown
      */
-    private boolean isHealingEnabled() {
-        return plugin.getConfig().getBoolean(CONFIG_HEALING_ENABLED, true);
+    private boolean isOnCooldown(UUID entityId) {
+        return !healCooldowns.tryAcquire(entityId, System.currentTimeMillis(), plugin.getConfig().getLong(CONFIG_HEALING_COOLDOWN, 50));
     }
 
     /**
-     * Checks if the player is on cooldown for healing holograms.
+     * Takes one non-player heal from the current tick's budget. The first heal of each tick resets the budget,
+     * and once a second also drops cooldown entries that have expired, so entities that healed once are not kept.
      *
-     * @param playerId the player's UUID
-     * @return true if the player is on cooldown
+     * @param current the current settings
+     * @return true if the heal fits in the budget
      */
-    private boolean isOnCooldown(UUID playerId) {
-        long currentTime = System.currentTimeMillis();
-        long cooldownMs = plugin.getConfig().getLong(CONFIG_HEALING_COOLDOWN, 50);
-        Long lastHealTime = lastHealTimes.getOrDefault(playerId, 0L);
-        if (currentTime - lastHealTime < cooldownMs) {
-            return true;
+    private boolean tryAcquireBudget(Settings current) {
+        long tick = System.currentTimeMillis() / MILLIS_PER_TICK;
+        if (budgetTick != tick) {
+            synchronized (entityHealsThisTick) {
+                if (budgetTick != tick) {
+                    entityHealsThisTick.set(0);
+                    budgetTick = tick;
+                    if (tick % COOLDOWN_SWEEP_TICKS == 0) {
+                        healCooldowns.sweep(tick * MILLIS_PER_TICK, plugin.getConfig().getLong(CONFIG_HEALING_COOLDOWN, 50));
+                    }
+                }
+            }
         }
-        lastHealTimes.put(playerId, currentTime);
-        return false;
+        return entityHealsThisTick.incrementAndGet() <= current.maxEntityHealsTick();
     }
 
     /**
      * Handles the healing event by scheduling hologram and particle display.
      *
-     * @param player the healed player
-     * @param amount the amount of health regained
+     * @param healed  the healed entity
+     * @param amount  the amount of health regained
+     * @param profile the profile of the entity's world
      */
-    private void handleHealing(Player player, double amount) {
-        plugin.getPluginLogger().info("Healing event: " + player.getName() + " regained " + amount + " health, reason: " + amount);
-        Set<Player> viewers = getViewers(player);
-        int delayTicks = plugin.getConfig().getInt(CONFIG_HEALING_DELAY, 0);
+    private void handleHealing(LivingEntity healed, double amount, WorldProfile profile) {
+        if (plugin.isDebugEnabled()) {
+            plugin.getTraceBuffer().record(TraceBuffer.Event.HEALING, healed.getEntityId(), healed.getEntityId(), amount, false);
+        }
+        Set<Player> viewers = getViewers(healed, profile);
+        recordHealing(healed, amount, viewers.size());
+        healthBars.markChanged(healed, healed.getHealth() + amount, viewers);
+        scheduleHealingDisplay(healed, amount, viewers,
+                () -> getViewers(healed, plugin.getWorldProfiles().profileFor(healed.getWorld())));
+    }
 
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            damageNumberHandler.displayHealingHologram(player, getHologramLocation(player), amount, viewers);
-            viewers.forEach(viewer -> particleHandler.spawnHealingParticles(viewer, getHologramLocation(player)));
-            playHealingSound(viewers, player.getLocation());
-            plugin.getPluginLogger().fine("Healing hologram shown to " + viewers.size() + " viewers for " + player.getName());
-        }, delayTicks);
+    /**
+     * Appends an accepted healing event to the damage journal, if recording is enabled.
+     *
+     * @param healed      the healed entity
+     * @param amount      the amount of health regained
+     * @param viewerCount the number of viewers
+     */
+    private void recordHealing(LivingEntity healed, double amount, int viewerCount) {
+        DamageJournal journal = plugin.getDamageJournal();
+        if (journal == null) {
+            return;
+        }
+        Location location = getHologramLocation(healed);
+        journal.record(plugin.getServer().getCurrentTick(), healed.getUniqueId(), healed.getUniqueId(),
+                location.getX(), location.getY(), location.getZ(), amount, false, true, viewerCount);
     }
 
     /**
-     * Gets the location for hologram display, offset above the player.
+     * Injects a synthetic healing event, bypassing the trigger toggle and cooldown.
+     * Used by the stress test to drive the stacking, display and animation pipeline.
      *
-     * @param player the player
-     * @return the hologram location
+     * @param player  the healed player
+     * @param amount  the amount of health regained
+     * @param viewers the players to see the hologram
      */
-    private Location getHologramLocation(Player player) {
-        return player.getLocation().add(0, 0.8, 0);
+    public void injectHealing(Player player, double amount, Set<Player> viewers) {
+        scheduleHealingDisplay(player, amount, viewers, () -> viewers);
     }
 
     /**
-     * Plays the configured healing sound to viewers.
+     * Schedules the healing hologram, particles and sound for the viewers who have not turned healing numbers off.
+     * Particles and sound go to the viewers of the event; the hologram's viewers and location are resolved again
+     * when it is shown, which with stacking is when the stack flushes.
      *
-     * @param viewers  the players to hear the sound
-     * @param location the sound location
+     * @param healed         the healed entity
+     * @param amount         the amount of health regained
+     * @param viewers        the players to see the event
+     * @param viewerResolver supplies the players to see the hologram when it is shown
      */
-    private void playHealingSound(Set<Player> viewers, Location location) {
-        String soundName = plugin.getConfig().getString(CONFIG_HEALING_SOUND, "");
-        if (soundName.isEmpty()) {
-            return;
-        }
+    private void scheduleHealingDisplay(LivingEntity healed, double amount, Set<Player> viewers, Supplier<Set<Player>> viewerResolver) {
+        int delayTicks = plugin.getConfig().getInt(CONFIG_HEALING_DELAY, 0);
 
-        try {
-            Sound sound = Sound.valueOf(soundName.toUpperCase());
-            float volume = (float) plugin.getConfig().getDouble("advanced.sounds.volume", 0.5);
-            float pitch = (float) plugin.getConfig().getDouble("advanced.sounds.pitch", 1.0);
-            viewers.forEach(viewer -> viewer.playSound(location, sound, volume, pitch));
-        } catch (IllegalArgumentException e) {
-            plugin.getPluginLogger().warning("Invalid sound name: " + soundName);
-        }
+        plugin.getPluginScheduler().runForEntity(healed, () -> {
+            PlayerPreferences preferences = plugin.getPlayerPreferences();
+            Set<Player> wanting = preferences.filterHealing(viewers, healed.getEntityId());
+            if (wanting.isEmpty()) {
+                return;
+            }
+            Location location = getHologramLocation(healed);
+            HologramPacketSink packetSink = damageNumberHandler.getPacketSink();
+            wanting.forEach(packetSink::beginBundle);
+            damageNumberHandler.displayHealingHologram(healed, amount, () -> getHologramLocation(healed),
+                    () -> preferences.filterHealing(viewerResolver.get(), healed.getEntityId()));
+            particleHandler.spawnHealingParticles(wanting, location);
+            soundHandler.playHealingSound(wanting, healed.getLocation());
+            wanting.forEach(packetSink::endBundle);
+        }, delayTicks);
+    }
+
+    /**
+     * Gets the location for hologram display, offset above the entity.
+     *
+     * @param healed the healed entity
+     * @return the hologram location
+     */
+    private Location getHologramLocation(LivingEntity healed) {
+        return healed.getLocation().add(0, 0.8, 0);
     }
 
     /**
-     * Gets the set of players who should see the hologram.
+     * Gets the set of players who should see the hologram. The visibility mode applies to the healed player, or to
+     * the owner of a healed pet; other entities are shown to every player in range, or to their trackers.
+     * On a regionized server every player in range is read from the healed entity's trackers, since the locations of
+     * players in other regions may not be read from its thread.
      *
-     * @param healer the healed player
+     * @param healed  the healed entity
+     * @param profile the profile of the healed entity's world
      * @return the set of viewers
      */
-    private Set<Player> getViewers(Player healer) {
+    private Set<Player> getViewers(LivingEntity healed, WorldProfile profile) {
+        Visibility visibility = profile.healingVisibility();
+        if (visibility == Visibility.TRACKED) {
+            return trackedViewers.get(healed, profile.healingViewRange());
+        }
+        Player subject = getSubject(healed);
+        if (subject == null) {
+            visibility = Visibility.EVERYONE;
+        }
+
         Set<Player> viewers = new HashSet<>();
-        String visibilityMode = plugin.getConfig().getString(CONFIG_VISIBILITY_MODE, "healer").toLowerCase();
-        double viewRange = plugin.getConfig().getDouble(CONFIG_VIEW_RANGE, 32.0);
+        if (visibility == Visibility.SELF || (visibility == Visibility.PARTY && !plugin.getPartyIndex().hasParty(subject))) {
+            viewers.add(subject);
+            return viewers;
+        }
 
-        if ("everyone".equals(visibilityMode)) {
-            healer.getWorld().getPlayers().stream()
-                    .filter(nearby -> nearby.getLocation().distanceSquared(healer.getLocation()) <= viewRange * viewRange)
-                    .forEach(viewers::add);
+        double viewRange = profile.healingViewRange();
+        if (plugin.getPluginScheduler().isRegionized()) {
+            viewers.addAll(trackedViewers.get(healed, viewRange));
         } else {
-            viewers.add(healer);
+            Location location = healed.getLocation();
+            healed.getWorld().getPlayers().stream()
+                    .filter(nearby -> nearby.getLocation().distanceSquared(location) <= viewRange * viewRange)
+                    .forEach(viewers::add);
         }
+        return visibility == Visibility.PARTY ? plugin.getPartyIndex().selectParty(viewers, subject) : viewers;
+    }
 
-        return viewers;
+    /**
+     * Gets the player a heal is about: the healed player, or the online owner of a healed pet.
+     *
+     * @param healed the healed entity
+     * @return the player, or null for entities nobody owns
+     */
+    private Player getSubject(LivingEntity healed) {
+        if (healed instanceof Player player) {
+            return player;
+        }
+        if (healed instanceof Tameable tameable && tameable.getOwner() instanceof Player owner && owner.isOnline()) {
+            return owner;
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,261 @@
+package carnage.damageNumbers.listeners;
+
+import carnage.damageNumbers.DamageNumberHandler;
+import carnage.damageNumbers.DamageNumbers;
+import carnage.damageNumbers.profile.WorldProfile;
+import carnage.damageNumbers.scheduler.PluginScheduler;
+import org.bukkit.Location;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityDamageEvent.DamageCause;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregates damage-over-time ticks (poison, wither, fire and other non-entity causes) per target and cause,
+ * and emits one merged number per target and cause each interval. A target's first DoT tick in an interval opens a
+ * primitive row of totals by cause column and schedules its flush on the thread owning the target, so a tick of DoT
+ * costs a map lookup and an add, and on a regionized server every target is flushed by its own region. Rows are kept
+ * in a concurrent map keyed by the entity itself, whose hash and equality are its entity ID, so lookups do not box.
+ * Viewers are selected like a hit on the target, by the world's damage visibility and view range and each player's
+ * toggles, and the number of holograms shown per interval is capped across the server regardless of how many entities
+ * are burning.
+ */
+public class DotAggregator implements Listener {
+    private static final String CONFIG_ENABLED = "dot.enabled";
+    private static final String CONFIG_INTERVAL = "dot.interval-ticks";
+    private static final String CONFIG_MAX_HOLOGRAMS = "dot.max-holograms-per-interval";
+    private static final String CONFIG_LIFETIME = "dot.lifetime";
+    private static final String CONFIG_CAUSES = "dot.causes";
+    private static final String CONFIG_IGNORE_INVISIBLE = "triggers.ignore-invisible";
+    private static final String CONFIG_IGNORED_TYPES = "triggers.ignored-entity-types";
+    private static final long MILLIS_PER_TICK = 50;
+
+    private final DamageNumbers plugin;
+    private final DamageNumberHandler damageNumberHandler;
+    private final PacketListener packetListener;
+    private final PluginScheduler scheduler;
+    private final Map<Entity, Row> rowsByEntity;
+    private final AtomicInteger hologramsThisInterval;
+    private final LongAdder droppedNumbers;
+    private volatile long budgetInterval;
+    private volatile Settings settings;
+
+    /**
+     * The aggregation settings, replaced as a whole on reload.
+     *
+     * @param enabled         whether damage-over-time numbers are shown
+     * @param intervalTicks   the ticks between a target's first DoT tick and its merged numbers
+     * @param maxHolograms    the most merged numbers shown per interval across the server
+     * @param lifetime        the lifetime of merged numbers in ticks
+     * @param ignoreInvisible whether invisible targets are skipped
+     * @param ignoredTypes    the entity types that never show DoT numbers
+     * @param columnsByCause  the table column of each damage cause by ordinal, or -1 if not aggregated
+     * @param causeFormats    the legacy-coded format of each column
+     */
+    private record Settings(boolean enabled, int intervalTicks, int maxHolograms, int lifetime, boolean ignoreInvisible,
+                            Set<EntityType> ignoredTypes, int[] columnsByCause, String[] causeFormats) {
+    }
+
+    /**
+     * One target's totals for the current interval, by cause column. Totals are only written inside
+     * {@code rowsByEntity.compute} and only read by the flush after it removed the row from the map, so every
+     * access is ordered by the map's per-key lock. The row keeps the settings it was opened with, so a reload
+     * that remaps the columns never misreads live totals.
+     */
+    private static final class Row {
+        private final Settings settings;
+        private final double[] totals;
+
+        Row(Settings settings) {
+            this.settings = settings;
+            this.totals = new double[settings.causeFormats().length];
+        }
+    }
+
+    public DotAggregator(DamageNumbers plugin, DamageNumberHandler damageNumberHandler, PacketListener packetListener) {
+        this.plugin = plugin;
+        this.damageNumberHandler = damageNumberHandler;
+        this.packetListener = packetListener;
+        this.scheduler = plugin.getPluginScheduler();
+        this.rowsByEntity = new ConcurrentHashMap<>();
+        this.hologramsThisInterval = new AtomicInteger();
+        this.droppedNumbers = new LongAdder();
+        reload();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        plugin.getPluginLogger().info("DotAggregator registered for " + settings.causeFormats().length + " damage-over-time causes");
+    }
+
+    /**
+     * Accumulates a damage-over-time tick for its target and cause, opening the target's row and scheduling its
+     * flush on the first tick of an interval. Entity attacks are left to {@link PacketListener}.
+     *
+     * @param event the entity damage event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onEntityDamage(EntityDamageEvent event) {
+        Settings current = settings;
+        if (!current.enabled() || event instanceof EntityDamageByEntityEvent) {
+            return;
+        }
+
+        int causeOrdinal = event.getCause().ordinal();
+        if (current.columnsByCause()[causeOrdinal] < 0) {
+            return;
+        }
+
+        Entity target = event.getEntity();
+        if (current.ignoredTypes().contains(target.getType())
+                || (current.ignoreInvisible() && target instanceof LivingEntity living && living.isInvisible())) {
+            return;
+        }
+
+        double damage = event.getFinalDamage();
+        if (damage <= 0) {
+            return;
+        }
+
+        Row[] opened = new Row[1];
+        rowsByEntity.compute(target, (entity, row) -> {
+            if (row == null) {
+                row = new Row(current);
+                opened[0] = row;
+            }
+            int column = row.settings.columnsByCause()[causeOrdinal];
+            if (column >= 0) {
+                row.totals[column] += damage;
+            }
+            return row;
+        });
+
+        // Scheduled outside compute, since a retired target's callback may run immediately and remove the row
+        Row row = opened[0];
+        if (row != null) {
+            scheduler.runForEntity(target, () -> flush(target, row), () -> rowsByEntity.remove(target, row), current.intervalTicks());
+        }
+    }
+
+    /**
+     * Gets the number of aggregated numbers dropped because an interval exceeded its hologram cap.
+     *
+     * @return the dropped number count
+     */
+    public long getDroppedNumbers() {
+        return droppedNumbers.sum();
+    }
+
+    /**
+     * Re-reads the configured causes and filters. Rows already open keep the settings they were opened with.
+     */
+    public void reload() {
+        FileConfiguration config = plugin.getConfig();
+        Set<EntityType> ignoredTypes = EnumSet.noneOf(EntityType.class);
+        for (String typeName : config.getStringList(CONFIG_IGNORED_TYPES)) {
+            try {
+                ignoredTypes.add(EntityType.valueOf(typeName.toUpperCase()));
+            } catch (IllegalArgumentException e) {
+                plugin.getPluginLogger().warning("Invalid entity type in " + CONFIG_IGNORED_TYPES + ": " + typeName);
+            }
+        }
+
+        int[] columnsByCause = new int[DamageCause.values().length];
+        Arrays.fill(columnsByCause, -1);
+        String[] formats = new String[columnsByCause.length];
+        int columns = 0;
+        ConfigurationSection causes = config.getConfigurationSection(CONFIG_CAUSES);
+        if (causes != null) {
+            for (String causeName : causes.getKeys(false)) {
+                try {
+                    DamageCause cause = DamageCause.valueOf(causeName.toUpperCase());
+                    if (columnsByCause[cause.ordinal()] < 0) {
+                        columnsByCause[cause.ordinal()] = columns;
+                        formats[columns++] = causes.getString(causeName, "&7%s");
+                    }
+                } catch (IllegalArgumentException e) {
+                    plugin.getPluginLogger().warning("Invalid damage cause in " + CONFIG_CAUSES + ": " + causeName);
+                }
+            }
+        }
+
+        this.settings = new Settings(
+                config.getBoolean(CONFIG_ENABLED, true),
+                Math.max(1, config.getInt(CONFIG_INTERVAL, 20)),
+                Math.max(0, config.getInt(CONFIG_MAX_HOLOGRAMS, 40)),
+                config.getInt(CONFIG_LIFETIME, 30),
+                config.getBoolean(CONFIG_IGNORE_INVISIBLE, true),
+                ignoredTypes,
+                columnsByCause,
+                Arrays.copyOf(formats, columns)
+        );
+    }
+
+    /**
+     * Emits one hologram per cause with accumulated damage on a target at its current position, up to the interval's
+     * hologram cap. Targets nobody can see do not spend the cap. Runs on the thread owning the target, where its
+     * position and viewers can be read.
+     *
+     * @param target the damaged entity
+     * @param row    the row opened for the target this interval
+     */
+    private void flush(Entity target, Row row) {
+        if (!rowsByEntity.remove(target, row)) {
+            return;
+        }
+
+        WorldProfile profile = plugin.getWorldProfiles().profileFor(target.getWorld());
+        Set<Player> viewers = plugin.getPlayerPreferences().filterDamage(packetListener.getTargetViewers(target, profile),
+                target.getEntityId(), target.getEntityId(), false);
+        if (viewers.isEmpty()) {
+            return;
+        }
+
+        Location location = target.getLocation().add(0, 0.8, 0);
+        String[] formats = row.settings.causeFormats();
+        for (int column = 0; column < formats.length; column++) {
+            double total = row.totals[column];
+            if (total <= 0) {
+                continue;
+            }
+            if (!tryAcquireBudget(row.settings)) {
+                droppedNumbers.increment();
+                continue;
+            }
+            damageNumberHandler.displayFormattedHologram(target.getEntityId(), location, formats[column], total, row.settings.lifetime(), viewers);
+        }
+    }
+
+    /**
+     * Takes one merged number from the current interval's budget. The first number of each interval resets the budget.
+     * Intervals are counted in wall-clock ticks, so every region thread agrees on the current one.
+     *
+     * @param current the settings of the row being flushed
+     * @return true if the number fits in the budget
+     */
+    private boolean tryAcquireBudget(Settings current) {
+        long interval = System.currentTimeMillis() / MILLIS_PER_TICK / current.intervalTicks();
+        if (budgetInterval != interval) {
+            synchronized (hologramsThisInterval) {
+                if (budgetInterval != interval) {
+                    hologramsThisInterval.set(0);
+                    budgetInterval = interval;
+                }
+            }
+        }
+        return hologramsThisInterval.incrementAndGet() <= current.maxHolograms();
+    }
+}
@@ -2,12 +2,26 @@ package carnage.damageNumbers.listeners;
 
 import carnage.damageNumbers.DamageNumberHandler;
 import carnage.damageNumbers.DamageNumbers;
+import carnage.damageNumbers.DpsMeter;
+import carnage.damageNumbers.HealthBarHandler;
 import carnage.damageNumbers.ParticleHandler;
+import carnage.damageNumbers.SoundHandler;
+import carnage.damageNumbers.debug.TraceBuffer;
+import carnage.damageNumbers.journal.DamageJournal;
+import carnage.damageNumbers.packet.HologramPacketSink;
+import carnage.damageNumbers.party.PartyIndex;
+import carnage.damageNumbers.preferences.PlayerPreferences;
+import carnage.damageNumbers.profile.Visibility;
+import carnage.damageNumbers.profile.WorldProfile;
+import carnage.damageNumbers.scheduler.PluginScheduler;
+import carnage.damageNumbers.scheduler.TaskHandle;
+import carnage.damageNumbers.util.CooldownMap;
+import carnage.damageNumbers.util.LongIndexMap;
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketListenerAbstract;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import org.bukkit.Location;
-import org.bukkit.Sound;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.Player;
@@ -25,31 +39,50 @@ import java.util.concurrent.ConcurrentHashMap;
 public class PacketListener extends PacketListenerAbstract implements Listener {
     private static final String CONFIG_COOLDOWN = "cooldown-ms";
     private static final String CONFIG_STACKING_ENABLED = "advanced.stacking.enabled";
+    private static final String CONFIG_STACKING_MODE = "advanced.stacking.mode";
     private static final String CONFIG_STACKING_WINDOW = "advanced.stacking.window-ms";
     private static final String CONFIG_STACKING_DELAY = "advanced.stacking.delay-ticks";
     private static final String CONFIG_DELAY_TICKS = "advanced.delay-ticks";
-    private static final String CONFIG_VISIBILITY_MODE = "display.visibility";
-    private static final String CONFIG_VIEW_RANGE = "display.view-range";
     private static final String CONFIG_PVP_ENABLED = "triggers.player-vs-player";
     private static final String CONFIG_PVM_ENABLED = "triggers.player-vs-mob";
     private static final String CONFIG_MVP_ENABLED = "triggers.mob-vs-player";
+    private static final String CONFIG_PROJECTILES_ENABLED = "triggers.projectiles";
+    private static final String CONFIG_PETS_ENABLED = "triggers.pets";
+    private static final String CONFIG_EXPLOSIVES_ENABLED = "triggers.explosives";
     private static final String CONFIG_IGNORE_INVISIBLE = "triggers.ignore-invisible";
     private static final String CONFIG_IGNORED_TYPES = "triggers.ignored-entity-types";
-    private static final String CONFIG_SOUND_NORMAL = "advanced.sounds.normal";
-    private static final String CONFIG_SOUND_CRITICAL = "advanced.sounds.critical";
+    private static final String STACKING_DELAYED = "delayed";
+    private static final String STACKING_MERGE = "merge";
 
     private final DamageNumbers plugin;
     private final DamageNumberHandler damageNumberHandler;
     private final ParticleHandler particleHandler;
-    private final Map<UUID, Long> lastDisplayTimes;
+    private final SoundHandler soundHandler;
+    private final DpsMeter dpsMeter;
+    private final HealthBarHandler healthBars;
+    private final PluginScheduler scheduler;
+    private final DamageAttribution attribution;
+    private final CooldownMap displayCooldowns;
+    private final TrackedViewers trackedViewers;
     private final Map<String, DamageStack> damageStacks;
+    private final LongIndexMap batchIndexBySource;
+    private final List<HitBatch> pendingBatches;
 
-    public PacketListener(DamageNumbers plugin, DamageNumberHandler damageNumberHandler, ParticleHandler particleHandler) {
+    public PacketListener(DamageNumbers plugin, DamageNumberHandler damageNumberHandler, ParticleHandler particleHandler, SoundHandler soundHandler,
+                          DpsMeter dpsMeter, HealthBarHandler healthBars) {
         this.plugin = plugin;
         this.damageNumberHandler = damageNumberHandler;
         this.particleHandler = particleHandler;
-        this.lastDisplayTimes = new ConcurrentHashMap<>();
+        this.soundHandler = soundHandler;
+        this.dpsMeter = dpsMeter;
+        this.healthBars = healthBars;
+        this.scheduler = plugin.getPluginScheduler();
+        this.attribution = new DamageAttribution(plugin.getServer());
+        this.displayCooldowns = new CooldownMap();
+        this.trackedViewers = new TrackedViewers();
         this.damageStacks = new ConcurrentHashMap<>();
+        this.batchIndexBySource = new LongIndexMap(16);
+        this.pendingBatches = new ArrayList<>();
         PacketEvents.getAPI().getEventManager().registerListener(this);
         plugin.getServer().getPluginManager().registerEvents(this, plugin);
         plugin.getPluginLogger().info("PacketListener initialized with PacketEvents " + PacketEvents.getAPI().getVersion());
@@ -57,21 +90,46 @@ public class PacketListener extends PacketListenerAbstract implements Listener {
 
     /**
      * Inner class to manage stacked damage data.
+     * Fields are only written inside {@code damageStacks.compute} and only read by the flush after it removed the
+     * stack from the map, so every access is ordered by the map's per-key lock.
      */
     private static class DamageStack {
         private double totalDamage;
         private long lastUpdateTime;
-        private int taskId;
+        private TaskHandle task;
         private boolean hasCritical;
 
         DamageStack(double damage, long time, boolean critical) {
             this.totalDamage = damage;
             this.lastUpdateTime = time;
-            this.taskId = -1;
             this.hasCritical = critical;
         }
     }
 
+    /**
+     * A single accepted hit waiting in a batch.
+     *
+     * @param damager     the player credited with the hit, or the victim of a mob attack
+     * @param target      the target entity
+     * @param damage      the damage amount
+     * @param isCritical  whether the hit is critical
+     * @param healthAfter the target's health once the hit is applied, read when the event fired, or NaN for non-living targets
+     */
+    private record Hit(Player damager, Entity target, double damage, boolean isCritical, double healthAfter) {
+    }
+
+    /**
+     * Hits dealt by one damaging entity within one tick, such as a sweep attack or an explosion.
+     */
+    private static class HitBatch {
+        private final List<Hit> hits;
+        private boolean onCooldown;
+
+        HitBatch() {
+            this.hits = new ArrayList<>(4);
+        }
+    }
+
     @Override
     public void onPacketReceive(PacketReceiveEvent event) {
         // No packet receive logic implemented
@@ -79,38 +137,85 @@ public class PacketListener extends PacketListenerAbstract implements Listener {
 
     /**
      * Handles entity damage events to display damage holograms and particles.
+     * Indirect damage is credited to the player behind it; mob attacks on players are shown to the victim.
+     * On a regionized server there is no common tick end to flush batches at, so each hit is handled on its own.
      *
      * @param event the entity damage event
      */
     @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
     public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
-        Player damager = getDamager(event.getDamager());
+        DamageAttribution.Attribution source = attribution.resolve(event.getDamager());
         Entity target = event.getEntity();
 
-        if (!shouldShowDamage(damager, target)) {
+        if (!shouldShowDamage(source, target)) {
             return;
         }
 
-        if (damager == null) {
+        Player damager = source.player() != null ? source.player() : (Player) target;
+        boolean onCooldown;
+        HitBatch batch = null;
+        if (scheduler.isRegionized()) {
+            onCooldown = isOnCooldown(damager.getUniqueId());
+        } else {
+            batch = getBatch(event.getDamager(), damager);
+            onCooldown = batch.onCooldown;
+        }
+        if (onCooldown) {
+            if (plugin.isDebugEnabled()) {
+                plugin.getTraceBuffer().record(TraceBuffer.Event.COOLDOWN_SKIP, damager.getEntityId(), target.getEntityId(), event.getFinalDamage(), false);
+            }
             return;
         }
 
-        if (isOnCooldown(damager.getUniqueId())) {
-            plugin.getPluginLogger().fine("Damage display skipped for " + damager.getName() + " due to cooldown");
-            return;
+        boolean isCritical = source.source() == DamageAttribution.Source.DIRECT && isCriticalHit(damager);
+        double healthAfter = target instanceof LivingEntity living ? living.getHealth() - event.getFinalDamage() : Double.NaN;
+        Hit hit = new Hit(damager, target, event.getFinalDamage(), isCritical, healthAfter);
+        if (batch != null) {
+            batch.hits.add(hit);
+        } else {
+            handleBatch(List.of(hit));
         }
+    }
 
-        handleDamage(damager, target, event.getFinalDamage(), isCriticalHit(damager));
+    /**
+     * Flushes the hits batched during this tick.
+     *
+     * @param event the server tick end event
+     */
+    @EventHandler
+    public void onServerTickEnd(ServerTickEndEvent event) {
+        if (pendingBatches.isEmpty()) {
+            return;
+        }
+        for (HitBatch batch : pendingBatches) {
+            if (!batch.hits.isEmpty()) {
+                handleBatch(batch.hits);
+            }
+        }
+        pendingBatches.clear();
+        batchIndexBySource.clear();
     }
 
     /**
-     * Gets the damager as a Player, if applicable.
+     * Gets this tick's batch for a damaging entity, creating it on the first hit.
+     * Only the first hit of a batch is checked against the cooldown; the rest of the batch shares its result,
+     * so a sweep or explosion shows every victim instead of only the first.
      *
-     * @param damager the damaging entity
-     * @return the Player damager, or null if not a player
+     * @param source  the damaging entity from the event
+     * @param damager the player credited with the hit
+     * @return the batch
      */
-    private Player getDamager(Entity damager) {
-        return damager instanceof Player ? (Player) damager : null;
+    private HitBatch getBatch(Entity source, Player damager) {
+        int index = batchIndexBySource.get(source.getEntityId());
+        if (index != LongIndexMap.MISSING) {
+            return pendingBatches.get(index);
+        }
+
+        HitBatch batch = new HitBatch();
+        batch.onCooldown = isOnCooldown(damager.getUniqueId());
+        batchIndexBySource.put(source.getEntityId(), pendingBatches.size());
+        pendingBatches.add(batch);
+        return batch;
     }
 
     /**
@@ -126,12 +231,13 @@ public class PacketListener extends PacketListenerAbstract implements Listener {
     /**
      * Checks if the damage hologram should be shown based on configuration.
      *
-     * @param damager the damaging player, or null
-     * @param target  the target entity
+     * @param source the resolved damage source
+     * @param target the target entity
      * @return true if the hologram should be shown
      */
-    private boolean shouldShowDamage(Player damager, Entity target) {
-        if (damager == null && !(target instanceof Player)) {
+    private boolean shouldShowDamage(DamageAttribution.Attribution source, Entity target) {
+        Player damager = source.player();
+        if (damager == null && !(source.source() == DamageAttribution.Source.MOB && target instanceof Player)) {
             return false;
         }
 
@@ -143,7 +249,11 @@ public class PacketListener extends PacketListenerAbstract implements Listener {
             return false;
         }
 
-        if (damager == null && target instanceof Player && !plugin.getConfig().getBoolean(CONFIG_MVP_ENABLED, false)) {
+        if (damager == null && !plugin.getConfig().getBoolean(CONFIG_MVP_ENABLED, false)) {
+            return false;
+        }
+
+        if (!isSourceEnabled(source.source())) {
             return false;
         }
 
@@ -154,6 +264,21 @@ public class PacketListener extends PacketListenerAbstract implements Listener {
         return !plugin.getConfig().getStringList(CONFIG_IGNORED_TYPES).contains(target.getType().name());
     }
 
+    /**
+     * Checks the trigger toggle for indirect damage sources.
+     *
+     * @param source how the damage was dealt
+     * @return true if holograms are enabled for the source
+     */
+    private boolean isSourceEnabled(DamageAttribution.Source source) {
+        return switch (source) {
+            case PROJECTILE -> plugin.getConfig().getBoolean(CONFIG_PROJECTILES_ENABLED, true);
+            case PET -> plugin.getConfig().getBoolean(CONFIG_PETS_ENABLED, true);
+            case EXPLOSIVE -> plugin.getConfig().getBoolean(CONFIG_EXPLOSIVES_ENABLED, true);
+            default -> true;
+        };
+    }
+
     /**
      * Checks if the player is on cooldown for damage holograms.
      *
@@ -161,50 +286,234 @@ public class PacketListener extends PacketListenerAbstract implements Listener {
      * @return true if the player is on cooldown
      */
     private boolean isOnCooldown(UUID playerId) {
-        long currentTime = System.currentTimeMillis();
-        long cooldownMs = plugin.getConfig().getLong(CONFIG_COOLDOWN, 50);
-        Long lastDisplayTime = lastDisplayTimes.getOrDefault(playerId, 0L);
-        if (currentTime - lastDisplayTime < cooldownMs) {
-            return true;
+        return !displayCooldowns.tryAcquire(playerId, System.currentTimeMillis(), plugin.getConfig().getLong(CONFIG_COOLDOWN, 50));
+    }
+
+    /**
+     * Handles a batch of hits from one source: computes the viewers once for the whole batch from the profile
+     * of the world it happened in, feeds player hits to the DPS meter and health bars, then stacks each hit or displays them together.
+     *
+     * @param hits the hits in the batch
+     */
+    private void handleBatch(List<Hit> hits) {
+        WorldProfile profile = plugin.getWorldProfiles().profileFor(hits.get(0).target().getWorld());
+        boolean everyone = profile.damageVisibility() != Visibility.SELF;
+        Set<Player> viewers = selectViewers(hits, profile);
+
+        boolean debug = plugin.isDebugEnabled();
+        for (Hit hit : hits) {
+            if (debug) {
+                plugin.getTraceBuffer().record(TraceBuffer.Event.DAMAGE, hit.damager().getEntityId(), hit.target().getEntityId(), hit.damage(), hit.isCritical());
+            }
+            recordDamage(hit.damager(), hit.target(), hit.damage(), hit.isCritical(), everyone ? viewers.size() : 1);
+            if (hit.damager() != hit.target()) {
+                dpsMeter.recordHit(hit.damager(), hit.damage());
+            }
+            if (healthBars.isEnabled() && hit.target() instanceof LivingEntity living) {
+                healthBars.markChanged(living, hit.healthAfter(), everyone ? viewers : Set.of(hit.damager()));
+            }
+        }
+
+        String stackingMode = getStackingMode();
+        if (STACKING_DELAYED.equals(stackingMode)) {
+            for (Hit hit : hits) {
+                handleStackedDamage(hit.damager(), hit.target(), hit.damage(), hit.isCritical(), everyone ? viewers : Set.of(hit.damager()));
+            }
+        } else if (hits.size() == 1) {
+            Hit hit = hits.get(0);
+            scheduleDamageDisplay(hit.damager(), hit.target(), hit.damage(), hit.isCritical(), viewers, STACKING_MERGE.equals(stackingMode));
+        } else {
+            scheduleBatchDisplay(hits, viewers, everyone, STACKING_MERGE.equals(stackingMode));
+        }
+    }
+
+    /**
+     * Selects the viewers of a batch by the damage visibility and view range of the world it happened in.
+     *
+     * @param hits    the hits in the batch
+     * @param profile the profile of the batch's world
+     * @return the set of viewers
+     */
+    private Set<Player> selectViewers(List<Hit> hits, WorldProfile profile) {
+        return switch (profile.damageVisibility()) {
+            case EVERYONE -> getBatchViewers(hits, profile.damageViewRange());
+            case PARTY -> getPartyViewers(hits, profile.damageViewRange());
+            case TRACKED -> getTrackedViewers(hits, profile.damageViewRange());
+            case SELF -> getDamagers(hits);
+        };
+    }
+
+    /**
+     * Selects the viewers of damage no player dealt, such as damage over time, the same way as a hit on the target:
+     * a player target is treated as hit by itself, like a mob attack on a player. A target that is not a player has
+     * no one to limit the number to, so it is shown to its trackers in tracked mode and to everyone in range otherwise.
+     * On a regionized server everyone in range is read from the target's trackers, since the locations of players in
+     * other regions may not be read from the target's thread. Must be called from the thread owning the target.
+     *
+     * @param target  the damaged entity
+     * @param profile the profile of the target's world
+     * @return the set of viewers
+     */
+    Set<Player> getTargetViewers(Entity target, WorldProfile profile) {
+        if (target instanceof Player player) {
+            return selectViewers(List.of(new Hit(player, player, 0.0, false, Double.NaN)), profile);
+        }
+        if (profile.damageVisibility() == Visibility.TRACKED || scheduler.isRegionized()) {
+            return trackedViewers.get(target, profile.damageViewRange());
+        }
+
+        Set<Player> viewers = new HashSet<>();
+        Location location = target.getLocation();
+        double rangeSquared = profile.damageViewRange() * profile.damageViewRange();
+        for (Player player : target.getWorld().getPlayers()) {
+            if (player.getLocation().distanceSquared(location) <= rangeSquared) {
+                viewers.add(player);
+            }
         }
-        lastDisplayTimes.put(playerId, currentTime);
-        return false;
+        return viewers;
     }
 
     /**
-     * Handles the damage event, either stacking or displaying immediately.
+     * Appends an accepted damage event to the damage journal, if recording is enabled.
+     *
+     * @param damager     the damaging player
+     * @param target      the target entity
+     * @param damage      the damage amount
+     * @param isCritical  whether the hit is critical
+     * @param viewerCount the number of viewers
+     */
+    private void recordDamage(Player damager, Entity target, double damage, boolean isCritical, int viewerCount) {
+        DamageJournal journal = plugin.getDamageJournal();
+        if (journal == null) {
+            return;
+        }
+        Location location = getHologramLocation(target);
+        journal.record(plugin.getServer().getCurrentTick(), damager.getUniqueId(), target.getUniqueId(),
+                location.getX(), location.getY(), location.getZ(), damage, isCritical, false, viewerCount);
+    }
+
+    /**
+     * Injects a synthetic damage event, bypassing trigger filters and cooldowns.
+     * Used by the stress test to drive the stacking, display and animation pipeline.
      *
      * @param damager    the damaging player
      * @param target     the target entity
      * @param damage     the damage amount
      * @param isCritical whether the hit is critical
+     * @param viewers    the players to see the hologram
      */
-    private void handleDamage(Player damager, Entity target, double damage, boolean isCritical) {
-        plugin.getPluginLogger().info("Damage event: " + damager.getName() + " dealt " + damage + " to " + target.getType() + ", Critical: " + isCritical + ", FallDistance: " + damager.getFallDistance() + ", VelocityY: " + damager.getVelocity().getY());
-        Set<Player> viewers = getViewers(damager, target);
+    public void injectDamage(Player damager, Entity target, double damage, boolean isCritical, Set<Player> viewers) {
+        dispatchDamage(damager, target, damage, isCritical, viewers);
+    }
 
-        if (plugin.getConfig().getBoolean(CONFIG_STACKING_ENABLED, false)) {
+    /**
+     * Routes a damage event to stacking or immediate display.
+     *
+     * @param damager    the damaging player
+     * @param target     the target entity
+     * @param damage     the damage amount
+     * @param isCritical whether the hit is critical
+     * @param viewers    the players to see the hologram
+     */
+    private void dispatchDamage(Player damager, Entity target, double damage, boolean isCritical, Set<Player> viewers) {
+        String stackingMode = getStackingMode();
+        if (STACKING_DELAYED.equals(stackingMode)) {
             handleStackedDamage(damager, target, damage, isCritical, viewers);
         } else {
-            scheduleDamageDisplay(damager, target, damage, isCritical, viewers);
+            scheduleDamageDisplay(damager, target, damage, isCritical, viewers, STACKING_MERGE.equals(stackingMode));
+        }
+    }
+
+    /**
+     * Gets the active stacking mode.
+     *
+     * @return {@link #STACKING_DELAYED}, {@link #STACKING_MERGE}, or null when stacking is disabled
+     */
+    private String getStackingMode() {
+        if (!plugin.getConfig().getBoolean(CONFIG_STACKING_ENABLED, false)) {
+            return null;
+        }
+        return STACKING_MERGE.equalsIgnoreCase(plugin.getConfig().getString(CONFIG_STACKING_MODE, STACKING_DELAYED)) ? STACKING_MERGE : STACKING_DELAYED;
+    }
+
+    /**
+     * Displays one hit, either as a new hologram or merged into the damager's live number on the target.
+     *
+     * @param damager    the player credited with the hit
+     * @param target     the target entity
+     * @param damage     the damage amount
+     * @param isCritical whether the hit is critical
+     * @param viewers    the players to see the hologram
+     * @param merge      whether to merge into a live number
+     */
+    private void displayHit(Player damager, Entity target, double damage, boolean isCritical, Set<Player> viewers, boolean merge) {
+        Location location = getHologramLocation(target);
+        if (merge) {
+            long mergeKey = ((long) damager.getEntityId() << 32) | (target.getEntityId() & 0xFFFFFFFFL);
+            damageNumberHandler.displayMergedDamageHologram(mergeKey, target.getEntityId(), location, damage, isCritical, viewers);
+        } else {
+            damageNumberHandler.displayDamageHologram(target.getEntityId(), location, damage, isCritical, viewers);
         }
     }
 
     /**
-     * Schedules a damage hologram and particle display.
+     * Schedules a damage hologram, particles and sound in one bundle per viewer, skipping viewers who turned the number off.
      *
      * @param damager    the damaging player
      * @param target     the target entity
      * @param damage     the damage amount
      * @param isCritical whether the hit is critical
      * @param viewers    the players to see the hologram
+     * @param merge      whether to merge into the damager's live number on the target
+     */
+    private void scheduleDamageDisplay(Player damager, Entity target, double damage, boolean isCritical, Set<Player> viewers, boolean merge) {
+        int delayTicks = plugin.getConfig().getInt(CONFIG_DELAY_TICKS, 0);
+        scheduler.runForEntity(target, () -> {
+            Set<Player> wanting = plugin.getPlayerPreferences().filterDamage(viewers, damager.getEntityId(), target.getEntityId(), isCritical);
+            if (wanting.isEmpty()) {
+                return;
+            }
+            HologramPacketSink packetSink = damageNumberHandler.getPacketSink();
+            wanting.forEach(packetSink::beginBundle);
+            displayHit(damager, target, damage, isCritical, wanting, merge);
+            particleHandler.spawnHitParticles(wanting, target.getLocation(), isCritical);
+            soundHandler.playDamageSound(wanting, target.getLocation(), isCritical);
+            wanting.forEach(packetSink::endBundle);
+        }, delayTicks);
+    }
+
+    /**
+     * Schedules the holograms, particles and sound for a batch, sending each viewer's packets in a single bundle.
+     * Every viewer's bundle is opened before the first spawn and closed after the last, so each
+     * hologram is placed once and spawned to all of its viewers.
+     *
+     * @param hits     the hits in the batch
+     * @param viewers  the players who see the batch
+     * @param everyone whether every viewer sees every hit, or only the hits they are credited with
+     * @param merge    whether to merge hits into live numbers
      */
-    private void scheduleDamageDisplay(Player damager, Entity target, double damage, boolean isCritical, Set<Player> viewers) {
+    private void scheduleBatchDisplay(List<Hit> hits, Set<Player> viewers, boolean everyone, boolean merge) {
         int delayTicks = plugin.getConfig().getInt(CONFIG_DELAY_TICKS, 0);
-        plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            damageNumberHandler.displayDamageHologram(damager, getHologramLocation(target), damage, isCritical, viewers);
-            particleHandler.spawnHitParticles(damager, target.getLocation(), isCritical);
-            playDamageSound(viewers, target.getLocation(), isCritical);
+        scheduler.runForEntity(hits.get(0).target(), () -> {
+            HologramPacketSink packetSink = damageNumberHandler.getPacketSink();
+            viewers.forEach(packetSink::beginBundle);
+
+            PlayerPreferences preferences = plugin.getPlayerPreferences();
+            Set<Player> listeners = new HashSet<>();
+            boolean anyCritical = false;
+            for (Hit hit : hits) {
+                Set<Player> hitViewers = preferences.filterDamage(everyone ? viewers : Set.of(hit.damager()),
+                        hit.damager().getEntityId(), hit.target().getEntityId(), hit.isCritical());
+                if (hitViewers.isEmpty()) {
+                    continue;
+                }
+                displayHit(hit.damager(), hit.target(), hit.damage(), hit.isCritical(), hitViewers, merge);
+                particleHandler.spawnHitParticles(hitViewers, hit.target().getLocation(), hit.isCritical());
+                listeners.addAll(hitViewers);
+                anyCritical |= hit.isCritical();
+            }
+            soundHandler.playDamageSound(listeners, hits.get(0).target().getLocation(), anyCritical);
+            viewers.forEach(packetSink::endBundle);
         }, delayTicks);
     }
 
@@ -221,31 +530,42 @@ public class PacketListener extends PacketListenerAbstract implements Listener {
         long currentTime = System.currentTimeMillis();
         String stackKey = damager.getUniqueId() + ":" + target.getUniqueId();
         long stackWindow = plugin.getConfig().getLong(CONFIG_STACKING_WINDOW, 300);
-
-        DamageStack stack = damageStacks.computeIfAbsent(stackKey, k -> new DamageStack(damage, currentTime, isCritical));
-
-        if (currentTime - stack.lastUpdateTime < stackWindow) {
-            stack.totalDamage += damage;
-            stack.lastUpdateTime = currentTime;
-            if (isCritical) {
-                stack.hasCritical = true;
+        int stackDelay = plugin.getConfig().getInt(CONFIG_STACKING_DELAY, 5);
+
+        damageStacks.compute(stackKey, (key, stack) -> {
+            if (stack == null) {
+                stack = new DamageStack(damage, currentTime, isCritical);
+            } else {
+                stack.task.cancel();
+                if (currentTime - stack.lastUpdateTime < stackWindow) {
+                    stack.totalDamage += damage;
+                    stack.hasCritical |= isCritical;
+                } else {
+                    stack.totalDamage = damage;
+                    stack.hasCritical = isCritical;
+                }
+                stack.lastUpdateTime = currentTime;
             }
 
-            if (stack.taskId != -1) {
-                plugin.getServer().getScheduler().cancelTask(stack.taskId);
-            }
-        } else {
-            stack.totalDamage = damage;
-            stack.lastUpdateTime = currentTime;
-            stack.hasCritical = isCritical;
-        }
-
-        stack.taskId = plugin.getServer().getScheduler().runTaskLater(plugin, () -> {
-            damageNumberHandler.displayDamageHologram(damager, getHologramLocation(target), stack.totalDamage, stack.hasCritical, viewers);
-            particleHandler.spawnHitParticles(damager, target.getLocation(), stack.hasCritical);
-            playDamageSound(viewers, target.getLocation(), stack.hasCritical);
-            damageStacks.remove(stackKey);
-        }, plugin.getConfig().getInt(CONFIG_STACKING_DELAY, 5)).getTaskId();
+            DamageStack scheduled = stack;
+            scheduled.task = scheduler.runForEntity(target, () -> {
+                if (!damageStacks.remove(stackKey, scheduled)) {
+                    return;
+                }
+                Set<Player> wanting = plugin.getPlayerPreferences().filterDamage(viewers, damager.getEntityId(), target.getEntityId(), scheduled.hasCritical);
+                if (wanting.isEmpty()) {
+                    return;
+                }
+                Location location = getHologramLocation(target);
+                HologramPacketSink packetSink = damageNumberHandler.getPacketSink();
+                wanting.forEach(packetSink::beginBundle);
+                damageNumberHandler.displayDamageHologram(target.getEntityId(), location, scheduled.totalDamage, scheduled.hasCritical, wanting);
+                particleHandler.spawnHitParticles(wanting, target.getLocation(), scheduled.hasCritical);
+                soundHandler.playDamageSound(wanting, target.getLocation(), scheduled.hasCritical);
+                wanting.forEach(packetSink::endBundle);
+            }, stackDelay);
+            return stack;
+        });
     }
 
     /**
@@ -259,48 +579,114 @@ public class PacketListener extends PacketListenerAbstract implements Listener {
     }
 
     /**
-     * Plays the configured sound for damage events.
+     * Gets the players within view range of the bounding box around every target in a batch.
+     * On a regionized server the players in range of each target are read from its trackers instead, since the
+     * locations of players in other regions may not be read from the target's thread.
      *
-     * @param viewers    the players to hear the sound
-     * @param location   the sound location
-     * @param isCritical whether the hit is critical
+     * @param hits      the hits in the batch
+     * @param viewRange the maximum distance from the bounding box
+     * @return the set of viewers
      */
-    private void playDamageSound(Set<Player> viewers, Location location, boolean isCritical) {
-        String soundName = isCritical ? plugin.getConfig().getString(CONFIG_SOUND_CRITICAL, "") : plugin.getConfig().getString(CONFIG_SOUND_NORMAL, "");
-        if (soundName.isEmpty()) {
-            return;
+    private Set<Player> getBatchViewers(List<Hit> hits, double viewRange) {
+        if (scheduler.isRegionized()) {
+            return getTrackedViewers(hits, viewRange);
+        }
+
+        Entity first = hits.get(0).target();
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+        for (Hit hit : hits) {
+            Location location = hit.target().getLocation();
+            minX = Math.min(minX, location.getX());
+            minY = Math.min(minY, location.getY());
+            minZ = Math.min(minZ, location.getZ());
+            maxX = Math.max(maxX, location.getX());
+            maxY = Math.max(maxY, location.getY());
+            maxZ = Math.max(maxZ, location.getZ());
         }
 
-        try {
-            Sound sound = Sound.valueOf(soundName.toUpperCase());
-            float volume = (float) plugin.getConfig().getDouble("advanced.sounds.volume", 0.5);
-            float pitch = (float) plugin.getConfig().getDouble("advanced.sounds.pitch", 1.0);
-            viewers.forEach(viewer -> viewer.playSound(location, sound, volume, pitch));
-        } catch (IllegalArgumentException e) {
-            plugin.getPluginLogger().warning("Invalid sound name: " + soundName);
+        Set<Player> viewers = new HashSet<>();
+        for (Player player : first.getWorld().getPlayers()) {
+            Location location = player.getLocation();
+            double dx = Math.max(0, Math.max(minX - location.getX(), location.getX() - maxX));
+            double dy = Math.max(0, Math.max(minY - location.getY(), location.getY() - maxY));
+            double dz = Math.max(0, Math.max(minZ - location.getZ(), location.getZ() - maxZ));
+            if (dx * dx + dy * dy + dz * dz <= viewRange * viewRange) {
+                viewers.add(player);
+            }
         }
+        return viewers;
     }
 
     /**
-     * Gets the set of players who should see the hologram.
+     * Gets the players in range who share a party with a player credited with a hit in the batch, and the credited
+     * players themselves. The spatial scan is skipped when no credited player is in a party.
      *
-     * @param damager the damaging player
-     * @param target  the target entity
+     * @param hits      the hits in the batch
+     * @param viewRange the maximum distance from the bounding box
      * @return the set of viewers
      */
-    private Set<Player> getViewers(Player damager, Entity target) {
-        Set<Player> viewers = new HashSet<>();
-        String visibilityMode = plugin.getConfig().getString(CONFIG_VISIBILITY_MODE, "damager").toLowerCase();
-        double viewRange = plugin.getConfig().getDouble(CONFIG_VIEW_RANGE, 32.0);
+    private Set<Player> getPartyViewers(List<Hit> hits, double viewRange) {
+        PartyIndex partyIndex = plugin.getPartyIndex();
+        Set<Player> damagers = getDamagers(hits);
+        Set<Player> viewers = null;
+        Set<Player> candidates = null;
+        for (Player damager : damagers) {
+            if (!partyIndex.hasParty(damager)) {
+                continue;
+            }
+            if (candidates == null) {
+                candidates = getBatchViewers(hits, viewRange);
+                viewers = new HashSet<>(damagers);
+            }
+            viewers.addAll(partyIndex.selectParty(candidates, damager));
+        }
+        return viewers != null ? viewers : damagers;
+    }
 
-        if ("everyone".equals(visibilityMode)) {
-            target.getWorld().getPlayers().stream()
-                    .filter(nearby -> nearby.getLocation().distanceSquared(target.getLocation()) <= viewRange * viewRange)
-                    .forEach(viewers::add);
-        } else {
-            viewers.add(damager);
+    /**
+     * Gets the players tracking any target in the batch within view range, and the players credited with the hits.
+     * A batch with a single target returns that target's cached viewers when every credited player is among them.
+     *
+     * @param hits      the hits in the batch
+     * @param viewRange the maximum distance from each target
+     * @return the set of viewers
+     */
+    private Set<Player> getTrackedViewers(List<Hit> hits, double viewRange) {
+        Entity first = hits.get(0).target();
+        Set<Player> firstViewers = trackedViewers.get(first, viewRange);
+        boolean covered = true;
+        for (Hit hit : hits) {
+            if (hit.target() != first || !firstViewers.contains(hit.damager())) {
+                covered = false;
+                break;
+            }
+        }
+        if (covered) {
+            return firstViewers;
         }
 
+        Set<Player> viewers = new HashSet<>(firstViewers);
+        for (Hit hit : hits) {
+            if (hit.target() != first) {
+                viewers.addAll(trackedViewers.get(hit.target(), viewRange));
+            }
+            viewers.add(hit.damager());
+        }
         return viewers;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the players credited with the hits in a batch.
+     *
+     * @param hits the hits in the batch
+     * @return the set of credited players
+     */
+    private Set<Player> getDamagers(List<Hit> hits) {
+        Set<Player> damagers = new HashSet<>();
+        for (Hit hit : hits) {
+            damagers.add(hit.damager());
+        }
+        return damagers;
+    }
+}
@@ -0,0 +1,93 @@
+package carnage.damageNumbers.listeners;
+
+import carnage.damageNumbers.util.LongIndexMap;
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the viewers of a number from the players the server is actually tracking its target for, the exact set
+ * of clients that have the entity spawned, capped by the view range. Only trackers are distance-checked, instead of
+ * every player in the world. Results are cached per target for the current tick, so a burst of hits on one mob
+ * resolves its viewers once. Each thread keeps its own cache, since a target's events always arrive on the thread
+ * owning it, so lookups take no locks; a thread's cache is cleared the first time it is used in a new tick.
+ */
+class TrackedViewers {
+    private static final long MILLIS_PER_TICK = 50;
+
+    private final ThreadLocal<Cache> caches;
+
+    /**
+     * One thread's cached viewer sets for the current tick, by target entity ID.
+     */
+    private static final class Cache {
+        private final LongIndexMap slotsByEntityId;
+        private final List<Set<Player>> viewers;
+        private long tick;
+
+        Cache() {
+            this.slotsByEntityId = new LongIndexMap(16);
+            this.viewers = new ArrayList<>();
+            this.tick = -1;
+        }
+    }
+
+    TrackedViewers() {
+        this.caches = ThreadLocal.withInitial(Cache::new);
+    }
+
+    /**
+     * Gets the players tracking a target within the view range, plus the target itself if it is a player.
+     * Must be called from the thread owning the target.
+     *
+     * @param target    the damaged or healed entity
+     * @param viewRange the maximum distance from the target
+     * @return the viewers, shared with other callers this tick and not to be modified
+     */
+    Set<Player> get(Entity target, double viewRange) {
+        Cache cache = caches.get();
+        long tick = System.currentTimeMillis() / MILLIS_PER_TICK;
+        if (cache.tick != tick) {
+            cache.slotsByEntityId.clear();
+            cache.viewers.clear();
+            cache.tick = tick;
+        }
+
+        int slot = cache.slotsByEntityId.get(target.getEntityId());
+        if (slot != LongIndexMap.MISSING) {
+            return cache.viewers.get(slot);
+        }
+        Set<Player> viewers = resolve(target, viewRange);
+        cache.slotsByEntityId.put(target.getEntityId(), cache.viewers.size());
+        cache.viewers.add(viewers);
+        return viewers;
+    }
+
+    /**
+     * Reads a target's trackers and keeps those within range.
+     *
+     * @param target    the target entity
+     * @param viewRange the maximum distance from the target
+     * @return the viewers
+     */
+    private static Set<Player> resolve(Entity target, double viewRange) {
+        Set<Player> viewers = new HashSet<>();
+        Location location = target.getLocation();
+        double rangeSquared = viewRange * viewRange;
+        for (Player tracker : target.getTrackedBy()) {
+            if (tracker.getWorld() == location.getWorld() && tracker.getLocation().distanceSquared(location) <= rangeSquared) {
+                viewers.add(tracker);
+            }
+        }
+        if (target instanceof Player player) {
+            viewers.add(player);
+        }
+        return Collections.unmodifiableSet(viewers);
+    }
+}
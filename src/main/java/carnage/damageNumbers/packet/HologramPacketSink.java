@@ -0,0 +1,121 @@
+package carnage.damageNumbers.packet;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+/**
+ * Destination for the client-side hologram packets produced by the damage number pipeline.
+ */
+public interface HologramPacketSink {
+
+    /**
+     * Spawns a text display hologram for a viewer.
+     *
+     * @param viewer   the player viewing the hologram
+     * @param entityId the client-side entity ID
+     * @param x        the spawn X coordinate
+     * @param y        the spawn Y coordinate
+     * @param z        the spawn Z coordinate
+     * @param text     the hologram text
+     */
+    void spawn(Player viewer, int entityId, double x, double y, double z, Component text);
+
+    /**
+     * Moves an existing hologram for a viewer.
+     *
+     * @param viewer   the player viewing the hologram
+     * @param entityId the client-side entity ID
+     * @param x        the new X coordinate
+     * @param y        the new Y coordinate
+     * @param z        the new Z coordinate
+     * @param yaw      the new yaw in degrees
+     */
+    void teleport(Player viewer, int entityId, double x, double y, double z, float yaw);
+
+    /**
+     * Seats a hologram on an entity for a viewer, so the client moves it with the entity without further packets.
+     *
+     * @param viewer    the player viewing the hologram
+     * @param vehicleId the entity ID of the entity to ride
+     * @param entityId  the client-side entity ID of the hologram
+     */
+    void mount(Player viewer, int vehicleId, int entityId);
+
+    /**
+     * Removes a hologram from a viewer's client.
+     *
+     * @param viewer   the player viewing the hologram
+     * @param entityId the client-side entity ID
+     */
+    void destroy(Player viewer, int entityId);
+
+    /**
+     * Replaces the text of an existing hologram and sets its scale immediately, without interpolation.
+     *
+     * @param viewer   the player viewing the hologram
+     * @param entityId the client-side entity ID
+     * @param text     the new hologram text
+     * @param scale    the uniform scale
+     */
+    void updateText(Player viewer, int entityId, Component text, float scale);
+
+    /**
+     * Interpolates an existing hologram to a uniform scale.
+     *
+     * @param viewer             the player viewing the hologram
+     * @param entityId           the client-side entity ID
+     * @param scale              the target scale
+     * @param interpolationTicks the interpolation duration in ticks
+     */
+    void updateScale(Player viewer, int entityId, float scale, int interpolationTicks);
+
+    /**
+     * Sends a particle burst to a viewer.
+     *
+     * @param viewer the player seeing the particles
+     * @param effect the resolved particle effect
+     * @param x      the X coordinate
+     * @param y      the Y coordinate, before the effect's height offset
+     * @param z      the Z coordinate
+     */
+    void particles(Player viewer, ParticleEffect effect, double x, double y, double z);
+
+    /**
+     * Plays a sound to a viewer.
+     *
+     * @param viewer the player hearing the sound
+     * @param effect the resolved sound effect
+     * @param x      the X coordinate
+     * @param y      the Y coordinate
+     * @param z      the Z coordinate
+     */
+    void sound(Player viewer, SoundEffect effect, double x, double y, double z);
+
+    /**
+     * Opens a bundle for a viewer. Packets sent to the viewer until {@link #endBundle(Player)}
+     * are applied by the client together, in the same frame.
+     *
+     * @param viewer the player receiving the bundle
+     */
+    void beginBundle(Player viewer);
+
+    /**
+     * Closes a bundle opened with {@link #beginBundle(Player)}.
+     *
+     * @param viewer the player receiving the bundle
+     */
+    void endBundle(Player viewer);
+
+    /**
+     * Re-reads any display settings the sink resolved from the configuration. Does nothing by default.
+     */
+    default void reload() {
+    }
+
+    /**
+     * Gets the total number of packets written through this sink.
+     *
+     * @return the packet count
+     */
+    long packetsSent();
+}
\ No newline at end of file
@@ -0,0 +1,147 @@
+package carnage.damageNumbers.packet;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.util.Vector3f;
+import net.kyori.adventure.text.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * TEXT_DISPLAY metadata indices and precomputed static entries for one protocol layout.
+ * Packets are encoded for the server's protocol and translated per client by ViaVersion when installed,
+ * so the layout is resolved once from the server version. The static entries (entity flags, billboard,
+ * background and text flags) are shared by every hologram; only the text, and for updates the scale,
+ * are filled per packet.
+ */
+final class MetadataTemplate {
+    static final byte BILLBOARD_FIXED = 0;
+    static final byte BILLBOARD_VERTICAL = 1;
+    static final byte BILLBOARD_HORIZONTAL = 2;
+    static final byte BILLBOARD_CENTER = 3;
+
+    private static final int ENTITY_FLAGS_INDEX = 0;
+    private static final int INTERPOLATION_DELAY_INDEX = 8;
+    private static final int TRANSFORMATION_DURATION_INDEX = 9;
+    private static final int SCALE_INDEX_1_19_4 = 11;
+    private static final int BILLBOARD_INDEX_1_19_4 = 14;
+    private static final int TEXT_INDEX_1_19_4 = 22;
+    private static final int BACKGROUND_INDEX_1_19_4 = 24;
+    private static final int TEXT_FLAGS_INDEX_1_19_4 = 26;
+    private static final byte INVISIBLE_FLAG = 0x20;
+    private static final int TRANSPARENT_BACKGROUND = 0x40000000;
+    private static final byte SHADOW_AND_SEE_THROUGH = 0x03;
+
+    private final int textIndex;
+    private final int scaleIndex;
+    private final List<EntityData<?>> staticEntries;
+
+    /**
+     * Creates a template.
+     *
+     * @param shift     the index shift of display fields after the 1.20.2 teleport duration field, 0 or 1
+     * @param billboard the billboard constraint shared by every hologram
+     */
+    private MetadataTemplate(int shift, byte billboard) {
+        this.textIndex = TEXT_INDEX_1_19_4 + shift;
+        this.scaleIndex = SCALE_INDEX_1_19_4 + shift;
+        this.staticEntries = List.of(
+                new EntityData<>(ENTITY_FLAGS_INDEX, EntityDataTypes.BYTE, INVISIBLE_FLAG),
+                new EntityData<>(BILLBOARD_INDEX_1_19_4 + shift, EntityDataTypes.BYTE, billboard),
+                new EntityData<>(BACKGROUND_INDEX_1_19_4 + shift, EntityDataTypes.INT, TRANSPARENT_BACKGROUND),
+                new EntityData<>(TEXT_FLAGS_INDEX_1_19_4 + shift, EntityDataTypes.BYTE, SHADOW_AND_SEE_THROUGH)
+        );
+    }
+
+    /**
+     * Resolves the template for the server's protocol version.
+     *
+     * @param serverVersion the server version packets are encoded for
+     * @param billboard     the billboard constraint shared by every hologram
+     * @return the template, or null if the server predates text displays
+     */
+    static MetadataTemplate resolve(ServerVersion serverVersion, byte billboard) {
+        if (serverVersion.isOlderThan(ServerVersion.V_1_19_4)) {
+            return null;
+        }
+        return new MetadataTemplate(serverVersion.isNewerThanOrEquals(ServerVersion.V_1_20_2) ? 1 : 0, billboard);
+    }
+
+    /**
+     * Checks whether a client can display text displays at all.
+     *
+     * @param clientVersion the client's version
+     * @return true for 1.19.4 and newer clients
+     */
+    static boolean supports(ClientVersion clientVersion) {
+        return clientVersion == null || clientVersion.isNewerThanOrEquals(ClientVersion.V_1_19_4);
+    }
+
+    /**
+     * Parses a billboard constraint name.
+     *
+     * @param name the name: fixed, vertical, horizontal or center
+     * @return the billboard constraint, center if unknown
+     */
+    static byte parseBillboard(String name) {
+        return switch (name == null ? "" : name.toLowerCase(Locale.ROOT)) {
+            case "fixed" -> BILLBOARD_FIXED;
+            case "vertical" -> BILLBOARD_VERTICAL;
+            case "horizontal" -> BILLBOARD_HORIZONTAL;
+            default -> BILLBOARD_CENTER;
+        };
+    }
+
+    /**
+     * Creates a text entry to be reused and refilled for every spawn or update on one thread.
+     *
+     * @return the text entry
+     */
+    EntityData<Component> newTextEntry() {
+        return new EntityData<>(textIndex, EntityDataTypes.ADV_COMPONENT, Component.empty());
+    }
+
+    /**
+     * Creates a scale entry to be reused and refilled for every update on one thread.
+     *
+     * @return the scale entry
+     */
+    EntityData<Vector3f> newScaleEntry() {
+        return new EntityData<>(scaleIndex, EntityDataTypes.VECTOR3F, new Vector3f(1.0f, 1.0f, 1.0f));
+    }
+
+    /**
+     * Creates an interpolation delay entry, always 0 so transformations start on receipt.
+     *
+     * @return the interpolation delay entry
+     */
+    EntityData<Integer> newInterpolationDelayEntry() {
+        return new EntityData<>(INTERPOLATION_DELAY_INDEX, EntityDataTypes.INT, 0);
+    }
+
+    /**
+     * Creates a transformation interpolation duration entry to be reused and refilled for every update on one thread.
+     *
+     * @return the interpolation duration entry
+     */
+    EntityData<Integer> newInterpolationDurationEntry() {
+        return new EntityData<>(TRANSFORMATION_DURATION_INDEX, EntityDataTypes.INT, 0);
+    }
+
+    /**
+     * Builds the full spawn metadata list: the shared static entries followed by a per-thread text entry.
+     *
+     * @param text the per-thread text entry
+     * @return a list to be reused for every spawn on one thread
+     */
+    List<EntityData<?>> spawnEntries(EntityData<Component> text) {
+        List<EntityData<?>> entries = new ArrayList<>(staticEntries.size() + 1);
+        entries.addAll(staticEntries);
+        entries.add(text);
+        return entries;
+    }
+}
\ No newline at end of file
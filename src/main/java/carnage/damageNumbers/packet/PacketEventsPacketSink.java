@@ -0,0 +1,449 @@
+package carnage.damageNumbers.packet;
+
+import carnage.damageNumbers.DamageNumbers;
+import carnage.damageNumbers.debug.TraceBuffer;
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.protocol.particle.Particle;
+import com.github.retrooper.packetevents.protocol.particle.type.ParticleTypes;
+import com.github.retrooper.packetevents.protocol.sound.SoundCategory;
+import com.github.retrooper.packetevents.util.Vector3d;
+import com.github.retrooper.packetevents.util.Vector3f;
+import com.github.retrooper.packetevents.util.Vector3i;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBundle;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerParticle;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSetPassengers;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSoundEffect;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends hologram packets to live clients through PacketEvents.
+ * Teleport and metadata wrappers are reused per thread and mutated before each send;
+ * PacketEvents encodes a wrapper synchronously, so reuse is safe once {@code sendPacket} returns.
+ * PacketEvents vectors are immutable, so the teleport sent for every animation frame encodes its position
+ * from primitive fields, and particle positions and scales reuse the last vector built when the same value
+ * is sent again, as it is to each viewer of one burst or animation.
+ * Metadata indices come from a {@link MetadataTemplate} resolved for the server's protocol version, and again on reload;
+ * clients too old to render text displays receive no hologram packets at all.
+ */
+public class PacketEventsPacketSink implements HologramPacketSink {
+    private static final long HOLOGRAM_UUID_MOST_BITS = 0x444E484F4C4F0000L;
+    private static final String CONFIG_BILLBOARD = "display.billboard";
+    private static final WrapperPlayServerBundle BUNDLE_DELIMITER = new WrapperPlayServerBundle();
+
+    private final DamageNumbers plugin;
+    private final LongAdder packetsSent;
+    private volatile MetadataTemplate template;
+    private final ThreadLocal<ReusablePackets> reusablePackets;
+
+    public PacketEventsPacketSink(DamageNumbers plugin) {
+        this.plugin = plugin;
+        this.packetsSent = new LongAdder();
+        this.template = resolveTemplate();
+        if (template == null) {
+            plugin.getPluginLogger().warning("Server version predates text displays; damage numbers will not be shown");
+        }
+        this.reusablePackets = ThreadLocal.withInitial(() -> new ReusablePackets(template));
+    }
+
+    /**
+     * Resolves the metadata template for the server version and the configured billboard.
+     *
+     * @return the template, or null if the server predates text displays
+     */
+    private MetadataTemplate resolveTemplate() {
+        return MetadataTemplate.resolve(
+                PacketEvents.getAPI().getServerManager().getVersion(),
+                MetadataTemplate.parseBillboard(plugin.getConfig().getString(CONFIG_BILLBOARD, "fixed"))
+        );
+    }
+
+    /**
+     * Re-resolves the metadata template with the configured billboard. Each thread rebuilds its reusable
+     * packets from the new template on its next send; holograms already spawned keep their billboard.
+     */
+    @Override
+    public void reload() {
+        this.template = resolveTemplate();
+    }
+
+    /**
+     * Gets this thread's reusable packets, rebuilding them if the template was reloaded since they were built.
+     * Only called once {@link #canDisplay(Player)} has confirmed a template exists.
+     *
+     * @return the reusable packets
+     */
+    private ReusablePackets packets() {
+        ReusablePackets packets = reusablePackets.get();
+        MetadataTemplate current = template;
+        if (packets.template != current) {
+            packets = new ReusablePackets(current);
+            reusablePackets.set(packets);
+        }
+        return packets;
+    }
+
+    /**
+     * Mutable packet wrappers and metadata reused for every send on one thread.
+     */
+    private static final class ReusablePackets {
+        private final MetadataTemplate template;
+        private final ReusableTeleport teleport;
+        private final WrapperPlayServerEntityMetadata metadata;
+        private final WrapperPlayServerParticle particle;
+        private final EntityData<Component> text;
+        private final List<EntityData<?>> metadataEntries;
+        private final EntityData<Integer> interpolationDelay;
+        private final EntityData<Integer> interpolationDuration;
+        private final EntityData<Vector3f> scale;
+        private final EntityData<Component> updatedText;
+        private final List<EntityData<?>> textUpdateEntries;
+        private final List<EntityData<?>> scaleUpdateEntries;
+        private Vector3d particlePosition;
+        private Vector3f particleOffset;
+        private Vector3f scaleVector;
+
+        ReusablePackets(MetadataTemplate template) {
+            this.template = template;
+            this.teleport = new ReusableTeleport();
+            this.text = template.newTextEntry();
+            this.metadataEntries = template.spawnEntries(text);
+            this.metadata = new WrapperPlayServerEntityMetadata(0, metadataEntries);
+            this.particlePosition = new Vector3d(0.0, 0.0, 0.0);
+            this.particleOffset = new Vector3f(0.0f, 0.0f, 0.0f);
+            this.scaleVector = new Vector3f(1.0f, 1.0f, 1.0f);
+            this.particle = new WrapperPlayServerParticle(new Particle<>(ParticleTypes.CRIT), false,
+                    particlePosition, particleOffset, 0.0f, 0);
+
+            this.interpolationDelay = template.newInterpolationDelayEntry();
+            this.interpolationDuration = template.newInterpolationDurationEntry();
+            this.scale = template.newScaleEntry();
+            this.updatedText = template.newTextEntry();
+            this.textUpdateEntries = List.of(interpolationDelay, interpolationDuration, scale, updatedText);
+            this.scaleUpdateEntries = List.of(interpolationDelay, interpolationDuration, scale);
+        }
+
+        /**
+         * Gets a particle position vector, reusing the last one if it is at the same point.
+         *
+         * @param x the X coordinate
+         * @param y the Y coordinate
+         * @param z the Z coordinate
+         * @return the position
+         */
+        Vector3d particlePosition(double x, double y, double z) {
+            if (particlePosition.getX() != x || particlePosition.getY() != y || particlePosition.getZ() != z) {
+                particlePosition = new Vector3d(x, y, z);
+            }
+            return particlePosition;
+        }
+
+        /**
+         * Gets a uniform particle spread vector, reusing the last one if the spread is unchanged.
+         *
+         * @param offset the spread on each axis
+         * @return the spread
+         */
+        Vector3f particleOffset(float offset) {
+            if (particleOffset.getX() != offset || particleOffset.getY() != offset || particleOffset.getZ() != offset) {
+                particleOffset = new Vector3f(offset, offset, offset);
+            }
+            return particleOffset;
+        }
+
+        /**
+         * Gets a uniform scale vector, reusing the last one if the scale is unchanged.
+         *
+         * @param scale the scale on each axis
+         * @return the scale
+         */
+        Vector3f scaleVector(float scale) {
+            if (scaleVector.getX() != scale || scaleVector.getY() != scale || scaleVector.getZ() != scale) {
+                scaleVector = new Vector3f(scale, scale, scale);
+            }
+            return scaleVector;
+        }
+    }
+
+    /**
+     * Teleport wrapper encoding its position and yaw from mutable primitive fields, so moving a hologram
+     * allocates nothing. Only the layouts of servers with text displays are written: an angle byte yaw
+     * before 1.21.2, and the position, zero velocity, rotation and relative flags from 1.21.2 on.
+     */
+    private static final class ReusableTeleport extends WrapperPlayServerEntityTeleport {
+        private double x;
+        private double y;
+        private double z;
+        private float yaw;
+
+        ReusableTeleport() {
+            super(0, new Vector3d(0.0, 0.0, 0.0), 0.0f, 0.0f, false);
+        }
+
+        /**
+         * Sets the target of the next send.
+         *
+         * @param entityId the hologram entity ID
+         * @param x        the X coordinate
+         * @param y        the Y coordinate
+         * @param z        the Z coordinate
+         * @param yaw      the yaw in degrees
+         */
+        void set(int entityId, double x, double y, double z, float yaw) {
+            setEntityId(entityId);
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.yaw = yaw;
+        }
+
+        @Override
+        public void write() {
+            writeVarInt(getEntityId());
+            writeDouble(x);
+            writeDouble(y);
+            writeDouble(z);
+            if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_21_2)) {
+                writeDouble(0.0);
+                writeDouble(0.0);
+                writeDouble(0.0);
+                writeFloat(yaw);
+                writeFloat(0.0f);
+                writeInt(0);
+            } else {
+                writeByte((int) (yaw * 256.0f / 360.0f));
+                writeByte(0);
+            }
+            writeBoolean(false);
+        }
+    }
+
+    @Override
+    public void spawn(Player viewer, int entityId, double x, double y, double z, Component text) {
+        if (!canDisplay(viewer)) {
+            return;
+        }
+        boolean debug = plugin.isDebugEnabled();
+        WrapperPlayServerSpawnEntity spawnPacket = new WrapperPlayServerSpawnEntity(
+                entityId, Optional.of(new UUID(HOLOGRAM_UUID_MOST_BITS, entityId)), EntityTypes.TEXT_DISPLAY, new Vector3d(x, y, z), 0.0f, 0.0f, 0.0f, 0, Optional.empty()
+        );
+        ReusablePackets packets = packets();
+        packets.text.setValue(text);
+        packets.metadata.setEntityId(entityId);
+        packets.metadata.setEntityMetadata(packets.metadataEntries);
+        WrapperPlayServerEntityMetadata metadataPacket = packets.metadata;
+
+        try {
+            send(viewer, spawnPacket);
+            send(viewer, metadataPacket);
+            if (debug) {
+                plugin.getTraceBuffer().record(TraceBuffer.Event.SPAWN, viewer.getEntityId(), entityId, 0.0, false);
+            }
+        } catch (Exception e) {
+            plugin.getPluginLogger().warning("Failed to send packets: " + e.getMessage());
+            if (debug) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    @Override
+    public void teleport(Player viewer, int entityId, double x, double y, double z, float yaw) {
+        if (!canDisplay(viewer)) {
+            return;
+        }
+        ReusableTeleport teleportPacket = packets().teleport;
+        teleportPacket.set(entityId, x, y, z, yaw);
+
+        try {
+            send(viewer, teleportPacket);
+        } catch (Exception e) {
+            if (plugin.isDebugEnabled()) {
+                plugin.getPluginLogger().fine("Teleport failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void mount(Player viewer, int vehicleId, int entityId) {
+        if (!canDisplay(viewer)) {
+            return;
+        }
+        try {
+            send(viewer, new WrapperPlayServerSetPassengers(vehicleId, new int[]{entityId}));
+        } catch (Exception e) {
+            if (plugin.isDebugEnabled()) {
+                plugin.getPluginLogger().fine("Mount failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void destroy(Player viewer, int entityId) {
+        if (!canDisplay(viewer)) {
+            return;
+        }
+        boolean debug = plugin.isDebugEnabled();
+        try {
+            send(viewer, new WrapperPlayServerDestroyEntities(entityId));
+            if (debug) {
+                plugin.getTraceBuffer().record(TraceBuffer.Event.DESTROY, viewer.getEntityId(), entityId, 0.0, false);
+            }
+        } catch (Exception e) {
+            if (debug) {
+                plugin.getPluginLogger().fine("Destroy failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void updateText(Player viewer, int entityId, Component text, float scale) {
+        if (!canDisplay(viewer)) {
+            return;
+        }
+        ReusablePackets packets = packets();
+        packets.interpolationDuration.setValue(0);
+        packets.scale.setValue(packets.scaleVector(scale));
+        packets.updatedText.setValue(text);
+        sendMetadata(viewer, entityId, packets, packets.textUpdateEntries);
+    }
+
+    @Override
+    public void updateScale(Player viewer, int entityId, float scale, int interpolationTicks) {
+        if (!canDisplay(viewer)) {
+            return;
+        }
+        ReusablePackets packets = packets();
+        packets.interpolationDuration.setValue(interpolationTicks);
+        packets.scale.setValue(packets.scaleVector(scale));
+        sendMetadata(viewer, entityId, packets, packets.scaleUpdateEntries);
+    }
+
+    @Override
+    public void particles(Player viewer, ParticleEffect effect, double x, double y, double z) {
+        if (!canDisplay(viewer)) {
+            return;
+        }
+        ReusablePackets packets = packets();
+        WrapperPlayServerParticle particlePacket = packets.particle;
+        particlePacket.setParticle(effect.particle());
+        particlePacket.setPosition(packets.particlePosition(x, y + effect.yOffset(), z));
+        particlePacket.setOffset(packets.particleOffset(effect.offset()));
+        particlePacket.setParticleCount(effect.count());
+
+        try {
+            send(viewer, particlePacket);
+        } catch (Exception e) {
+            if (plugin.isDebugEnabled()) {
+                plugin.getPluginLogger().fine("Particles failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void sound(Player viewer, SoundEffect effect, double x, double y, double z) {
+        if (!canDisplay(viewer)) {
+            return;
+        }
+        Vector3i position = new Vector3i((int) (x * 8.0), (int) (y * 8.0), (int) (z * 8.0));
+        WrapperPlayServerSoundEffect soundPacket = new WrapperPlayServerSoundEffect(
+                effect.sound(), SoundCategory.MASTER, position, effect.volume(), effect.pitch()
+        );
+
+        try {
+            send(viewer, soundPacket);
+        } catch (Exception e) {
+            if (plugin.isDebugEnabled()) {
+                plugin.getPluginLogger().fine("Sound failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void beginBundle(Player viewer) {
+        if (canDisplay(viewer)) {
+            sendBundleDelimiter(viewer);
+        }
+    }
+
+    @Override
+    public void endBundle(Player viewer) {
+        if (canDisplay(viewer)) {
+            sendBundleDelimiter(viewer);
+        }
+    }
+
+    @Override
+    public long packetsSent() {
+        return packetsSent.sum();
+    }
+
+    /**
+     * Checks whether holograms can be sent to a viewer at all.
+     *
+     * @param viewer the receiving player
+     * @return false if the server or the viewer's client predates text displays
+     */
+    private boolean canDisplay(Player viewer) {
+        return template != null && MetadataTemplate.supports(PacketEvents.getAPI().getPlayerManager().getClientVersion(viewer));
+    }
+
+    /**
+     * Sends a metadata update for an existing hologram through the reusable metadata wrapper.
+     *
+     * @param viewer   the receiving player
+     * @param entityId the hologram entity ID
+     * @param packets  this thread's reusable packets
+     * @param entries  the metadata entries to send
+     */
+    private void sendMetadata(Player viewer, int entityId, ReusablePackets packets, List<EntityData<?>> entries) {
+        packets.metadata.setEntityId(entityId);
+        packets.metadata.setEntityMetadata(entries);
+        try {
+            send(viewer, packets.metadata);
+        } catch (Exception e) {
+            if (plugin.isDebugEnabled()) {
+                plugin.getPluginLogger().fine("Metadata update failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sends the bundle delimiter that both opens and closes a bundle.
+     *
+     * @param viewer the receiving player
+     */
+    private void sendBundleDelimiter(Player viewer) {
+        try {
+            send(viewer, BUNDLE_DELIMITER);
+        } catch (Exception e) {
+            if (plugin.isDebugEnabled()) {
+                plugin.getPluginLogger().fine("Bundle delimiter failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes a single packet to the viewer and counts it.
+     *
+     * @param viewer the receiving player
+     * @param packet the packet to send
+     */
+    private void send(Player viewer, PacketWrapper<?> packet) {
+        PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, packet);
+        packetsSent.increment();
+    }
+}
\ No newline at end of file
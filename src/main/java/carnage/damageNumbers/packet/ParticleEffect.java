@@ -0,0 +1,14 @@
+package carnage.damageNumbers.packet;
+
+import com.github.retrooper.packetevents.protocol.particle.Particle;
+
+/**
+ * A particle burst resolved once from config, sent as a single particle packet per viewer.
+ *
+ * @param particle the PacketEvents particle, carrying no extra data
+ * @param count    the number of particles
+ * @param offset   the spread on each axis in blocks
+ * @param yOffset  the height above the given location in blocks
+ */
+public record ParticleEffect(Particle<?> particle, int count, float offset, float yOffset) {
+}
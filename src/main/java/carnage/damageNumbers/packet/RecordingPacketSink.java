@@ -0,0 +1,247 @@
+package carnage.damageNumbers.packet;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * In-memory packet sink that counts, and optionally retains, every hologram packet instead of sending it.
+ * Used by the simulation harness to run the pipeline without a server.
+ */
+public class RecordingPacketSink implements HologramPacketSink {
+
+    /**
+     * The kind of hologram packet that was recorded.
+     */
+    public enum Kind {
+        SPAWN,
+        TELEPORT,
+        MOUNT,
+        DESTROY,
+        UPDATE,
+        PARTICLES,
+        SOUND,
+        BUNDLE_START,
+        BUNDLE_END
+    }
+
+    /**
+     * A single recorded packet.
+     *
+     * @param kind     the packet kind
+     * @param viewer   the receiving player's UUID
+     * @param entityId the hologram entity ID
+     */
+    public record RecordedPacket(Kind kind, UUID viewer, int entityId) {
+    }
+
+    private final boolean retainPackets;
+    private final List<RecordedPacket> packets;
+    private long spawns;
+    private long teleports;
+    private long mounts;
+    private long destroys;
+    private long updates;
+    private long particles;
+    private long sounds;
+    private long bundles;
+    private long packetsSent;
+
+    /**
+     * Creates a recording sink.
+     *
+     * @param retainPackets whether each packet is kept in memory, or only counted
+     */
+    public RecordingPacketSink(boolean retainPackets) {
+        this.retainPackets = retainPackets;
+        this.packets = new ArrayList<>();
+    }
+
+    @Override
+    public void spawn(Player viewer, int entityId, double x, double y, double z, Component text) {
+        spawns++;
+        packetsSent += 2;
+        record(Kind.SPAWN, viewer, entityId);
+    }
+
+    @Override
+    public void teleport(Player viewer, int entityId, double x, double y, double z, float yaw) {
+        teleports++;
+        packetsSent++;
+        record(Kind.TELEPORT, viewer, entityId);
+    }
+
+    @Override
+    public void mount(Player viewer, int vehicleId, int entityId) {
+        mounts++;
+        packetsSent++;
+        record(Kind.MOUNT, viewer, entityId);
+    }
+
+    @Override
+    public void destroy(Player viewer, int entityId) {
+        destroys++;
+        packetsSent++;
+        record(Kind.DESTROY, viewer, entityId);
+    }
+
+    @Override
+    public void updateText(Player viewer, int entityId, Component text, float scale) {
+        updates++;
+        packetsSent++;
+        record(Kind.UPDATE, viewer, entityId);
+    }
+
+    @Override
+    public void updateScale(Player viewer, int entityId, float scale, int interpolationTicks) {
+        updates++;
+        packetsSent++;
+        record(Kind.UPDATE, viewer, entityId);
+    }
+
+    @Override
+    public void particles(Player viewer, ParticleEffect effect, double x, double y, double z) {
+        particles++;
+        packetsSent++;
+        record(Kind.PARTICLES, viewer, 0);
+    }
+
+    @Override
+    public void sound(Player viewer, SoundEffect effect, double x, double y, double z) {
+        sounds++;
+        packetsSent++;
+        record(Kind.SOUND, viewer, 0);
+    }
+
+    @Override
+    public void beginBundle(Player viewer) {
+        bundles++;
+        packetsSent++;
+        record(Kind.BUNDLE_START, viewer, 0);
+    }
+
+    @Override
+    public void endBundle(Player viewer) {
+        packetsSent++;
+        record(Kind.BUNDLE_END, viewer, 0);
+    }
+
+    @Override
+    public long packetsSent() {
+        return packetsSent;
+    }
+
+    /**
+     * Gets the number of recorded spawns.
+     *
+     * @return the spawn count
+     */
+    public long getSpawns() {
+        return spawns;
+    }
+
+    /**
+     * Gets the number of recorded teleports.
+     *
+     * @return the teleport count
+     */
+    public long getTeleports() {
+        return teleports;
+    }
+
+    /**
+     * Gets the number of recorded mounts.
+     *
+     * @return the mount count
+     */
+    public long getMounts() {
+        return mounts;
+    }
+
+    /**
+     * Gets the number of recorded destroys.
+     *
+     * @return the destroy count
+     */
+    public long getDestroys() {
+        return destroys;
+    }
+
+    /**
+     * Gets the number of recorded metadata updates.
+     *
+     * @return the update count
+     */
+    public long getUpdates() {
+        return updates;
+    }
+
+    /**
+     * Gets the number of recorded particle bursts.
+     *
+     * @return the particle packet count
+     */
+    public long getParticles() {
+        return particles;
+    }
+
+    /**
+     * Gets the number of recorded sounds.
+     *
+     * @return the sound packet count
+     */
+    public long getSounds() {
+        return sounds;
+    }
+
+    /**
+     * Gets the number of recorded bundles.
+     *
+     * @return the bundle count
+     */
+    public long getBundles() {
+        return bundles;
+    }
+
+    /**
+     * Gets the retained packets, empty unless retention is enabled.
+     *
+     * @return an unmodifiable view of the retained packets
+     */
+    public List<RecordedPacket> getPackets() {
+        return Collections.unmodifiableList(packets);
+    }
+
+    /**
+     * Clears retained packets and resets all counters.
+     */
+    public void clear() {
+        packets.clear();
+        spawns = 0;
+        teleports = 0;
+        mounts = 0;
+        destroys = 0;
+        updates = 0;
+        particles = 0;
+        sounds = 0;
+        bundles = 0;
+        packetsSent = 0;
+    }
+
+    /**
+     * Retains a packet if retention is enabled.
+     *
+     * @param kind     the packet kind
+     * @param viewer   the receiving player
+     * @param entityId the hologram entity ID, or 0 for bundle delimiters, particles and sounds
+     */
+    private void record(Kind kind, Player viewer, int entityId) {
+        if (retainPackets) {
+            packets.add(new RecordedPacket(kind, viewer.getUniqueId(), entityId));
+        }
+    }
+}
\ No newline at end of file
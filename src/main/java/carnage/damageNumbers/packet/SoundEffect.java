@@ -0,0 +1,13 @@
+package carnage.damageNumbers.packet;
+
+import com.github.retrooper.packetevents.protocol.sound.Sound;
+
+/**
+ * A sound resolved once from config, sent as a single sound packet per viewer.
+ *
+ * @param sound  the PacketEvents sound
+ * @param volume the volume
+ * @param pitch  the pitch
+ */
+public record SoundEffect(Sound sound, float volume, float pitch) {
+}
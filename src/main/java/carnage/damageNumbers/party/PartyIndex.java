@@ -0,0 +1,185 @@
+package carnage.damageNumbers.party;
+
+import carnage.damageNumbers.DamageNumbers;
+import carnage.damageNumbers.util.LongIndexMap;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory index of which online players share a party, for the 'party' visibility mode.
+ * The index maps each partied player's entity ID to a party number and each party number to its members,
+ * so selecting a number's viewers is one probe for the subject and a walk over their party intersected with
+ * the players in range. It is rebuilt from the {@link PartyProvider} on the global thread when a player joins
+ * or quits, when a provider calls {@link #invalidate()}, and on a configurable interval for providers such as
+ * scoreboard teams that have no change events. Each rebuild publishes a new immutable snapshot, so readers on
+ * any thread never lock and never see a half-built index.
+ */
+public class PartyIndex implements Listener {
+    private static final String CONFIG_REFRESH_INTERVAL = "party.refresh-interval-ticks";
+    private static final long IDLE_CHECK_TICKS = 20;
+
+    private final DamageNumbers plugin;
+    private final AtomicBoolean rebuildQueued;
+    private volatile PartyProvider provider;
+    private volatile Snapshot snapshot;
+    private volatile int refreshIntervalTicks;
+
+    /**
+     * One published state of the index. Never modified after it is published.
+     *
+     * @param partyByEntityId the party number of every player in a party of two or more
+     * @param members         the members of each party, by party number
+     */
+    private record Snapshot(LongIndexMap partyByEntityId, Player[][] members) {
+    }
+
+    public PartyIndex(DamageNumbers plugin) {
+        this.plugin = plugin;
+        this.rebuildQueued = new AtomicBoolean();
+        this.provider = new ScoreboardTeamProvider(plugin.getServer());
+        this.snapshot = new Snapshot(new LongIndexMap(1), new Player[0][]);
+        reload();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        plugin.getPluginScheduler().runGlobal(this::refresh, 1L);
+    }
+
+    /**
+     * Reloads the refresh interval and rebuilds the index.
+     */
+    public void reload() {
+        this.refreshIntervalTicks = Math.max(0, plugin.getConfig().getInt(CONFIG_REFRESH_INTERVAL, 100));
+        invalidate();
+    }
+
+    /**
+     * Replaces the party provider, for plugins with their own party system, and rebuilds the index.
+     *
+     * @param provider the new provider, not null
+     */
+    public void setProvider(PartyProvider provider) {
+        this.provider = provider;
+        invalidate();
+    }
+
+    /**
+     * Queues a rebuild of the index on the next global tick. Any number of calls before it runs cost one rebuild.
+     */
+    public void invalidate() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            plugin.getPluginScheduler().runGlobal(this::rebuild, 1L);
+        }
+    }
+
+    /**
+     * Checks whether a player shares a party with anyone online.
+     *
+     * @param player the player
+     * @return true if the player is in a party of two or more
+     */
+    public boolean hasParty(Player player) {
+        return snapshot.partyByEntityId().get(player.getEntityId()) != LongIndexMap.MISSING;
+    }
+
+    /**
+     * Selects the players among the candidates who share the subject's party, plus the subject themselves.
+     *
+     * @param candidates the players in range
+     * @param subject    the damager or healed player
+     * @return the subject and their party members among the candidates
+     */
+    public Set<Player> selectParty(Set<Player> candidates, Player subject) {
+        Snapshot current = snapshot;
+        int party = current.partyByEntityId().get(subject.getEntityId());
+        if (party == LongIndexMap.MISSING) {
+            return Set.of(subject);
+        }
+
+        Set<Player> selected = new HashSet<>();
+        selected.add(subject);
+        for (Player member : current.members()[party]) {
+            if (candidates.contains(member)) {
+                selected.add(member);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Rebuilds the index once a joining player is online.
+     *
+     * @param event the player join event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Rebuilds the index once a leaving player is gone.
+     *
+     * @param event the player quit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        invalidate();
+    }
+
+    /**
+     * Rebuilds the index on the configured interval and schedules the next refresh.
+     * With the interval at 0, only joins, quits and invalidations rebuild it.
+     */
+    private void refresh() {
+        int interval = refreshIntervalTicks;
+        try {
+            if (interval > 0) {
+                rebuild();
+            }
+        } finally {
+            plugin.getPluginScheduler().runGlobal(this::refresh, interval > 0 ? interval : IDLE_CHECK_TICKS);
+        }
+    }
+
+    /**
+     * Asks the provider for every online player's party and publishes a new snapshot.
+     * Parties with a single online member are left out, since they change nothing.
+     */
+    private void rebuild() {
+        rebuildQueued.set(false);
+        PartyProvider current = provider;
+        Collection<? extends Player> online = plugin.getServer().getOnlinePlayers();
+        Map<String, List<Player>> byParty = new HashMap<>();
+        for (Player player : online) {
+            String partyId = current.getPartyId(player);
+            if (partyId != null) {
+                byParty.computeIfAbsent(partyId, id -> new ArrayList<>()).add(player);
+            }
+        }
+
+        LongIndexMap partyByEntityId = new LongIndexMap(Math.max(1, online.size()));
+        List<Player[]> members = new ArrayList<>(byParty.size());
+        for (List<Player> party : byParty.values()) {
+            if (party.size() < 2) {
+                continue;
+            }
+            int partyNumber = members.size();
+            members.add(party.toArray(new Player[0]));
+            for (Player member : party) {
+                partyByEntityId.put(member.getEntityId(), partyNumber);
+            }
+        }
+        this.snapshot = new Snapshot(partyByEntityId, members.toArray(new Player[0][]));
+    }
+}
@@ -0,0 +1,19 @@
+package carnage.damageNumbers.party;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Tells the party index which party a player belongs to.
+ * Only consulted while the index is rebuilt, never per hit, so implementations may be as slow as a map lookup
+ * into another plugin. Providers that know when membership changes should call {@link PartyIndex#invalidate()}.
+ */
+public interface PartyProvider {
+
+    /**
+     * Gets the party of an online player. Called on the global thread.
+     *
+     * @param player the player
+     * @return an identifier shared by every member of the party, or null if the player is in none
+     */
+    String getPartyId(Player player);
+}
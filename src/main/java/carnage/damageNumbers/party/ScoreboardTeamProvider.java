@@ -0,0 +1,28 @@
+package carnage.damageNumbers.party;
+
+import org.bukkit.Server;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.Team;
+
+/**
+ * Treats the teams of the main scoreboard, as managed by the vanilla {@code /team} command, as parties.
+ */
+public class ScoreboardTeamProvider implements PartyProvider {
+    private final Server server;
+
+    public ScoreboardTeamProvider(Server server) {
+        this.server = server;
+    }
+
+    /**
+     * Gets the name of the main scoreboard team the player is on.
+     *
+     * @param player the player
+     * @return the team name, or null if the player is on no team
+     */
+    @Override
+    public String getPartyId(Player player) {
+        Team team = server.getScoreboardManager().getMainScoreboard().getEntryTeam(player.getName());
+        return team != null ? team.getName() : null;
+    }
+}
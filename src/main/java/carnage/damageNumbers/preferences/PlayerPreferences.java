@@ -0,0 +1,331 @@
+package carnage.damageNumbers.preferences;
+
+import carnage.damageNumbers.DamageNumbers;
+import carnage.damageNumbers.util.LongIndexMap;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-player display toggles for damage, critical, healing and other players' numbers, and particles.
+ * Online players who changed anything are kept in an entity ID to flags table, so the viewer filter is one
+ * probe per viewer and returns the original set untouched when nobody is filtered out. The table is replaced
+ * as a whole on join, quit and toggle, so readers on any thread see a consistent copy without locking.
+ * The flags of every player are loaded from a flat file on a virtual thread at startup and written back
+ * behind a dirty flag on an interval, so joins and toggles never touch disk on a server thread.
+ */
+public class PlayerPreferences implements Listener {
+    private static final String CONFIG_FILE = "preferences.file";
+    private static final String CONFIG_SAVE_INTERVAL = "preferences.save-interval-seconds";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final DamageNumbers plugin;
+    private final Path file;
+    private final Map<UUID, Integer> storedFlags;
+    private final AtomicBoolean dirty;
+    private final ScheduledExecutorService ioExecutor;
+    private final Object tableLock;
+    private volatile LongIndexMap flagsByEntityId;
+
+    public PlayerPreferences(DamageNumbers plugin) {
+        this.plugin = plugin;
+        this.file = plugin.getDataFolder().toPath().resolve(plugin.getConfig().getString(CONFIG_FILE, "preferences.txt"));
+        this.storedFlags = new ConcurrentHashMap<>();
+        this.dirty = new AtomicBoolean();
+        this.ioExecutor = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("DamageNumbers-preferences").factory());
+        this.tableLock = new Object();
+        this.flagsByEntityId = new LongIndexMap(16);
+
+        long saveInterval = Math.max(1, plugin.getConfig().getLong(CONFIG_SAVE_INTERVAL, 30));
+        ioExecutor.execute(this::load);
+        ioExecutor.scheduleWithFixedDelay(this::saveIfDirty, saveInterval, saveInterval, TimeUnit.SECONDS);
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+    }
+
+    /**
+     * Applies a joining player's stored flags. Reads memory only; the file was loaded at startup.
+     *
+     * @param event the player join event
+     */
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        applyStored(event.getPlayer());
+    }
+
+    /**
+     * Drops a leaving player from the online table.
+     *
+     * @param event the player quit event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        setOnlineFlags(event.getPlayer().getEntityId(), Preference.ALL);
+    }
+
+    /**
+     * Checks whether a player has a preference enabled.
+     *
+     * @param player     the player
+     * @param preference the preference
+     * @return true if enabled
+     */
+    public boolean isEnabled(Player player, Preference preference) {
+        return (flagsOf(player.getEntityId()) & preference.bit()) != 0;
+    }
+
+    /**
+     * Flips a preference for a player and queues the change to be saved.
+     *
+     * @param player     the player
+     * @param preference the preference
+     * @return true if the preference is now enabled
+     */
+    public boolean toggle(Player player, Preference preference) {
+        int flags = storedFlags.getOrDefault(player.getUniqueId(), Preference.ALL) ^ preference.bit();
+        if (flags == Preference.ALL) {
+            storedFlags.remove(player.getUniqueId());
+        } else {
+            storedFlags.put(player.getUniqueId(), flags);
+        }
+        setOnlineFlags(player.getEntityId(), flags);
+        dirty.set(true);
+        return (flags & preference.bit()) != 0;
+    }
+
+    /**
+     * Filters the viewers of a damage number by their damage, critical and others toggles.
+     *
+     * @param viewers    the players in range
+     * @param damagerId  the entity ID of the player credited with the hit, or the target's for damage without an attacker
+     * @param targetId   the entity ID of the damaged entity
+     * @param isCritical whether the hit is critical
+     * @return the viewers who want to see the number, the same set if none were removed
+     */
+    public Set<Player> filterDamage(Set<Player> viewers, int damagerId, int targetId, boolean isCritical) {
+        Preference kind = isCritical ? Preference.CRITICALS : Preference.DAMAGE;
+        return filter(viewers, kind.bit(), damagerId, targetId);
+    }
+
+    /**
+     * Filters the viewers of a healing number by their healing and others toggles.
+     *
+     * @param viewers  the players in range
+     * @param healedId the entity ID of the healed entity
+     * @return the viewers who want to see the number, the same set if none were removed
+     */
+    public Set<Player> filterHealing(Set<Player> viewers, int healedId) {
+        return filter(viewers, Preference.HEALING.bit(), healedId, healedId);
+    }
+
+    /**
+     * Filters the receivers of a particle burst by their particle toggle.
+     *
+     * @param viewers the players who see the number
+     * @return the viewers who want particles, the same set if none were removed
+     */
+    public Set<Player> filterParticles(Set<Player> viewers) {
+        return filter(viewers, Preference.PARTICLES.bit(), -1, -1);
+    }
+
+    /**
+     * Stops the periodic save and writes any pending changes, waiting briefly for the write to finish.
+     */
+    public void shutdown() {
+        HandlerList.unregisterAll(this);
+        ioExecutor.execute(this::saveIfDirty);
+        ioExecutor.shutdown();
+        try {
+            if (!ioExecutor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getPluginLogger().warning("Timed out waiting for player preferences to save");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Removes the viewers missing a required flag.
+     * Viewers other than the two involved entities also need {@link Preference#OTHERS}.
+     *
+     * @param viewers   the viewers
+     * @param required  the flag every viewer needs
+     * @param involvedA the entity ID of the first involved entity, or -1
+     * @param involvedB the entity ID of the second involved entity, or -1
+     * @return the remaining viewers, the same set if none were removed
+     */
+    private Set<Player> filter(Set<Player> viewers, int required, int involvedA, int involvedB) {
+        LongIndexMap table = flagsByEntityId;
+        if (table.size() == 0) {
+            return viewers;
+        }
+
+        boolean anyHidden = false;
+        for (Player viewer : viewers) {
+            if (!wants(table, viewer.getEntityId(), required, involvedA, involvedB)) {
+                anyHidden = true;
+                break;
+            }
+        }
+        if (!anyHidden) {
+            return viewers;
+        }
+
+        Set<Player> filtered = new HashSet<>();
+        for (Player viewer : viewers) {
+            if (wants(table, viewer.getEntityId(), required, involvedA, involvedB)) {
+                filtered.add(viewer);
+            }
+        }
+        return filtered;
+    }
+
+    /**
+     * Checks one viewer's flags against a requirement.
+     *
+     * @param table     the online flags table
+     * @param viewerId  the viewer's entity ID
+     * @param required  the flag the viewer needs
+     * @param involvedA the entity ID of the first involved entity, or -1
+     * @param involvedB the entity ID of the second involved entity, or -1
+     * @return true if the viewer wants to see it
+     */
+    private static boolean wants(LongIndexMap table, int viewerId, int required, int involvedA, int involvedB) {
+        int flags = table.get(viewerId);
+        if (flags == LongIndexMap.MISSING) {
+            return true;
+        }
+        int needed = viewerId == involvedA || viewerId == involvedB || involvedA < 0 ? required : required | Preference.OTHERS.bit();
+        return (flags & needed) == needed;
+    }
+
+    /**
+     * Gets the flags of an online player.
+     *
+     * @param entityId the player's entity ID
+     * @return the flags, {@link Preference#ALL} if unchanged
+     */
+    private int flagsOf(int entityId) {
+        int flags = flagsByEntityId.get(entityId);
+        return flags == LongIndexMap.MISSING ? Preference.ALL : flags;
+    }
+
+    /**
+     * Copies a player's stored flags into the online table.
+     *
+     * @param player the player
+     */
+    private void applyStored(Player player) {
+        Integer flags = storedFlags.get(player.getUniqueId());
+        if (flags != null) {
+            setOnlineFlags(player.getEntityId(), flags);
+        }
+    }
+
+    /**
+     * Publishes a new copy of the online table with one player's flags changed.
+     * Players with every preference enabled are left out, so the table stays empty on most servers.
+     *
+     * @param entityId the player's entity ID
+     * @param flags    the new flags
+     */
+    private void setOnlineFlags(int entityId, int flags) {
+        synchronized (tableLock) {
+            LongIndexMap current = flagsByEntityId;
+            if (flags == Preference.ALL && current.get(entityId) == LongIndexMap.MISSING) {
+                return;
+            }
+            LongIndexMap updated = new LongIndexMap(current);
+            if (flags == Preference.ALL) {
+                updated.remove(entityId);
+            } else {
+                updated.put(entityId, flags);
+            }
+            flagsByEntityId = updated;
+        }
+    }
+
+    /**
+     * Reads the preference file, then applies it to players who joined while it loaded.
+     * Toggles made before the load finished take precedence over the file.
+     */
+    private void load() {
+        if (!Files.exists(file)) {
+            return;
+        }
+
+        int loaded = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] parts = line.trim().split(" ");
+                try {
+                    int flags = Integer.parseInt(parts[1]) & Preference.ALL;
+                    if (flags != Preference.ALL && storedFlags.putIfAbsent(UUID.fromString(parts[0]), flags) == null) {
+                        loaded++;
+                    }
+                } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+                    plugin.getPluginLogger().warning("Skipping malformed player preference line: " + line);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getPluginLogger().warning("Failed to load player preferences: " + e.getMessage());
+            return;
+        }
+
+        if (loaded > 0) {
+            plugin.getPluginScheduler().runGlobal(() -> plugin.getServer().getOnlinePlayers().forEach(this::applyStored), 0L);
+        }
+    }
+
+    /**
+     * Writes every stored preference to a temporary file and moves it over the old one, if anything changed.
+     */
+    private void saveIfDirty() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+
+        Map<UUID, Integer> snapshot = new HashMap<>(storedFlags);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("# uuid flags");
+                writer.newLine();
+                for (Map.Entry<UUID, Integer> entry : snapshot.entrySet()) {
+                    writer.write(entry.getKey() + " " + entry.getValue());
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty.set(true);
+            plugin.getPluginLogger().warning("Failed to save player preferences: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package carnage.damageNumbers.preferences;
+
+import java.util.Locale;
+
+/**
+ * A per-player display toggle, stored as one bit of the player's preference flags.
+ */
+public enum Preference {
+    /** Normal damage numbers. */
+    DAMAGE("damage"),
+    /** Critical hit numbers. */
+    CRITICALS("crits"),
+    /** Healing numbers. */
+    HEALING("heals"),
+    /** Numbers for hits and heals the player is not involved in. */
+    OTHERS("others"),
+    /** Particle bursts sent with numbers. */
+    PARTICLES("particles");
+
+    /** The flags of a player who has not changed anything: every preference enabled. */
+    public static final int ALL = (1 << values().length) - 1;
+
+    private final String commandName;
+    private final int bit;
+
+    Preference(String commandName) {
+        this.commandName = commandName;
+        this.bit = 1 << ordinal();
+    }
+
+    /**
+     * Gets the name used for this preference in commands.
+     *
+     * @return the command name
+     */
+    public String getCommandName() {
+        return commandName;
+    }
+
+    /**
+     * Gets the flag bit of this preference.
+     *
+     * @return the bit
+     */
+    public int bit() {
+        return bit;
+    }
+
+    /**
+     * Looks up a preference by its command name.
+     *
+     * @param name the command name, case-insensitive
+     * @return the preference, or null if unknown
+     */
+    public static Preference byCommandName(String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+        for (Preference preference : values()) {
+            if (preference.commandName.equals(lower)) {
+                return preference;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+package carnage.damageNumbers.profile;
+
+import java.util.Locale;
+
+/**
+ * Who sees a number, besides the player it is about.
+ */
+public enum Visibility {
+    /**
+     * Only the damager, or the healed player.
+     */
+    SELF,
+    /**
+     * Players in range who share a party or team with the damager or healed player.
+     */
+    PARTY,
+    /**
+     * Every player in range.
+     */
+    EVERYONE,
+    /**
+     * Every player the server tracks the entity for, that is every client that has it spawned, within range.
+     */
+    TRACKED;
+
+    /**
+     * Parses a configured visibility mode. 'everyone' and 'all' show numbers to everyone in range,
+     * 'tracked' to the players tracking the entity, 'party' and 'team' to party members in range,
+     * and anything else only to the player involved.
+     *
+     * @param mode the configured mode
+     * @return the visibility
+     */
+    public static Visibility parse(String mode) {
+        return switch (mode.toLowerCase(Locale.ROOT)) {
+            case "everyone", "all" -> EVERYONE;
+            case "party", "team" -> PARTY;
+            case "tracked", "trackers" -> TRACKED;
+            default -> SELF;
+        };
+    }
+}
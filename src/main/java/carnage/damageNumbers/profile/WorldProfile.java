@@ -0,0 +1,96 @@
+package carnage.damageNumbers.profile;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+/**
+ * The display settings in effect for one world, compiled once from the global configuration and the world's overrides.
+ *
+ * @param damageVisibility  who sees damage numbers besides the damager
+ * @param damageViewRange   the maximum distance at which damage numbers are shown
+ * @param healingEnabled    whether healing numbers are shown
+ * @param healingVisibility who sees healing numbers besides the healed player
+ * @param healingViewRange  the maximum distance at which healing numbers are shown
+ * @param particlesEnabled  whether particle bursts are sent with numbers
+ * @param soundsEnabled     whether sounds are played with numbers
+ * @param riseSpeed         the rise per animation frame in blocks
+ * @param spinSpeed         the spin speed, 0 for none
+ * @param bounce            whether numbers bounce as they rise
+ * @param shakeOnCrit       whether critical numbers shake
+ */
+public record WorldProfile(Visibility damageVisibility, double damageViewRange, boolean healingEnabled, Visibility healingVisibility,
+                           double healingViewRange, boolean particlesEnabled, boolean soundsEnabled, double riseSpeed, double spinSpeed,
+                           boolean bounce, boolean shakeOnCrit) {
+    private static final String CONFIG_DAMAGE_VISIBILITY = "display.visibility";
+    private static final String CONFIG_DAMAGE_VIEW_RANGE = "display.view-range";
+    private static final String CONFIG_HEALING_ENABLED = "triggers.healing";
+    private static final String CONFIG_HEALING_VISIBILITY = "healing.visibility";
+    private static final String CONFIG_HEALING_VIEW_RANGE = "healing.view-range";
+    private static final String CONFIG_PARTICLES_ENABLED = "particles.enabled";
+    private static final String CONFIG_SOUNDS_ENABLED = "advanced.sounds.enabled";
+    private static final String CONFIG_RISE_SPEED = "animation.rise-speed";
+    private static final String CONFIG_SPIN_SPEED = "animation.spin-speed";
+    private static final String CONFIG_BOUNCE = "animation.bounce";
+    private static final String CONFIG_SHAKE_ON_CRIT = "animation.shake-on-crit";
+
+    /**
+     * Compiles a profile, taking each setting from the overrides when set there and from the global configuration otherwise.
+     *
+     * @param global    the global configuration
+     * @param overrides the world's override section, or null for the global settings alone
+     * @return the profile
+     */
+    static WorldProfile compile(ConfigurationSection global, ConfigurationSection overrides) {
+        return new WorldProfile(
+                Visibility.parse(getString(global, overrides, CONFIG_DAMAGE_VISIBILITY, "damager")),
+                getDouble(global, overrides, CONFIG_DAMAGE_VIEW_RANGE, 32.0),
+                getBoolean(global, overrides, CONFIG_HEALING_ENABLED, true),
+                Visibility.parse(getString(global, overrides, CONFIG_HEALING_VISIBILITY, "healer")),
+                getDouble(global, overrides, CONFIG_HEALING_VIEW_RANGE, 32.0),
+                getBoolean(global, overrides, CONFIG_PARTICLES_ENABLED, true),
+                getBoolean(global, overrides, CONFIG_SOUNDS_ENABLED, true),
+                getDouble(global, overrides, CONFIG_RISE_SPEED, 0.05),
+                getDouble(global, overrides, CONFIG_SPIN_SPEED, 0.0),
+                getBoolean(global, overrides, CONFIG_BOUNCE, true),
+                getBoolean(global, overrides, CONFIG_SHAKE_ON_CRIT, true)
+        );
+    }
+
+    /**
+     * Reads a string setting.
+     *
+     * @param global       the global configuration
+     * @param overrides    the world's overrides, or null
+     * @param path         the setting path
+     * @param defaultValue the value used when neither sets it
+     * @return the setting
+     */
+    private static String getString(ConfigurationSection global, ConfigurationSection overrides, String path, String defaultValue) {
+        return overrides != null && overrides.isSet(path) ? overrides.getString(path, defaultValue) : global.getString(path, defaultValue);
+    }
+
+    /**
+     * Reads a numeric setting.
+     *
+     * @param global       the global configuration
+     * @param overrides    the world's overrides, or null
+     * @param path         the setting path
+     * @param defaultValue the value used when neither sets it
+     * @return the setting
+     */
+    private static double getDouble(ConfigurationSection global, ConfigurationSection overrides, String path, double defaultValue) {
+        return overrides != null && overrides.isSet(path) ? overrides.getDouble(path, defaultValue) : global.getDouble(path, defaultValue);
+    }
+
+    /**
+     * Reads a boolean setting.
+     *
+     * @param global       the global configuration
+     * @param overrides    the world's overrides, or null
+     * @param path         the setting path
+     * @param defaultValue the value used when neither sets it
+     * @return the setting
+     */
+    private static boolean getBoolean(ConfigurationSection global, ConfigurationSection overrides, String path, boolean defaultValue) {
+        return overrides != null && overrides.isSet(path) ? overrides.getBoolean(path, defaultValue) : global.getBoolean(path, defaultValue);
+    }
+}
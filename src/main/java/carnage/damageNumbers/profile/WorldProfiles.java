@@ -0,0 +1,123 @@
+package carnage.damageNumbers.profile;
+
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compiled per-world display profiles.
+ * Every loaded world's profile is compiled when the world loads and indexed by the world's UID, so an event resolves
+ * its world's settings with one map lookup instead of configuration lookups.
+ * The profiles are published together as one immutable table, so a reload or a world load swaps every profile at once
+ * and readers on any thread never see a mix of old and new settings.
+ */
+public class WorldProfiles implements Listener {
+    private static final String CONFIG_WORLDS = "worlds";
+
+    /**
+     * The profiles of loaded worlds.
+     *
+     * @param profiles      the profile of each loaded world, by UID
+     * @param globalProfile the profile for worlds without overrides or not yet loaded
+     */
+    private record Table(Map<UUID, WorldProfile> profiles, WorldProfile globalProfile) {
+    }
+
+    private final Supplier<FileConfiguration> configSupplier;
+    private volatile Table table;
+
+    /**
+     * Creates the profiles from the global settings alone; call {@link #reload(Collection)} to compile world overrides.
+     *
+     * @param configSupplier supplies the current configuration
+     */
+    public WorldProfiles(Supplier<FileConfiguration> configSupplier) {
+        this.configSupplier = configSupplier;
+        this.table = new Table(Map.of(), WorldProfile.compile(configSupplier.get(), null));
+    }
+
+    /**
+     * Gets the profile for a world.
+     *
+     * @param world the world, or null for the global profile
+     * @return the profile
+     */
+    public WorldProfile profileFor(World world) {
+        Table current = table;
+        if (world == null) {
+            return current.globalProfile;
+        }
+        WorldProfile profile = current.profiles.get(world.getUID());
+        return profile == null ? current.globalProfile : profile;
+    }
+
+    /**
+     * Recompiles every profile from the current configuration and swaps them in at once.
+     *
+     * @param loadedWorlds the worlds currently loaded
+     */
+    public synchronized void reload(Collection<World> loadedWorlds) {
+        FileConfiguration config = configSupplier.get();
+        Map<UUID, WorldProfile> profiles = new HashMap<>();
+        for (World world : loadedWorlds) {
+            profiles.put(world.getUID(), compile(config, world));
+        }
+        this.table = new Table(Map.copyOf(profiles), WorldProfile.compile(config, null));
+    }
+
+    /**
+     * Compiles the profile of a newly loaded world.
+     *
+     * @param event the world load event
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public synchronized void onWorldLoad(WorldLoadEvent event) {
+        Table current = table;
+        World world = event.getWorld();
+        if (current.profiles.containsKey(world.getUID())) {
+            return;
+        }
+        Map<UUID, WorldProfile> profiles = new HashMap<>(current.profiles);
+        profiles.put(world.getUID(), compile(configSupplier.get(), world));
+        this.table = new Table(Map.copyOf(profiles), current.globalProfile);
+    }
+
+    /**
+     * Drops an unloaded world's profile.
+     *
+     * @param event the world unload event
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public synchronized void onWorldUnload(WorldUnloadEvent event) {
+        Table current = table;
+        if (!current.profiles.containsKey(event.getWorld().getUID())) {
+            return;
+        }
+        Map<UUID, WorldProfile> profiles = new HashMap<>(current.profiles);
+        profiles.remove(event.getWorld().getUID());
+        this.table = new Table(Map.copyOf(profiles), current.globalProfile);
+    }
+
+    /**
+     * Compiles one world's profile from the global settings and the overrides under {@code worlds.<name>}.
+     *
+     * @param config the current configuration
+     * @param world  the world
+     * @return the profile
+     */
+    private static WorldProfile compile(FileConfiguration config, World world) {
+        ConfigurationSection overrides = config.getConfigurationSection(CONFIG_WORLDS + "." + world.getName());
+        return WorldProfile.compile(config, overrides);
+    }
+}
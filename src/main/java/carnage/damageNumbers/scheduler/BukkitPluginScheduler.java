@@ -0,0 +1,66 @@
+package carnage.damageNumbers.scheduler;
+
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Plugin scheduler backed by the Bukkit scheduler, running every server task on the main thread.
+ */
+public class BukkitPluginScheduler implements PluginScheduler {
+    private final Plugin plugin;
+    private final TickClock clock;
+
+    public BukkitPluginScheduler(Plugin plugin) {
+        this.plugin = plugin;
+        this.clock = new BukkitTickClock(plugin);
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return false;
+    }
+
+    @Override
+    public TaskHandle runForEntity(Entity entity, Runnable task, long delayTicks) {
+        return runGlobal(task, delayTicks);
+    }
+
+    @Override
+    public TaskHandle runForEntity(Entity entity, Runnable task, Runnable retired, long delayTicks) {
+        return runGlobal(task, delayTicks);
+    }
+
+    @Override
+    public TaskHandle runAtChunk(World world, int chunkX, int chunkZ, Runnable task, long delayTicks) {
+        return runGlobal(task, delayTicks);
+    }
+
+    @Override
+    public TaskHandle runAtChunkRepeating(World world, int chunkX, int chunkZ, Runnable task, long delayTicks, long periodTicks) {
+        BukkitTask scheduled = plugin.getServer().getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    @Override
+    public TaskHandle runGlobal(Runnable task, long delayTicks) {
+        BukkitTask scheduled = plugin.getServer().getScheduler().runTaskLater(plugin, task, delayTicks);
+        return scheduled::cancel;
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        plugin.getServer().getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ) {
+        return plugin.getServer().isPrimaryThread();
+    }
+
+    @Override
+    public TickClock clockAt(World world, int chunkX, int chunkZ) {
+        return clock;
+    }
+}
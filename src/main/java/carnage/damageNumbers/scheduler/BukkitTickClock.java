@@ -0,0 +1,39 @@
+package carnage.damageNumbers.scheduler;
+
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Tick clock backed by the Bukkit main-thread scheduler.
+ */
+public class BukkitTickClock implements TickClock {
+    private final Plugin plugin;
+
+    public BukkitTickClock(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public long currentTick() {
+        return plugin.getServer().getCurrentTick();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public int runLater(Runnable task, long delayTicks) {
+        return plugin.getServer().getScheduler().runTaskLater(plugin, task, delayTicks).getTaskId();
+    }
+
+    @Override
+    public int runRepeating(Runnable task, long delayTicks, long periodTicks) {
+        return plugin.getServer().getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks).getTaskId();
+    }
+
+    @Override
+    public void cancel(int taskId) {
+        plugin.getServer().getScheduler().cancelTask(taskId);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,118 @@
+package carnage.damageNumbers.scheduler;
+
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Runs plugin tasks on the thread that owns the data they touch.
+ * On Paper everything runs on the main thread; on Folia, entity tasks follow the entity's region,
+ * chunk tasks run on the region owning the chunk, and global tasks run on the global region.
+ */
+public interface PluginScheduler {
+
+    /**
+     * Creates the scheduler matching the running server.
+     *
+     * @param plugin the owning plugin
+     * @return a region-aware scheduler on Folia, otherwise one backed by the Bukkit scheduler
+     */
+    static PluginScheduler create(Plugin plugin) {
+        try {
+            Class.forName("io.papermc.paper.threadedregions.RegionizedServer");
+            return new RegionizedPluginScheduler(plugin);
+        } catch (ClassNotFoundException e) {
+            return new BukkitPluginScheduler(plugin);
+        }
+    }
+
+    /**
+     * Checks whether tasks can run on more than one thread at a time.
+     *
+     * @return true on Folia
+     */
+    boolean isRegionized();
+
+    /**
+     * Runs a task on the thread that owns an entity. The task is dropped if the entity is removed first.
+     *
+     * @param entity     the entity the task touches
+     * @param task       the task to run
+     * @param delayTicks the delay in ticks, 0 for the next tick
+     * @return the task handle
+     */
+    TaskHandle runForEntity(Entity entity, Runnable task, long delayTicks);
+
+    /**
+     * Runs a task on the thread that owns an entity, or a fallback if the entity is removed first.
+     * Without regions the task always runs on the main thread and the fallback never does.
+     *
+     * @param entity     the entity the task touches
+     * @param task       the task to run
+     * @param retired    the fallback, run instead of the task if the entity is removed before it is due
+     * @param delayTicks the delay in ticks, 0 for the next tick
+     * @return the task handle
+     */
+    TaskHandle runForEntity(Entity entity, Runnable task, Runnable retired, long delayTicks);
+
+    /**
+     * Runs a task on the thread that owns a chunk.
+     *
+     * @param world      the world
+     * @param chunkX     the chunk X coordinate
+     * @param chunkZ     the chunk Z coordinate
+     * @param task       the task to run
+     * @param delayTicks the delay in ticks, 0 for the next tick
+     * @return the task handle
+     */
+    TaskHandle runAtChunk(World world, int chunkX, int chunkZ, Runnable task, long delayTicks);
+
+    /**
+     * Runs a task repeatedly on the thread that owns a chunk.
+     *
+     * @param world       the world
+     * @param chunkX      the chunk X coordinate
+     * @param chunkZ      the chunk Z coordinate
+     * @param task        the task to run
+     * @param delayTicks  the delay before the first run in ticks
+     * @param periodTicks the interval between runs in ticks
+     * @return the task handle
+     */
+    TaskHandle runAtChunkRepeating(World world, int chunkX, int chunkZ, Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task on the global thread, for state that belongs to no region.
+     *
+     * @param task       the task to run
+     * @param delayTicks the delay in ticks, 0 for the next tick
+     * @return the task handle
+     */
+    TaskHandle runGlobal(Runnable task, long delayTicks);
+
+    /**
+     * Runs a task off the server threads, for blocking I/O.
+     *
+     * @param task the task to run
+     */
+    void runAsync(Runnable task);
+
+    /**
+     * Checks whether the calling thread owns a chunk, so a task touching it can run immediately.
+     *
+     * @param world  the world
+     * @param chunkX the chunk X coordinate
+     * @param chunkZ the chunk Z coordinate
+     * @return true if the chunk's data may be touched from the calling thread
+     */
+    boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ);
+
+    /**
+     * Creates a tick clock whose tasks run on the thread that owns a chunk.
+     *
+     * @param world  the world
+     * @param chunkX the chunk X coordinate
+     * @param chunkZ the chunk Z coordinate
+     * @return the tick clock
+     */
+    TickClock clockAt(World world, int chunkX, int chunkZ);
+}
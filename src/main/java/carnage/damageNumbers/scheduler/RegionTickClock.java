@@ -0,0 +1,76 @@
+package carnage.damageNumbers.scheduler;
+
+import org.bukkit.World;
+import org.bukkit.plugin.Plugin;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tick clock whose tasks run on the region owning one chunk, so everything it drives stays on one thread at a time.
+ * Task IDs map to scheduler handles until the task runs or is cancelled.
+ */
+public class RegionTickClock implements TickClock {
+    private final Plugin plugin;
+    private final PluginScheduler scheduler;
+    private final World world;
+    private final int chunkX;
+    private final int chunkZ;
+    private final AtomicInteger nextTaskId;
+    private final Map<Integer, TaskHandle> tasks;
+
+    /**
+     * Creates a clock anchored to a chunk.
+     *
+     * @param plugin    the owning plugin
+     * @param scheduler the scheduler to run tasks with
+     * @param world     the world
+     * @param chunkX    the anchor chunk X coordinate
+     * @param chunkZ    the anchor chunk Z coordinate
+     */
+    public RegionTickClock(Plugin plugin, PluginScheduler scheduler, World world, int chunkX, int chunkZ) {
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.nextTaskId = new AtomicInteger(1);
+        this.tasks = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public long currentTick() {
+        return plugin.getServer().getCurrentTick();
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public int runLater(Runnable task, long delayTicks) {
+        int taskId = nextTaskId.getAndIncrement();
+        tasks.put(taskId, scheduler.runAtChunk(world, chunkX, chunkZ, () -> {
+            tasks.remove(taskId);
+            task.run();
+        }, delayTicks));
+        return taskId;
+    }
+
+    @Override
+    public int runRepeating(Runnable task, long delayTicks, long periodTicks) {
+        int taskId = nextTaskId.getAndIncrement();
+        tasks.put(taskId, scheduler.runAtChunkRepeating(world, chunkX, chunkZ, task, delayTicks, periodTicks));
+        return taskId;
+    }
+
+    @Override
+    public void cancel(int taskId) {
+        TaskHandle handle = tasks.remove(taskId);
+        if (handle != null) {
+            handle.cancel();
+        }
+    }
+}
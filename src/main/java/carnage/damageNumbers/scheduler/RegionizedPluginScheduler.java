@@ -0,0 +1,75 @@
+package carnage.damageNumbers.scheduler;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Plugin scheduler backed by the region, entity, global and async schedulers of a regionized (Folia) server.
+ * Region schedulers reject delays below one tick, so a zero delay runs the task on the owning thread's next tick.
+ */
+public class RegionizedPluginScheduler implements PluginScheduler {
+    private final Plugin plugin;
+
+    public RegionizedPluginScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean isRegionized() {
+        return true;
+    }
+
+    @Override
+    public TaskHandle runForEntity(Entity entity, Runnable task, long delayTicks) {
+        ScheduledTask scheduled = entity.getScheduler().runDelayed(plugin, ignored -> task.run(), null, Math.max(1L, delayTicks));
+        return scheduled != null ? scheduled::cancel : () -> { };
+    }
+
+    @Override
+    public TaskHandle runForEntity(Entity entity, Runnable task, Runnable retired, long delayTicks) {
+        ScheduledTask scheduled = entity.getScheduler().runDelayed(plugin, ignored -> task.run(), retired, Math.max(1L, delayTicks));
+        if (scheduled == null) {
+            retired.run();
+            return () -> { };
+        }
+        return scheduled::cancel;
+    }
+
+    @Override
+    public TaskHandle runAtChunk(World world, int chunkX, int chunkZ, Runnable task, long delayTicks) {
+        ScheduledTask scheduled = plugin.getServer().getRegionScheduler()
+                .runDelayed(plugin, world, chunkX, chunkZ, ignored -> task.run(), Math.max(1L, delayTicks));
+        return scheduled::cancel;
+    }
+
+    @Override
+    public TaskHandle runAtChunkRepeating(World world, int chunkX, int chunkZ, Runnable task, long delayTicks, long periodTicks) {
+        ScheduledTask scheduled = plugin.getServer().getRegionScheduler()
+                .runAtFixedRate(plugin, world, chunkX, chunkZ, ignored -> task.run(), Math.max(1L, delayTicks), Math.max(1L, periodTicks));
+        return scheduled::cancel;
+    }
+
+    @Override
+    public TaskHandle runGlobal(Runnable task, long delayTicks) {
+        ScheduledTask scheduled = plugin.getServer().getGlobalRegionScheduler()
+                .runDelayed(plugin, ignored -> task.run(), Math.max(1L, delayTicks));
+        return scheduled::cancel;
+    }
+
+    @Override
+    public void runAsync(Runnable task) {
+        plugin.getServer().getAsyncScheduler().runNow(plugin, ignored -> task.run());
+    }
+
+    @Override
+    public boolean isOwnedByCurrentThread(World world, int chunkX, int chunkZ) {
+        return plugin.getServer().isOwnedByCurrentRegion(world, chunkX, chunkZ);
+    }
+
+    @Override
+    public TickClock clockAt(World world, int chunkX, int chunkZ) {
+        return new RegionTickClock(plugin, this, world, chunkX, chunkZ);
+    }
+}
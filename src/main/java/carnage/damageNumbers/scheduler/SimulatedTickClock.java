@@ -0,0 +1,118 @@
+package carnage.damageNumbers.scheduler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Manually advanced tick clock for running the pipeline without a server.
+ * Follows Bukkit semantics: a task scheduled with a delay of zero runs on the next tick.
+ * Repeating tasks are re-queued in place, so a steady state of repeating tasks does not allocate.
+ */
+public class SimulatedTickClock implements TickClock {
+    private static final long MILLIS_PER_TICK = 50L;
+
+    private final PriorityQueue<ScheduledTask> queue;
+    private final Map<Integer, ScheduledTask> pending;
+    private long tick;
+    private int nextTaskId;
+
+    public SimulatedTickClock() {
+        this.queue = new PriorityQueue<>();
+        this.pending = new HashMap<>();
+        this.nextTaskId = 1;
+    }
+
+    /**
+     * A task waiting for its due tick.
+     */
+    private static final class ScheduledTask implements Comparable<ScheduledTask> {
+        private final int id;
+        private final long periodTicks;
+        private final Runnable task;
+        private long dueTick;
+
+        ScheduledTask(int id, long dueTick, long periodTicks, Runnable task) {
+            this.id = id;
+            this.dueTick = dueTick;
+            this.periodTicks = periodTicks;
+            this.task = task;
+        }
+
+        @Override
+        public int compareTo(ScheduledTask other) {
+            int byTick = Long.compare(dueTick, other.dueTick);
+            return byTick != 0 ? byTick : Integer.compare(id, other.id);
+        }
+    }
+
+    @Override
+    public long currentTick() {
+        return tick;
+    }
+
+    @Override
+    public long currentTimeMillis() {
+        return tick * MILLIS_PER_TICK;
+    }
+
+    @Override
+    public int runLater(Runnable task, long delayTicks) {
+        return schedule(task, delayTicks, 0L);
+    }
+
+    @Override
+    public int runRepeating(Runnable task, long delayTicks, long periodTicks) {
+        return schedule(task, delayTicks, Math.max(1L, periodTicks));
+    }
+
+    @Override
+    public void cancel(int taskId) {
+        ScheduledTask scheduled = pending.remove(taskId);
+        if (scheduled != null) {
+            queue.remove(scheduled);
+        }
+    }
+
+    /**
+     * Advances the clock by one tick and runs every task that became due.
+     */
+    public void advance() {
+        tick++;
+        while (!queue.isEmpty() && queue.peek().dueTick <= tick) {
+            ScheduledTask scheduled = queue.poll();
+            if (scheduled.periodTicks > 0) {
+                scheduled.dueTick += scheduled.periodTicks;
+                queue.add(scheduled);
+            } else {
+                pending.remove(scheduled.id);
+            }
+            scheduled.task.run();
+        }
+    }
+
+    /**
+     * Queues a task.
+     *
+     * @param task        the task to run
+     * @param delayTicks  the delay in ticks
+     * @param periodTicks the repeat interval in ticks, or 0 to run once
+     * @return the task ID
+     */
+    private int schedule(Runnable task, long delayTicks, long periodTicks) {
+        int taskId = nextTaskId++;
+        ScheduledTask scheduled = new ScheduledTask(taskId, tick + Math.max(1L, delayTicks), periodTicks, task);
+        queue.add(scheduled);
+        pending.put(taskId, scheduled);
+        return taskId;
+    }
+
+    /**
+     * Gets the number of tasks still waiting to run.
+     *
+     * @return the pending task count
+     */
+    public int pendingTasks() {
+        return pending.size();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,13 @@
+package carnage.damageNumbers.scheduler;
+
+/**
+ * A scheduled task that can be cancelled, independent of the scheduler backend that created it.
+ */
+@FunctionalInterface
+public interface TaskHandle {
+
+    /**
+     * Cancels the task if it has not run yet, or stops it if it repeats.
+     */
+    void cancel();
+}
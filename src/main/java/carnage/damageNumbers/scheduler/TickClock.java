@@ -0,0 +1,47 @@
+package carnage.damageNumbers.scheduler;
+
+/**
+ * Source of server time and delayed task execution used by the hologram pipeline.
+ */
+public interface TickClock {
+
+    /**
+     * Gets the current server tick.
+     *
+     * @return the current tick
+     */
+    long currentTick();
+
+    /**
+     * Gets the current wall-clock time in milliseconds.
+     *
+     * @return the current time in milliseconds
+     */
+    long currentTimeMillis();
+
+    /**
+     * Runs a task after the given number of ticks.
+     *
+     * @param task       the task to run
+     * @param delayTicks the delay in ticks
+     * @return the task ID, usable with {@link #cancel(int)}
+     */
+    int runLater(Runnable task, long delayTicks);
+
+    /**
+     * Runs a task repeatedly until cancelled.
+     *
+     * @param task        the task to run
+     * @param delayTicks  the delay before the first run in ticks
+     * @param periodTicks the interval between runs in ticks
+     * @return the task ID, usable with {@link #cancel(int)}
+     */
+    int runRepeating(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Cancels a pending task.
+     *
+     * @param taskId the task ID returned by {@link #runLater(Runnable, long)}
+     */
+    void cancel(int taskId);
+}
\ No newline at end of file
@@ -0,0 +1,56 @@
+package carnage.damageNumbers.util;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-key cooldowns that stay correct when the same key is checked from several threads at once.
+ * Accepting an event is a single compare-and-set on the key's last accepted time, so of any number of
+ * concurrent callers inside one cooldown window exactly one is accepted, with no check-then-put gap.
+ */
+public final class CooldownMap {
+    private final Map<UUID, Long> lastAcceptedTimes;
+
+    public CooldownMap() {
+        this.lastAcceptedTimes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Accepts an event for a key unless one was accepted within the cooldown.
+     *
+     * @param key        the key, such as a player's UUID
+     * @param now        the current time in milliseconds
+     * @param cooldownMs the cooldown in milliseconds
+     * @return true if the event was accepted, false if the key is on cooldown or another thread won the race
+     */
+    public boolean tryAcquire(UUID key, long now, long cooldownMs) {
+        Long lastAccepted = lastAcceptedTimes.get(key);
+        if (lastAccepted == null) {
+            return lastAcceptedTimes.putIfAbsent(key, now) == null;
+        }
+        if (now - lastAccepted < cooldownMs) {
+            return false;
+        }
+        return lastAcceptedTimes.replace(key, lastAccepted, now);
+    }
+
+    /**
+     * Drops the keys whose cooldown has expired, so keys seen once are not kept forever.
+     *
+     * @param now        the current time in milliseconds
+     * @param cooldownMs the cooldown in milliseconds
+     */
+    public void sweep(long now, long cooldownMs) {
+        lastAcceptedTimes.values().removeIf(lastAccepted -> now - lastAccepted >= cooldownMs);
+    }
+
+    /**
+     * Gets the number of keys currently tracked.
+     *
+     * @return the number of keys
+     */
+    public int size() {
+        return lastAcceptedTimes.size();
+    }
+}
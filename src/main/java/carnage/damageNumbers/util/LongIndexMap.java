@@ -0,0 +1,238 @@
+package carnage.damageNumbers.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive long keys to non-negative int values, typically row or slot indices
+ * into parallel arrays. Lookups and inserts perform no allocation and no boxing; the table only grows on insert.
+ * Not thread-safe.
+ */
+public final class LongIndexMap {
+    public static final int MISSING = -1;
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasEmptyKey;
+    private int emptyKeyValue;
+
+    /**
+     * Creates a map sized for the expected number of entries.
+     *
+     * @param expectedSize the number of entries expected without resizing
+     */
+    public LongIndexMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Creates a copy of another map with the same capacity and entries.
+     *
+     * @param other the map to copy
+     */
+    public LongIndexMap(LongIndexMap other) {
+        this.keys = other.keys.clone();
+        this.values = other.values.clone();
+        this.mask = other.mask;
+        this.size = other.size;
+        this.resizeAt = other.resizeAt;
+        this.hasEmptyKey = other.hasEmptyKey;
+        this.emptyKeyValue = other.emptyKeyValue;
+    }
+
+    /**
+     * Gets the value for a key.
+     *
+     * @param key the key
+     * @return the value, or {@link #MISSING} if absent
+     */
+    public int get(long key) {
+        if (key == EMPTY_KEY) {
+            return hasEmptyKey ? emptyKeyValue : MISSING;
+        }
+        int index = slot(key);
+        while (true) {
+            long existing = keys[index];
+            if (existing == EMPTY_KEY) {
+                return MISSING;
+            }
+            if (existing == key) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     *
+     * @param key   the key
+     * @param value the non-negative value
+     */
+    public void put(long key, int value) {
+        if (key == EMPTY_KEY) {
+            if (!hasEmptyKey) {
+                size++;
+            }
+            hasEmptyKey = true;
+            emptyKeyValue = value;
+            return;
+        }
+        int index = slot(key);
+        while (true) {
+            long existing = keys[index];
+            if (existing == EMPTY_KEY) {
+                keys[index] = key;
+                values[index] = value;
+                if (++size >= resizeAt) {
+                    rehash(keys.length * 2);
+                }
+                return;
+            }
+            if (existing == key) {
+                values[index] = value;
+                return;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key the key
+     * @return the removed value, or {@link #MISSING} if absent
+     */
+    public int remove(long key) {
+        if (key == EMPTY_KEY) {
+            if (!hasEmptyKey) {
+                return MISSING;
+            }
+            hasEmptyKey = false;
+            size--;
+            return emptyKeyValue;
+        }
+        int index = slot(key);
+        while (true) {
+            long existing = keys[index];
+            if (existing == EMPTY_KEY) {
+                return MISSING;
+            }
+            if (existing == key) {
+                int removed = values[index];
+                shiftBack(index);
+                size--;
+                return removed;
+            }
+            index = (index + 1) & mask;
+        }
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the entry count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes every entry, keeping the current capacity.
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        Arrays.fill(keys, EMPTY_KEY);
+        hasEmptyKey = false;
+        size = 0;
+    }
+
+    /**
+     * Closes the gap left by a removed entry so later probes still find displaced keys.
+     *
+     * @param gap the index of the removed entry
+     */
+    private void shiftBack(int gap) {
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            long key = keys[index];
+            if (key == EMPTY_KEY) {
+                break;
+            }
+            int home = slot(key);
+            boolean movable = gap <= index ? (home <= gap || home > index) : (home <= gap && home > index);
+            if (movable) {
+                keys[gap] = key;
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        keys[gap] = EMPTY_KEY;
+    }
+
+    /**
+     * Computes the home slot of a key.
+     *
+     * @param key the key
+     * @return the slot index
+     */
+    private int slot(long key) {
+        long hash = key * MIX;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Moves every entry into a table of the given capacity.
+     *
+     * @param capacity the new power-of-two capacity
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY_KEY) {
+                int index = slot(key);
+                while (keys[index] != EMPTY_KEY) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Allocates empty tables.
+     *
+     * @param capacity the power-of-two capacity
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+        mask = capacity - 1;
+        resizeAt = capacity / 2;
+    }
+
+    /**
+     * Gets the table size for an expected entry count at a load factor of one half.
+     *
+     * @param expectedSize the expected entry count
+     * @return the power-of-two table size
+     */
+    private static int tableSizeFor(int expectedSize) {
+        int needed = Math.max(MIN_CAPACITY, expectedSize * 2);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+}
\ No newline at end of file
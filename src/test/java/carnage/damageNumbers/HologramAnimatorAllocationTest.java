@@ -0,0 +1,79 @@
+package carnage.damageNumbers;
+
+import carnage.damageNumbers.packet.RecordingPacketSink;
+import carnage.damageNumbers.scheduler.SimulatedTickClock;
+import carnage.damageNumbers.simulation.SimulatedPlayers;
+import carnage.damageNumbers.simulation.SimulationHarness;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks that steady-state {@link HologramAnimator} frames do not allocate, using the current thread's
+ * allocation counter. Holograms are spawned with a lifetime that outlasts the measurement and the animation
+ * path is warmed up first, so only ticks in which every hologram is animated and none are spawned or
+ * destroyed are measured.
+ */
+class HologramAnimatorAllocationTest {
+    private static final Logger LOGGER = Logger.getLogger("DamageNumbers-Test");
+    private static final int HOLOGRAMS = 200;
+    private static final int WARMUP_TICKS = 2000;
+    private static final int MEASURED_TICKS = 500;
+    private static final double TARGET_SPACING = 3.0;
+
+    @Test
+    void steadyStateFramesDoNotAllocate() {
+        com.sun.management.ThreadMXBean threadBean = allocationCounter();
+        assumeTrue(threadBean != null, "JVM does not support thread allocation tracking");
+
+        int lifetime = WARMUP_TICKS + MEASURED_TICKS + 1;
+        FileConfiguration config = SimulationHarness.loadDefaultConfig();
+        config.set("advanced.lifetime.normal", lifetime);
+        config.set("advanced.lifetime.critical", lifetime);
+
+        SimulatedTickClock clock = new SimulatedTickClock();
+        RecordingPacketSink sink = new RecordingPacketSink(false);
+        DamageNumberHandler handler = new DamageNumberHandler(() -> config, LOGGER, sink, clock);
+        Player viewer = SimulatedPlayers.create(0);
+        Set<Player> viewers = Set.of(viewer);
+        for (int i = 0; i < HOLOGRAMS; i++) {
+            Location target = new Location(null, (i % 15) * TARGET_SPACING, 64.0, (i / 15) * TARGET_SPACING);
+            handler.displayDamageHologram(i, target, 1.0 + i % 20, i % 5 == 0, viewers);
+        }
+        for (int tick = 0; tick < WARMUP_TICKS; tick++) {
+            clock.advance();
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long teleportsBefore = sink.getTeleports();
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int tick = 0; tick < MEASURED_TICKS; tick++) {
+            clock.advance();
+        }
+        long allocatedAfter = threadBean.getThreadAllocatedBytes(threadId);
+
+        assertEquals((long) HOLOGRAMS * MEASURED_TICKS / HologramAnimator.FRAME_INTERVAL, sink.getTeleports() - teleportsBefore, "every hologram should move every frame");
+        assertEquals(0, (allocatedAfter - allocatedBefore) / MEASURED_TICKS, "bytes allocated per steady-state tick");
+    }
+
+    /**
+     * Gets the thread management bean if it can count the current thread's allocations.
+     *
+     * @return the bean, or null if allocation tracking is unsupported
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported()) {
+            return sunBean;
+        }
+        return null;
+    }
+}
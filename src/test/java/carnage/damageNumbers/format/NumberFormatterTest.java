@@ -0,0 +1,105 @@
+package carnage.damageNumbers.format;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * Compares {@link NumberFormatter} against {@code DecimalFormat("#,##0.#")} on edge cases and random values,
+ * and checks compact suffixes against expected strings.
+ */
+class NumberFormatterTest {
+    private static final int SAMPLES = 100_000;
+    private static final long SEED = 42L;
+    private static final int MAX_REPORTED = 10;
+    private static final Duration FORMAT_TIMEOUT = Duration.ofSeconds(1);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "en", "de", "fr", "ar", "fa"})
+    void matchesDecimalFormat(String languageTag) {
+        Locale locale = NumberFormatter.parseLocale(languageTag);
+        DecimalFormat reference = new DecimalFormat("#,##0.#", DecimalFormatSymbols.getInstance(locale));
+        NumberFormatter formatter = new NumberFormatter(locale, false, 0);
+        double[] edgeCases = {0.0, -0.0, 0.05, 0.15, 0.25, -0.04, -0.05, 0.95, 9.95, 999.95, 1234567.85,
+                Double.MIN_VALUE, Double.MAX_VALUE, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1.0e15, -1.0e300};
+        List<String> mismatches = new ArrayList<>();
+
+        for (double value : edgeCases) {
+            compare(reference, formatter, value, mismatches);
+        }
+        Random random = new Random(SEED);
+        for (int i = 0; i < SAMPLES; i++) {
+            double value = switch (i % 4) {
+                case 0 -> random.nextDouble() * 100;
+                case 1 -> Math.round(random.nextDouble() * 100000) / 100.0 + 0.05;
+                case 2 -> Double.longBitsToDouble(random.nextLong());
+                default -> random.nextDouble() * Math.pow(10, random.nextInt(18)) * (random.nextBoolean() ? 1 : -1);
+            };
+            compare(reference, formatter, value, mismatches);
+        }
+
+        assertEquals(List.of(), mismatches.subList(0, Math.min(MAX_REPORTED, mismatches.size())),
+                mismatches.size() + " values formatted differently from DecimalFormat");
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "999.9                   | 999.9",
+            "1000                    | 1k",
+            "1250                    | 1.2k",
+            "1350                    | 1.4k",
+            "999949                  | 999.9k",
+            "999999                  | 1M",
+            "-1500000                | -1.5M",
+            "-0.0                    | -0",
+            "1.0E12                  | 1T",
+            "1.0E15                  | 1,000T",
+            "9.9999E13               | 100T",
+            "5.0E28                  | 50,000,000,000,000,000T",
+            "-1.0E30                 | -1,000,000,000,000,000,000T",
+            "3.4028234663852886E38   | 340,282,346,638,528,860,000,000,000T",
+            "Infinity                | ∞",
+            "-Infinity               | -∞"
+    })
+    void formatsCompactSuffixes(double value, String expected) {
+        NumberFormatter formatter = new NumberFormatter(Locale.ENGLISH, true, 1000);
+        assertEquals(expected, assertTimeoutPreemptively(FORMAT_TIMEOUT, () -> formatter.format(value)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {1.0e20, 1.0e300, Double.MAX_VALUE, -Double.MAX_VALUE})
+    void formatsHugeCompactAmountsWithLargestSuffix(double value) {
+        NumberFormatter formatter = new NumberFormatter(Locale.ENGLISH, true, 1000);
+        DecimalFormat reference = new DecimalFormat("#,##0.#", DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+        String expected = reference.format(BigDecimal.valueOf(value).movePointLeft(12)) + "T";
+        assertEquals(expected, assertTimeoutPreemptively(FORMAT_TIMEOUT, () -> formatter.format(value)));
+    }
+
+    /**
+     * Formats a value both ways and records any disagreement.
+     *
+     * @param reference  the reference DecimalFormat
+     * @param formatter  the formatter under test
+     * @param value      the value to format
+     * @param mismatches the disagreements found so far
+     */
+    private static void compare(DecimalFormat reference, NumberFormatter formatter, double value, List<String> mismatches) {
+        String expected = reference.format(value);
+        String actual = formatter.format(value);
+        if (!expected.equals(actual)) {
+            mismatches.add(value + ": expected '" + expected + "', got '" + actual + "'");
+        }
+    }
+}
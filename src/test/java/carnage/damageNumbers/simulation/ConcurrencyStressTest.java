@@ -0,0 +1,288 @@
+package carnage.damageNumbers.simulation;
+
+import carnage.damageNumbers.DamageNumberHandler;
+import carnage.damageNumbers.packet.RecordingPacketSink;
+import carnage.damageNumbers.scheduler.TickClock;
+import carnage.damageNumbers.util.CooldownMap;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Hammers the paths that are reached from several threads on a regionized server, and checks their invariants:
+ * hologram entity IDs are never handed out twice, a cooldown accepts exactly one of any number of racing events,
+ * and healing stacks conserve their totals with every stack flushed exactly once while flushes race new heals.
+ */
+class ConcurrencyStressTest {
+    private static final Logger LOGGER = Logger.getLogger("DamageNumbers-Stress");
+    private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int OPERATIONS = 200_000;
+    private static final long COOLDOWN_MS = 50;
+    private static final int COOLDOWN_KEYS = 16;
+    private static final int HEALED_ENTITIES = 32;
+
+    /**
+     * Manually drained clock whose tasks may be scheduled and cancelled from any thread.
+     * Time stands still, so every heal lands inside the stacking window.
+     */
+    private static final class StressClock implements TickClock {
+        private final Map<Integer, Runnable> pending;
+        private final AtomicInteger nextTaskId;
+
+        StressClock() {
+            this.pending = new ConcurrentHashMap<>();
+            this.nextTaskId = new AtomicInteger(1);
+        }
+
+        @Override
+        public long currentTick() {
+            return 0;
+        }
+
+        @Override
+        public long currentTimeMillis() {
+            return 0;
+        }
+
+        @Override
+        public int runLater(Runnable task, long delayTicks) {
+            int taskId = nextTaskId.getAndIncrement();
+            pending.put(taskId, task);
+            return taskId;
+        }
+
+        @Override
+        public int runRepeating(Runnable task, long delayTicks, long periodTicks) {
+            return nextTaskId.getAndIncrement();
+        }
+
+        @Override
+        public void cancel(int taskId) {
+            pending.remove(taskId);
+        }
+
+        /**
+         * Runs every task pending now. Only called from one thread at a time.
+         *
+         * @return the number of tasks run
+         */
+        int drain() {
+            int ran = 0;
+            for (Integer taskId : pending.keySet()) {
+                Runnable task = pending.remove(taskId);
+                if (task != null) {
+                    task.run();
+                    ran++;
+                }
+            }
+            return ran;
+        }
+    }
+
+    /**
+     * Packet sink that also keeps the plain text of every spawned hologram, by viewer.
+     */
+    private static final class CapturingSink extends RecordingPacketSink {
+        private final Map<UUID, List<String>> spawnedTexts;
+
+        CapturingSink() {
+            super(false);
+            this.spawnedTexts = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        public void spawn(Player viewer, int entityId, double x, double y, double z, Component text) {
+            super.spawn(viewer, entityId, x, y, z, text);
+            spawnedTexts.computeIfAbsent(viewer.getUniqueId(), id -> new ArrayList<>())
+                    .add(PlainTextComponentSerializer.plainText().serialize(text));
+        }
+    }
+
+    /**
+     * Checks that concurrently allocated hologram entity IDs are unique.
+     */
+    @Test
+    void entityIdsAreUnique() {
+        FileConfiguration config = SimulationHarness.loadDefaultConfig();
+        DamageNumberHandler handler = new DamageNumberHandler(() -> config, LOGGER, new RecordingPacketSink(false), new StressClock());
+        Set<Integer> allocated = ConcurrentHashMap.newKeySet();
+        AtomicInteger duplicates = new AtomicInteger();
+        int perThread = OPERATIONS / THREADS;
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < perThread; i++) {
+                if (!allocated.add(handler.nextEntityId())) {
+                    duplicates.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(0, duplicates.get(), "duplicate entity IDs");
+    }
+
+    /**
+     * Checks that of all threads racing on the same keys in a round, exactly one is accepted per key.
+     */
+    @Test
+    void cooldownsAcceptExactlyOneRacingEvent() {
+        int rounds = OPERATIONS / 100;
+        CooldownMap cooldowns = new CooldownMap();
+        UUID[] keys = new UUID[COOLDOWN_KEYS];
+        for (int key = 0; key < keys.length; key++) {
+            keys[key] = new UUID(0xC001_0000_0000_0000L, key);
+        }
+        AtomicIntegerArray accepted = new AtomicIntegerArray(rounds * keys.length);
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        runConcurrently(THREADS, thread -> {
+            for (int round = 0; round < rounds; round++) {
+                awaitBarrier(barrier);
+                long now = round * COOLDOWN_MS;
+                for (int i = 0; i < keys.length; i++) {
+                    int key = (i + thread) % keys.length;
+                    if (cooldowns.tryAcquire(keys[key], now, COOLDOWN_MS)) {
+                        accepted.incrementAndGet(round * keys.length + key);
+                    }
+                }
+            }
+        });
+
+        int violations = 0;
+        for (int slot = 0; slot < accepted.length(); slot++) {
+            if (accepted.get(slot) != 1) {
+                violations++;
+            }
+        }
+        assertEquals(0, violations, "cooldown windows not accepting exactly one event");
+    }
+
+    /**
+     * Checks that healing stacks conserve their totals while heals from many threads race flushes on another.
+     */
+    @Test
+    void healStacksConserveTotals() {
+        FileConfiguration config = SimulationHarness.loadDefaultConfig();
+        config.set("formats.healing", "%s");
+        config.set("formats.locale", "en");
+        config.set("formats.compact.enabled", false);
+        config.set("advanced.stacking.healing-enabled", true);
+        StressClock clock = new StressClock();
+        CapturingSink sink = new CapturingSink();
+        DamageNumberHandler handler = new DamageNumberHandler(() -> config, LOGGER, sink, clock);
+
+        Player[] healed = new Player[HEALED_ENTITIES];
+        for (int i = 0; i < healed.length; i++) {
+            healed[i] = SimulatedPlayers.create(i);
+        }
+        Location location = new Location(null, 0.0, 64.0, 0.0);
+        AtomicLongArray expected = new AtomicLongArray(healed.length);
+        AtomicBoolean healing = new AtomicBoolean(true);
+        Thread flusher = Thread.ofPlatform().name("stress-flusher").start(() -> {
+            while (healing.get()) {
+                clock.drain();
+            }
+        });
+
+        int perThread = OPERATIONS / THREADS;
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < perThread; i++) {
+                int entity = (thread * 7 + i) % healed.length;
+                int amount = 1 + i % 4;
+                Player player = healed[entity];
+                expected.addAndGet(entity, amount);
+                handler.displayHealingHologram(player, amount, () -> location, () -> Set.of(player));
+            }
+        });
+        healing.set(false);
+        joinQuietly(flusher);
+        int ran;
+        do {
+            ran = clock.drain();
+        } while (ran > 0);
+
+        for (int entity = 0; entity < healed.length; entity++) {
+            List<String> texts = sink.spawnedTexts.getOrDefault(healed[entity].getUniqueId(), List.of());
+            long shown = 0;
+            for (String text : texts) {
+                shown += Math.round(Double.parseDouble(text.replace(",", "")));
+            }
+            assertEquals(expected.get(entity), shown, "healing shown for entity " + entity);
+        }
+    }
+
+    /**
+     * Runs a worker on several platform threads released at the same moment, and waits for all of them.
+     *
+     * @param threads the number of threads
+     * @param worker  the work, given the thread index
+     */
+    private static void runConcurrently(int threads, IntConsumer worker) {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> started = new ArrayList<>(threads);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        for (int thread = 0; thread < threads; thread++) {
+            int index = thread;
+            started.add(Thread.ofPlatform().name("stress-" + index).start(() -> {
+                try {
+                    start.await();
+                    worker.accept(index);
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            }));
+        }
+        start.countDown();
+        started.forEach(ConcurrencyStressTest::joinQuietly);
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Stress worker failed", failures.peek());
+        }
+    }
+
+    /**
+     * Waits at a barrier, turning its checked exceptions into unchecked ones.
+     *
+     * @param barrier the barrier
+     */
+    private static void awaitBarrier(CyclicBarrier barrier) {
+        try {
+            barrier.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (BrokenBarrierException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Joins a thread, restoring the interrupt flag if interrupted.
+     *
+     * @param thread the thread
+     */
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
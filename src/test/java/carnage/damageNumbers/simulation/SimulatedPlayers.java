@@ -0,0 +1,85 @@
+package carnage.damageNumbers.simulation;
+
+import org.bukkit.entity.Player;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+/**
+ * Creates stand-in {@link Player} instances for headless simulation.
+ * Only identity and online state are meaningful; every other method returns a default value.
+ */
+public final class SimulatedPlayers {
+    private static final int FIRST_ENTITY_ID = 1_000_000;
+
+    private SimulatedPlayers() {
+    }
+
+    /**
+     * Creates a simulated online player.
+     *
+     * @param index a unique index for the player, used to derive its name, UUID and entity ID
+     * @return the simulated player
+     */
+    public static Player create(int index) {
+        String name = "sim-" + index;
+        UUID uuid = new UUID(0x5EED_0000_0000_0000L, index);
+        int entityId = FIRST_ENTITY_ID + index;
+
+        return (Player) Proxy.newProxyInstance(Player.class.getClassLoader(), new Class<?>[]{Player.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getName":
+                    return name;
+                case "getUniqueId":
+                    return uuid;
+                case "getEntityId":
+                    return entityId;
+                case "isOnline":
+                case "isValid":
+                    return true;
+                case "hashCode":
+                    return uuid.hashCode();
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return "SimulatedPlayer{" + name + "}";
+                default:
+                    return defaultValue(method.getReturnType());
+            }
+        });
+    }
+
+    /**
+     * Gets the default value for a return type.
+     *
+     * @param type the return type
+     * @return zero, false, or null
+     */
+    private static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == double.class) {
+            return 0.0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,219 @@
+package carnage.damageNumbers.simulation;
+
+import carnage.damageNumbers.DamageNumberHandler;
+import carnage.damageNumbers.journal.JournalRecord;
+import carnage.damageNumbers.journal.JournalReplayer;
+import carnage.damageNumbers.packet.RecordingPacketSink;
+import carnage.damageNumbers.scheduler.SimulatedTickClock;
+import org.bukkit.Location;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+import java.util.logging.Logger;
+
+/**
+ * Replays a synthetic fight through {@link DamageNumberHandler} without a server,
+ * using a {@link RecordingPacketSink} and a {@link SimulatedTickClock}.
+ * Runnable from the command line for load modeling:
+ * {@code java -cp <classpath> carnage.damageNumbers.simulation.SimulationHarness <attackers> <targets> <viewers> <ticks> [hit-interval]},
+ * or to replay a recorded damage journal:
+ * {@code java -cp <classpath> carnage.damageNumbers.simulation.SimulationHarness replay <journal-file> <max-viewers> [speed]}
+ */
+public final class SimulationHarness {
+    private static final Logger LOGGER = Logger.getLogger("DamageNumbers-Simulation");
+    private static final double TARGET_SPACING = 3.0;
+
+    private SimulationHarness() {
+    }
+
+    /**
+     * Loads the bundled default configuration.
+     *
+     * @return the default configuration
+     */
+    public static FileConfiguration loadDefaultConfig() {
+        InputStream stream = SimulationHarness.class.getResourceAsStream("/config.yml");
+        if (stream == null) {
+            return new YamlConfiguration();
+        }
+        return YamlConfiguration.loadConfiguration(new InputStreamReader(stream, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Runs a scenario against the given configuration. Hits are merged into live numbers when the
+     * configuration enables the merge stacking mode.
+     *
+     * @param scenario the scenario to simulate
+     * @param config   the plugin configuration to simulate with
+     * @return the collected measurements
+     */
+    public static SimulationReport run(SimulationScenario scenario, FileConfiguration config) {
+        SimulatedTickClock clock = new SimulatedTickClock();
+        RecordingPacketSink sink = new RecordingPacketSink(false);
+        DamageNumberHandler handler = new DamageNumberHandler(() -> config, LOGGER, sink, clock);
+
+        List<Player> viewerList = new ArrayList<>(scenario.viewers());
+        for (int i = 0; i < scenario.viewers(); i++) {
+            viewerList.add(SimulatedPlayers.create(i));
+        }
+        Set<Player> viewers = new HashSet<>(viewerList);
+        Location[] targets = createTargets(scenario.targets());
+
+        boolean merge = config.getBoolean("advanced.stacking.enabled", false)
+                && "merge".equalsIgnoreCase(config.getString("advanced.stacking.mode", "delayed"));
+        long[] hits = new long[1];
+        return measure(scenario, clock, sink, handler, tick -> {
+            for (int attacker = 0; attacker < scenario.attackers(); attacker++) {
+                if ((tick + attacker) % scenario.hitIntervalTicks() != 0) {
+                    continue;
+                }
+                for (int target = 0; target < targets.length; target++) {
+                    double amount = 1.0 + (attacker * 31 + target * 17 + tick) % 20;
+                    boolean isCritical = (attacker + target + tick) % 5 == 0;
+                    if (merge) {
+                        handler.displayMergedDamageHologram(((long) attacker << 32) | target, target, targets[target], amount, isCritical, viewers);
+                    } else {
+                        handler.displayDamageHologram(target, targets[target], amount, isCritical, viewers);
+                    }
+                    hits[0]++;
+                }
+            }
+        }, hits);
+    }
+
+    /**
+     * Replays recorded journal events through the handler. Each record is shown to as many simulated
+     * viewers as it was recorded with, capped at {@code maxViewers}.
+     *
+     * @param records    the journal records
+     * @param speed      the playback speed, where 1.0 is recorded speed
+     * @param maxViewers the maximum number of simulated viewers
+     * @param config     the plugin configuration to simulate with
+     * @return the collected measurements
+     */
+    public static SimulationReport replay(List<JournalRecord> records, double speed, int maxViewers, FileConfiguration config) {
+        SimulatedTickClock clock = new SimulatedTickClock();
+        RecordingPacketSink sink = new RecordingPacketSink(false);
+        DamageNumberHandler handler = new DamageNumberHandler(() -> config, LOGGER, sink, clock);
+
+        List<Set<Player>> viewerSets = new ArrayList<>(maxViewers + 1);
+        Set<Player> current = new LinkedHashSet<>();
+        viewerSets.add(Set.copyOf(current));
+        for (int i = 0; i < maxViewers; i++) {
+            current.add(SimulatedPlayers.create(i));
+            viewerSets.add(Set.copyOf(current));
+        }
+
+        Set<UUID> attackers = new HashSet<>();
+        Set<UUID> targets = new HashSet<>();
+        records.forEach(record -> {
+            attackers.add(record.attacker());
+            targets.add(record.target());
+        });
+
+        long replayTicks = new JournalReplayer(handler, clock).replay(records, speed, null,
+                viewerCount -> viewerSets.get(Math.min(viewerCount, maxViewers)));
+        int lifetime = Math.max(config.getInt("advanced.lifetime.critical", 40), config.getInt("advanced.lifetime.healing", 40));
+        int ticks = (int) Math.min(Integer.MAX_VALUE, replayTicks + lifetime + config.getInt("healing.stack-delay-ticks", 10) + 1);
+
+        SimulationScenario scenario = new SimulationScenario(Math.max(attackers.size(), 1), Math.max(targets.size(), 1), Math.max(maxViewers, 1), ticks, 1);
+        return measure(scenario, clock, sink, handler, tick -> {
+        }, new long[]{records.size()});
+    }
+
+    /**
+     * Advances the clock for the scenario's ticks, injecting load each tick and collecting measurements.
+     *
+     * @param scenario the scenario being measured
+     * @param clock    the simulated clock
+     * @param sink     the recording sink
+     * @param handler  the handler under test
+     * @param perTick  injects the load for a tick, before the clock advances
+     * @param hits     single-element holder for the number of hits injected
+     * @return the collected measurements
+     */
+    private static SimulationReport measure(SimulationScenario scenario, SimulatedTickClock clock, RecordingPacketSink sink,
+                                            DamageNumberHandler handler, IntConsumer perTick, long[] hits) {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        long allocatedBefore = allocatedBytes(threadBean);
+        long maxPacketsPerTick = 0;
+
+        for (int tick = 0; tick < scenario.ticks(); tick++) {
+            long packetsBefore = sink.packetsSent();
+            perTick.accept(tick);
+            clock.advance();
+            maxPacketsPerTick = Math.max(maxPacketsPerTick, sink.packetsSent() - packetsBefore);
+        }
+
+        long allocatedAfter = allocatedBytes(threadBean);
+        long allocated = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        return new SimulationReport(scenario, hits[0], sink.packetsSent(), maxPacketsPerTick, handler.getPeakLiveHolograms(), allocated);
+    }
+
+    /**
+     * Lays the targets out on a square grid.
+     *
+     * @param count the number of targets
+     * @return the target locations
+     */
+    private static Location[] createTargets(int count) {
+        Location[] targets = new Location[count];
+        int side = (int) Math.ceil(Math.sqrt(count));
+        for (int i = 0; i < count; i++) {
+            targets[i] = new Location(null, (i % side) * TARGET_SPACING, 64.0, (i / side) * TARGET_SPACING);
+        }
+        return targets;
+    }
+
+    /**
+     * Reads the bytes allocated so far by the current thread.
+     *
+     * @param threadBean the thread management bean
+     * @return the allocated bytes, or -1 if the JVM does not support allocation tracking
+     */
+    private static long allocatedBytes(ThreadMXBean threadBean) {
+        if (threadBean instanceof com.sun.management.ThreadMXBean sunBean && sunBean.isThreadAllocatedMemorySupported()) {
+            return sunBean.getThreadAllocatedBytes(Thread.currentThread().threadId());
+        }
+        return -1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equalsIgnoreCase("replay")) {
+            List<JournalRecord> records = JournalReplayer.read(Path.of(args[1]));
+            double speed = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+            System.out.println(replay(records, speed, Integer.parseInt(args[2]), loadDefaultConfig()));
+            return;
+        }
+
+        if (args.length < 4) {
+            System.err.println("Usage: SimulationHarness <attackers> <targets> <viewers> <ticks> [hit-interval-ticks]");
+            System.err.println("       SimulationHarness replay <journal-file> <max-viewers> [speed]");
+            System.exit(2);
+        }
+
+        SimulationScenario scenario = new SimulationScenario(
+                Integer.parseInt(args[0]),
+                Integer.parseInt(args[1]),
+                Integer.parseInt(args[2]),
+                Integer.parseInt(args[3]),
+                args.length > 4 ? Integer.parseInt(args[4]) : 10
+        );
+        System.out.println(run(scenario, loadDefaultConfig()));
+    }
+}
\ No newline at end of file
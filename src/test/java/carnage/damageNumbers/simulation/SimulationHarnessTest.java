@@ -0,0 +1,88 @@
+package carnage.damageNumbers.simulation;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs short attacker by target by viewer scenarios through {@link SimulationHarness} and checks the packet and live
+ * hologram counts against bounds derived from the scenario, so a change that multiplies packets or leaks holograms
+ * fails the build instead of showing up on a server.
+ */
+class SimulationHarnessTest {
+    private static final int ATTACKERS = 2;
+    private static final int TARGETS = 3;
+    private static final int VIEWERS = 4;
+    private static final int TICKS = 200;
+    private static final int HIT_INTERVAL = 10;
+    private static final int LIFETIME = 40;
+    private static final int SPAWN_PACKETS = 2;
+    private static final int FRAME_INTERVAL = 2;
+
+    @Test
+    void packetsAndLiveHologramsStayWithinScenarioBounds() {
+        SimulationReport report = SimulationHarness.run(scenario(), config(false));
+
+        int slotsPerHit = VIEWERS;
+        long expectedHits = (long) ATTACKERS * TARGETS * (TICKS / HIT_INTERVAL);
+        assertEquals(expectedHits, report.hits(), "hits injected");
+
+        // Each attacker's numbers live for LIFETIME ticks and it hits every HIT_INTERVAL ticks, so between
+        // LIFETIME / HIT_INTERVAL and one more generation of its numbers are alive at once
+        int generations = LIFETIME / HIT_INTERVAL;
+        int perGeneration = TARGETS * slotsPerHit;
+        assertTrue(report.peakLiveHolograms() >= ATTACKERS * generations * perGeneration,
+                "peak live holograms " + report.peakLiveHolograms() + " below every live generation");
+        assertTrue(report.peakLiveHolograms() <= ATTACKERS * (generations + 1) * perGeneration,
+                "peak live holograms " + report.peakLiveHolograms() + " above every live generation");
+
+        // A tick sends at most the spawns of every attacker's hits and one frame or destroy per live hologram
+        long maxPacketsPerTick = (long) SPAWN_PACKETS * ATTACKERS * perGeneration + report.peakLiveHolograms();
+        assertTrue(report.maxPacketsPerTick() <= maxPacketsPerTick,
+                "max packets per tick " + report.maxPacketsPerTick() + " above " + maxPacketsPerTick);
+
+        // Every hologram spawns once, sends a frame every other tick of its life and is destroyed once
+        long packetsPerHologram = SPAWN_PACKETS + LIFETIME / FRAME_INTERVAL + 1;
+        assertTrue(report.totalPackets() >= expectedHits * slotsPerHit * SPAWN_PACKETS, "every hologram should spawn");
+        assertTrue(report.totalPackets() <= expectedHits * slotsPerHit * packetsPerHologram,
+                "total packets " + report.totalPackets() + " above " + expectedHits * slotsPerHit * packetsPerHologram);
+    }
+
+    @Test
+    void mergingKeepsOneLiveNumberPerAttackerAndTarget() {
+        SimulationReport plain = SimulationHarness.run(scenario(), config(false));
+        SimulationReport merged = SimulationHarness.run(scenario(), config(true));
+
+        assertEquals(plain.hits(), merged.hits(), "hits injected");
+        assertTrue(merged.peakLiveHolograms() <= 2 * ATTACKERS * TARGETS * VIEWERS,
+                "merged peak live holograms " + merged.peakLiveHolograms() + " above two numbers per attacker and target");
+        assertTrue(merged.peakLiveHolograms() < plain.peakLiveHolograms(), "merging should reduce live holograms");
+        assertTrue(merged.totalPackets() < plain.totalPackets(), "merging should reduce packets");
+    }
+
+    /**
+     * Creates the scenario shared by the tests.
+     *
+     * @return the scenario
+     */
+    private static SimulationScenario scenario() {
+        return new SimulationScenario(ATTACKERS, TARGETS, VIEWERS, TICKS, HIT_INTERVAL);
+    }
+
+    /**
+     * Loads the default configuration with fixed lifetimes and the chosen stacking mode.
+     *
+     * @param merge whether hits are merged into live numbers
+     * @return the configuration
+     */
+    private static FileConfiguration config(boolean merge) {
+        FileConfiguration config = SimulationHarness.loadDefaultConfig();
+        config.set("advanced.lifetime.normal", LIFETIME);
+        config.set("advanced.lifetime.critical", LIFETIME);
+        config.set("advanced.stacking.enabled", merge);
+        config.set("advanced.stacking.mode", "merge");
+        return config;
+    }
+}
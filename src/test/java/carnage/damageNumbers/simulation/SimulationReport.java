@@ -0,0 +1,43 @@
+package carnage.damageNumbers.simulation;
+
+/**
+ * Measurements collected from a simulation run.
+ *
+ * @param scenario           the simulated scenario
+ * @param hits               the number of hits injected
+ * @param totalPackets       the number of packets written during the simulated ticks
+ * @param maxPacketsPerTick  the highest packet count in a single tick
+ * @param peakLiveHolograms  the highest number of simultaneously live holograms
+ * @param allocatedBytes     the bytes allocated by the simulating thread, or -1 if unsupported
+ */
+public record SimulationReport(SimulationScenario scenario, long hits, long totalPackets, long maxPacketsPerTick,
+                               int peakLiveHolograms, long allocatedBytes) {
+
+    /**
+     * Gets the average number of packets written per tick.
+     *
+     * @return the average packets per tick
+     */
+    public double averagePacketsPerTick() {
+        return (double) totalPackets / scenario.ticks();
+    }
+
+    /**
+     * Gets the average number of bytes allocated per tick.
+     *
+     * @return the average allocation per tick, or -1 if unsupported
+     */
+    public long allocatedBytesPerTick() {
+        return allocatedBytes < 0 ? -1 : allocatedBytes / scenario.ticks();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Simulation %dx%dx%d for %d ticks: hits=%d, packets=%d (avg %.1f/tick, max %d/tick), peak live holograms=%d, allocated=%d bytes (%d/tick)",
+                scenario.attackers(), scenario.targets(), scenario.viewers(), scenario.ticks(),
+                hits, totalPackets, averagePacketsPerTick(), maxPacketsPerTick, peakLiveHolograms,
+                allocatedBytes, allocatedBytesPerTick()
+        );
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package carnage.damageNumbers.simulation;
+
+/**
+ * Shape of a simulated fight: every attacker hits every target once per hit interval,
+ * and every hit is shown to every viewer.
+ *
+ * @param attackers        the number of attackers
+ * @param targets          the number of targets
+ * @param viewers          the number of viewers each hit is shown to
+ * @param ticks            the number of ticks to simulate
+ * @param hitIntervalTicks the ticks between consecutive hits from one attacker on one target
+ */
+public record SimulationScenario(int attackers, int targets, int viewers, int ticks, int hitIntervalTicks) {
+
+    public SimulationScenario {
+        if (attackers < 1 || targets < 1 || viewers < 1 || ticks < 1 || hitIntervalTicks < 1) {
+            throw new IllegalArgumentException("All scenario dimensions must be at least 1");
+        }
+    }
+}
\ No newline at end of file